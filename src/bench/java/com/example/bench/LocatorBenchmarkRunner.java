@@ -0,0 +1,83 @@
+package com.example.bench;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openqa.selenium.By;
+
+import com.example.locators.LocatorCatalog;
+import com.example.snapshot.UiSnapshot;
+
+/**
+ * Offline locator benchmark: prints match counts for every catalogued locator, then runs
+ * {@link LocatorEvaluationBenchmark} and {@link PageSourceParseBenchmark} with the GC profiler
+ * for allocation figures.
+ * Needs no device, Appium server or network.
+ *
+ * <p>Run with {@code mvn -Pbenchmark test}. Optional system properties:
+ * {@code bench.snapshots} (page-source directory), {@code bench.locators} (regex over locator names),
+ * {@code bench.quick=true} (single short iteration, for smoke runs).
+ */
+public final class LocatorBenchmarkRunner {
+
+    private LocatorBenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Pattern filter = Pattern.compile(System.getProperty("bench.locators", ".*"));
+        Map<String, By> catalog = LocatorCatalog.all();
+        List<String> names = catalog.keySet().stream()
+            .filter(name -> filter.matcher(name).matches())
+            .collect(Collectors.toList());
+
+        List<UiSnapshot> snapshots = RecordedSnapshots.load().stream()
+            .map(UiSnapshot::parse)
+            .collect(Collectors.toList());
+        if (snapshots.isEmpty()) {
+            System.err.println("[LocatorBenchmark] No recorded page sources under " + RecordedSnapshots.directory());
+            return;
+        }
+        printMatchCounts(names, catalog, snapshots);
+
+        boolean quick = Boolean.getBoolean("bench.quick");
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .include(LocatorEvaluationBenchmark.class.getSimpleName())
+            .include(PageSourceParseBenchmark.class.getSimpleName())
+            .param("locator", names.toArray(new String[0]))
+            .jvmArgsAppend("-D" + RecordedSnapshots.DIR_PROPERTY + "=" + RecordedSnapshots.directory().toAbsolutePath())
+            .addProfiler(GCProfiler.class)
+            .forks(1)
+            .warmupIterations(quick ? 1 : 2)
+            .warmupTime(TimeValue.milliseconds(quick ? 200 : 1000))
+            .measurementIterations(quick ? 1 : 3)
+            .measurementTime(TimeValue.milliseconds(quick ? 200 : 1000))
+            .resultFormat(ResultFormatType.JSON)
+            .result(Paths.get("target", "locator-benchmark.json").toString());
+        new Runner(options.build()).run();
+    }
+
+    private static void printMatchCounts(List<String> names, Map<String, By> catalog, List<UiSnapshot> snapshots) {
+        System.out.println("[LocatorBenchmark] " + snapshots.size() + " recorded snapshots from " + RecordedSnapshots.directory());
+        System.out.println(String.format("%-60s %10s %10s", "locator", "matches", "snapshots"));
+        for (String name : names) {
+            By by = catalog.get(name);
+            int matches = 0;
+            int hitSnapshots = 0;
+            for (UiSnapshot snapshot : snapshots) {
+                int count = snapshot.findAll(by).size();
+                matches += count;
+                hitSnapshots += count > 0 ? 1 : 0;
+            }
+            System.out.println(String.format("%-60s %10d %10d", name, matches, hitSnapshots));
+        }
+    }
+}
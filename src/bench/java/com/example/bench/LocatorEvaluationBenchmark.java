@@ -0,0 +1,62 @@
+package com.example.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.By;
+
+import com.example.locators.LocatorCatalog;
+import com.example.snapshot.UiSnapshot;
+
+/**
+ * Evaluation cost of each catalogued locator over every recorded page source.
+ * The {@code locator} parameter is filled with all catalogue names by {@link LocatorBenchmarkRunner}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LocatorEvaluationBenchmark {
+
+    @Param({"AppLocators.Onboarding.VALIDATE_TEXT_GENERIC"})
+    public String locator;
+
+    private By by;
+    private List<UiSnapshot> snapshots;
+
+    @Setup(Level.Trial)
+    public void load() {
+        by = LocatorCatalog.all().get(locator);
+        if (by == null) {
+            throw new IllegalArgumentException("Unknown locator " + locator);
+        }
+        List<String> sources = RecordedSnapshots.load();
+        if (sources.isEmpty()) {
+            throw new IllegalStateException("No *_pagesource_*.xml files under " + RecordedSnapshots.directory());
+        }
+        snapshots = new ArrayList<>(sources.size());
+        for (String source : sources) {
+            snapshots.add(UiSnapshot.parse(source));
+        }
+    }
+
+    /**
+     * Locator evaluation over all snapshots, excluding parse cost.
+     */
+    @Benchmark
+    public void evaluate(Blackhole bh) {
+        for (UiSnapshot snapshot : snapshots) {
+            bh.consume(snapshot.findAll(by));
+        }
+    }
+}
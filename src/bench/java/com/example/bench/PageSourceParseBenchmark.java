@@ -0,0 +1,51 @@
+package com.example.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.snapshot.CompactHierarchy;
+import com.example.snapshot.UiSnapshot;
+
+/**
+ * Parse cost of every recorded page source, the fixed price paid once per snapshot fetch:
+ * DOM parse for locator evaluation, StAX parse into the compact form kept in history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageSourceParseBenchmark {
+
+    private List<String> sources;
+
+    @Setup(Level.Trial)
+    public void load() {
+        sources = RecordedSnapshots.load();
+        if (sources.isEmpty()) {
+            throw new IllegalStateException("No *_pagesource_*.xml files under " + RecordedSnapshots.directory());
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) {
+        for (String source : sources) {
+            bh.consume(UiSnapshot.parse(source));
+        }
+    }
+
+    @Benchmark
+    public void parseCompact(Blackhole bh) {
+        for (String source : sources) {
+            bh.consume(CompactHierarchy.parse(source));
+        }
+    }
+}
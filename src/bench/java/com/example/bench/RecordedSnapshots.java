@@ -0,0 +1,28 @@
+package com.example.bench;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.snapshot.RecordedPageSources;
+
+/**
+ * Loads the page sources captured by {@code captureDebugArtifacts} ({@code *_pagesource_*.xml}).
+ * The directory defaults to {@code target} and can be overridden with {@code -Dbench.snapshots=<dir>}.
+ */
+final class RecordedSnapshots {
+
+    static final String DIR_PROPERTY = "bench.snapshots";
+
+    private RecordedSnapshots() {
+    }
+
+    static Path directory() {
+        return Paths.get(System.getProperty(DIR_PROPERTY, "target"));
+    }
+
+    static List<String> load() {
+        return new ArrayList<>(RecordedPageSources.load(directory()).values());
+    }
+}
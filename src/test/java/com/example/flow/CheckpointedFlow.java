@@ -0,0 +1,205 @@
+package com.example.flow;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.example.snapshot.UiSnapshot;
+
+/**
+ * A flow built from {@link FlowStage}s, each of which becomes a checkpoint once it completes. The
+ * last completed stage and the {@link FlowContext} values are persisted by
+ * {@link FlowCheckpointStore} after every stage, so a later attempt can start after the last good
+ * checkpoint instead of replaying minutes of earlier stages.
+ *
+ * <p>Where to start is given by {@code resumeFrom}:
+ * <ul>
+ *   <li>{@code FRESH}: from the first stage, unless an attempt of this flow in the same run stopped
+ *       part-way (a retried test), which resumes from that attempt's checkpoint;</li>
+ *   <li>{@code LAST}: after the stored checkpoint, from any earlier run;</li>
+ *   <li>{@code AFTER_<STAGE>}: after the named stage. Permissions and login are part of
+ *       {@code JLG}: {@code AFTER_PERMISSIONS} starts at {@code JLG} and {@code AFTER_LOGIN} maps to
+ *       {@code AFTER_JLG}.</li>
+ * </ul>
+ * A stage added with an entry check names the screen it starts on. Before resuming, the first stage
+ * to run is checked against one snapshot from {@link #checkingEntryWith}; when the app is elsewhere
+ * the flow restarts from the first stage with a fresh context. Without an entry check (or a snapshot
+ * source) resuming assumes the app is still where the checkpoint left it.
+ *
+ * <p>A stage can mark a later one as not applicable ({@link FlowContext#notApplicable}); that stage
+ * is checkpointed without running.
+ */
+public final class CheckpointedFlow {
+
+    /** Identifies this JVM's run so retries can tell their own checkpoints from older ones. */
+    static final String RUN_ID = ManagementFactory.getRuntimeMXBean().getName() + "-"
+        + ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    /**
+     * One stage's work.
+     */
+    @FunctionalInterface
+    public interface StageAction {
+        void run(FlowContext context) throws Exception;
+    }
+
+    private final String flowId;
+    private final Map<FlowStage, StageAction> stages = new EnumMap<>(FlowStage.class);
+    private final Map<FlowStage, StepCondition> entryChecks = new EnumMap<>(FlowStage.class);
+    private final FlowCheckpointStore store = FlowCheckpointStore.getInstance();
+    private Supplier<UiSnapshot> snapshots;
+
+    private CheckpointedFlow(String flowId) {
+        this.flowId = flowId;
+    }
+
+    /**
+     * @param name   flow name, e.g. the test method
+     * @param device device the flow runs on; checkpoints are kept per device
+     */
+    public static CheckpointedFlow named(String name, String device) {
+        return new CheckpointedFlow(name + "@" + device);
+    }
+
+    /**
+     * Adds a stage; stages always run in {@link FlowStage} order, whatever order they are added in.
+     */
+    public CheckpointedFlow stage(FlowStage stage, StageAction action) {
+        stages.put(stage, action);
+        return this;
+    }
+
+    /**
+     * Adds a stage that starts on the screen {@code entry} recognises; see {@link #stage(FlowStage, StageAction)}.
+     */
+    public CheckpointedFlow stage(FlowStage stage, StepCondition entry, StageAction action) {
+        entryChecks.put(stage, entry);
+        return stage(stage, action);
+    }
+
+    /**
+     * Source of the snapshot the entry check of a resumed stage is evaluated against, typically the
+     * driver's {@code SnapshotCache}.
+     */
+    public CheckpointedFlow checkingEntryWith(Supplier<UiSnapshot> snapshots) {
+        this.snapshots = snapshots;
+        return this;
+    }
+
+    /**
+     * Runs the stages after the resume point. A stage that throws leaves the checkpoint at the
+     * previous stage and the exception propagates.
+     *
+     * @return the context with the values of this and any resumed run
+     */
+    public FlowContext run(String resumeFrom) throws Exception {
+        FlowCheckpoint checkpoint = store.load(flowId);
+        FlowStage resumeAfter = resolveResumePoint(resumeFrom, checkpoint);
+        // Values of a run that got at least as far as the resume point are still valid for the stages after it
+        boolean resumingCheckpoint = checkpoint != null && resumeAfter != null && checkpoint.getLastCompleted() != null
+            && checkpoint.getLastCompleted().ordinal() >= resumeAfter.ordinal();
+        FlowContext context = new FlowContext(resumingCheckpoint ? checkpoint.getData() : Collections.emptyMap());
+        if (resumeAfter != null && !atEntryOfNextStage(resumeAfter, context)) {
+            resumeAfter = null;
+            resumingCheckpoint = false;
+            context = new FlowContext(Collections.emptyMap());
+        }
+        System.out.println("[CheckpointedFlow] " + flowId + ": resumeFrom=" + resumeFrom + " -> "
+            + (resumeAfter == null ? "start" : "after " + resumeAfter)
+            + (resumingCheckpoint ? " (checkpoint " + checkpoint.getData() + ")" : ""));
+
+        FlowStage reached = resumeAfter;
+        for (Map.Entry<FlowStage, StageAction> entry : stages.entrySet()) {
+            FlowStage stage = entry.getKey();
+            if (resumeAfter != null && stage.ordinal() <= resumeAfter.ordinal()) {
+                System.out.println("[CheckpointedFlow] " + flowId + ": skipping " + stage + " (before resume point)");
+                continue;
+            }
+            String notApplicable = context.notApplicableReason(stage);
+            if (notApplicable != null) {
+                reached = stage;
+                store.save(new FlowCheckpoint(flowId, stage, false, RUN_ID, System.currentTimeMillis(), context.snapshot()));
+                System.out.println("[CheckpointedFlow] " + flowId + ": " + stage + " not applicable: " + notApplicable);
+                continue;
+            }
+            long start = System.currentTimeMillis();
+            entry.getValue().run(context);
+            long elapsed = System.currentTimeMillis() - start;
+            if (context.isStopped()) {
+                System.err.println("[CheckpointedFlow] " + flowId + ": stopped in " + stage + " after " + elapsed
+                    + " ms: " + context.getStopReason());
+                return context;
+            }
+            reached = stage;
+            store.save(new FlowCheckpoint(flowId, stage, false, RUN_ID, System.currentTimeMillis(), context.snapshot()));
+            System.out.println("[CheckpointedFlow] " + flowId + ": checkpoint " + stage + " reached in " + elapsed + " ms");
+        }
+        store.save(new FlowCheckpoint(flowId, reached, true, RUN_ID, System.currentTimeMillis(), context.snapshot()));
+        return context;
+    }
+
+    /**
+     * Whether the app shows the entry screen of the first stage to run after {@code resumeAfter}.
+     * True when that stage has no entry check or the snapshot cannot tell.
+     */
+    private boolean atEntryOfNextStage(FlowStage resumeAfter, FlowContext context) {
+        for (FlowStage stage : stages.keySet()) {
+            if (stage.ordinal() <= resumeAfter.ordinal() || context.notApplicableReason(stage) != null) {
+                continue;
+            }
+            StepCondition entry = entryChecks.get(stage);
+            if (entry == null || snapshots == null) {
+                return true;
+            }
+            Boolean atEntry;
+            try {
+                UiSnapshot snapshot = snapshots.get();
+                atEntry = snapshot == null ? Boolean.FALSE : entry.evaluate(snapshot);
+            } catch (Exception e) {
+                System.err.println("[CheckpointedFlow] " + flowId + ": entry check of " + stage + " failed: " + e.getMessage());
+                atEntry = Boolean.FALSE;
+            }
+            if (Boolean.FALSE.equals(atEntry)) {
+                System.err.println("[CheckpointedFlow] " + flowId + ": app is not on the screen " + stage
+                    + " starts from; restarting from FRESH");
+                return false;
+            }
+            return true;
+        }
+        return true;
+    }
+
+    private FlowStage resolveResumePoint(String resumeFrom, FlowCheckpoint checkpoint) {
+        String normalized = resumeFrom == null ? "FRESH" : resumeFrom.trim().toUpperCase(Locale.ROOT);
+        boolean usable = checkpoint != null && !checkpoint.isComplete() && checkpoint.getLastCompleted() != null;
+        if ("FRESH".equals(normalized)) {
+            if (usable && RUN_ID.equals(checkpoint.getRunId())) {
+                System.out.println("[CheckpointedFlow] " + flowId + ": earlier attempt in this run stopped after "
+                    + checkpoint.getLastCompleted() + "; resuming there");
+                return checkpoint.getLastCompleted();
+            }
+            return null;
+        }
+        if ("LAST".equals(normalized)) {
+            return usable ? checkpoint.getLastCompleted() : null;
+        }
+        if ("AFTER_PERMISSIONS".equals(normalized)) {
+            return null;
+        }
+        if ("AFTER_LOGIN".equals(normalized)) {
+            return FlowStage.JLG;
+        }
+        if (normalized.startsWith("AFTER_")) {
+            try {
+                return FlowStage.valueOf(normalized.substring("AFTER_".length()));
+            } catch (IllegalArgumentException ignored) {
+                // Falls through to the warning below
+            }
+        }
+        System.err.println("[CheckpointedFlow] Unknown resumeFrom='" + resumeFrom + "'. Defaulting to FRESH.");
+        return null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.flow;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Where a flow got to on a device: the last stage that completed, whether the whole flow finished,
+ * the run (JVM) that wrote it, and identifiers the app handed out on the way (submitted mobile
+ * number, selected customer).
+ */
+public final class FlowCheckpoint {
+
+    private final String flowId;
+    private final FlowStage lastCompleted;
+    private final boolean complete;
+    private final String runId;
+    private final long updatedAtMillis;
+    private final Map<String, String> data;
+
+    FlowCheckpoint(String flowId, FlowStage lastCompleted, boolean complete, String runId, long updatedAtMillis,
+                   Map<String, String> data) {
+        this.flowId = flowId;
+        this.lastCompleted = lastCompleted;
+        this.complete = complete;
+        this.runId = runId;
+        this.updatedAtMillis = updatedAtMillis;
+        this.data = Collections.unmodifiableMap(new LinkedHashMap<>(data));
+    }
+
+    public String getFlowId() {
+        return flowId;
+    }
+
+    /**
+     * Last stage that completed, or null when none did.
+     */
+    public FlowStage getLastCompleted() {
+        return lastCompleted;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public long getUpdatedAtMillis() {
+        return updatedAtMillis;
+    }
+
+    public Map<String, String> getData() {
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return flowId + " @ " + (lastCompleted == null ? "start" : lastCompleted) + (complete ? " (complete)" : "") + " " + data;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.flow;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * One properties file per flow and device under {@code target/flow-checkpoints}. Written after
+ * every completed stage, so a killed or failed run leaves the last good checkpoint behind.
+ */
+public final class FlowCheckpointStore {
+
+    private static final Path DIR = Paths.get("target", "flow-checkpoints");
+    private static final FlowCheckpointStore INSTANCE = new FlowCheckpointStore(DIR);
+    private static final String DATA_PREFIX = "data.";
+
+    private final Path dir;
+
+    private FlowCheckpointStore(Path dir) {
+        this.dir = dir;
+    }
+
+    public static FlowCheckpointStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The stored checkpoint, or null when there is none or it cannot be read.
+     */
+    public synchronized FlowCheckpoint load(String flowId) {
+        Path file = fileFor(flowId);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            System.err.println("[FlowCheckpointStore] Unable to load " + file + ": " + e.getMessage());
+            return null;
+        }
+        String stage = props.getProperty("lastCompleted", "");
+        FlowStage lastCompleted = null;
+        if (!stage.isEmpty()) {
+            try {
+                lastCompleted = FlowStage.valueOf(stage);
+            } catch (IllegalArgumentException e) {
+                System.err.println("[FlowCheckpointStore] Unknown stage '" + stage + "' in " + file + "; ignoring checkpoint");
+                return null;
+            }
+        }
+        Map<String, String> data = new LinkedHashMap<>();
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith(DATA_PREFIX)) {
+                data.put(key.substring(DATA_PREFIX.length()), props.getProperty(key));
+            }
+        }
+        long updatedAt;
+        try {
+            updatedAt = Long.parseLong(props.getProperty("updatedAt", "0"));
+        } catch (NumberFormatException e) {
+            updatedAt = 0;
+        }
+        return new FlowCheckpoint(flowId, lastCompleted, Boolean.parseBoolean(props.getProperty("complete")),
+            props.getProperty("runId", ""), updatedAt, data);
+    }
+
+    public synchronized void save(FlowCheckpoint checkpoint) {
+        Properties props = new Properties();
+        props.setProperty("flow", checkpoint.getFlowId());
+        props.setProperty("lastCompleted", checkpoint.getLastCompleted() == null ? "" : checkpoint.getLastCompleted().name());
+        props.setProperty("complete", String.valueOf(checkpoint.isComplete()));
+        props.setProperty("runId", checkpoint.getRunId());
+        props.setProperty("updatedAt", String.valueOf(checkpoint.getUpdatedAtMillis()));
+        checkpoint.getData().forEach((k, v) -> props.setProperty(DATA_PREFIX + k, v));
+        Path file = fileFor(checkpoint.getFlowId());
+        try {
+            Files.createDirectories(dir);
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                props.store(out, "Flow checkpoint");
+            }
+            // Replace in one step so a crash mid-write never leaves a truncated checkpoint
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("[FlowCheckpointStore] Unable to save " + file + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized void clear(String flowId) {
+        try {
+            Files.deleteIfExists(fileFor(flowId));
+        } catch (IOException e) {
+            System.err.println("[FlowCheckpointStore] Unable to delete checkpoint of " + flowId + ": " + e.getMessage());
+        }
+    }
+
+    private Path fileFor(String flowId) {
+        return dir.resolve(flowId.replaceAll("[^A-Za-z0-9_.@-]", "_").toLowerCase(Locale.ROOT) + ".properties");
+    }
+}
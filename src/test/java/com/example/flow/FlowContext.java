@@ -0,0 +1,74 @@
+package com.example.flow;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * State handed from stage to stage of a {@link CheckpointedFlow}. Values put here are saved with
+ * every checkpoint and restored when a later run resumes, so a stage after {@code MOBILE_SUBMIT}
+ * still knows the mobile number even when submission happened in an earlier run.
+ */
+public final class FlowContext {
+
+    /** Mobile number submitted at {@link FlowStage#MOBILE_SUBMIT}. */
+    public static final String MOBILE = "mobile";
+    /** Customer chosen at {@link FlowStage#L2_SELECTION}. */
+    public static final String CUSTOMER = "customer";
+
+    private static final String NOT_APPLICABLE = "notApplicable.";
+
+    private final Map<String, String> data;
+    private String stopReason;
+
+    FlowContext(Map<String, String> restored) {
+        this.data = new LinkedHashMap<>(restored);
+    }
+
+    public String get(String key) {
+        return data.get(key);
+    }
+
+    public void put(String key, String value) {
+        if (value == null) {
+            data.remove(key);
+        } else {
+            data.put(key, value);
+        }
+    }
+
+    /**
+     * Ends the flow after the current stage without failing it and without recording the stage as
+     * complete; for conditions the test reports but tolerates.
+     */
+    public void stop(String reason) {
+        this.stopReason = reason;
+    }
+
+    /**
+     * Marks a later stage as not applicable to this flow (the app skipped that screen); it is
+     * recorded as a checkpoint without running. Saved with the checkpoint, so a resumed run skips it
+     * too.
+     */
+    public void notApplicable(FlowStage stage, String reason) {
+        data.put(NOT_APPLICABLE + stage.name(), reason);
+    }
+
+    /**
+     * Why {@code stage} does not apply, or null when it does.
+     */
+    public String notApplicableReason(FlowStage stage) {
+        return data.get(NOT_APPLICABLE + stage.name());
+    }
+
+    public boolean isStopped() {
+        return stopReason != null;
+    }
+
+    public String getStopReason() {
+        return stopReason;
+    }
+
+    Map<String, String> snapshot() {
+        return new LinkedHashMap<>(data);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.flow;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+import com.example.testdata.TestConfig;
+
+/**
+ * Retries a failed flow test up to {@code flow.retry.max} times. The retried attempt calls
+ * {@link CheckpointedFlow#run} again, which picks up from the checkpoint the failed attempt left in
+ * this run instead of starting over, provided the app is on the screen the next stage starts from.
+ */
+public class FlowRetryAnalyzer implements IRetryAnalyzer {
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Override
+    public boolean retry(ITestResult result) {
+        if (attempts.incrementAndGet() > TestConfig.FLOW_RETRY_MAX) {
+            return false;
+        }
+        System.out.println("[FlowRetryAnalyzer] Retrying " + result.getMethod().getMethodName() + " from its last checkpoint (attempt "
+            + (attempts.get() + 1) + " of " + (TestConfig.FLOW_RETRY_MAX + 1) + ")");
+        return true;
+    }
+}
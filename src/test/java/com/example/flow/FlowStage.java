@@ -0,0 +1,22 @@
+package com.example.flow;
+
+/**
+ * Checkpoints of the onboarding journey, in the order the app walks through them. A
+ * {@link CheckpointedFlow} records the last one completed so a retry can start after it.
+ */
+public enum FlowStage {
+    /** Permissions granted, logged in and JLG opened from the home screen. */
+    JLG,
+    /** Customer details screen open and consent captured. */
+    CONSENT,
+    /** Mobile number entered and submitted. */
+    MOBILE_SUBMIT,
+    /** Voter-id document captured and accepted. */
+    VOTER_ID_CAPTURE,
+    /** L2 continuation opened and a customer selected. */
+    L2_SELECTION,
+    /** Prospect L1 details form submitted. */
+    L1_DETAILS,
+    /** Bank account added and proof captured. */
+    BANK_DETAILS
+}
@@ -0,0 +1,126 @@
+package com.example.flow;
+
+import java.time.Duration;
+
+import org.openqa.selenium.By;
+
+/**
+ * One step of a {@link StepGraph}: the control it acts on, the action, its timeout and how the
+ * {@link StepExecutor} should treat it.
+ * <ul>
+ *   <li>{@link #when(StepCondition)}: precondition; the step is skipped when it is false on the
+ *       current screen;</li>
+ *   <li>{@link #expect(StepCondition)}: postcondition; checked before the action, and a step whose
+ *       postcondition already holds is not performed at all; after the action the attempt only
+ *       counts once it holds;</li>
+ *   <li>{@link #retries(int)}: further attempts after a failed one;</li>
+ *   <li>{@link #optional()}: a failure is logged and the graph carries on;</li>
+ *   <li>{@link #settle()}: wait for the UI to go idle after the action.</li>
+ * </ul>
+ */
+public final class Step {
+
+    /**
+     * Performs the step; false (or an exception) is a failed attempt.
+     */
+    @FunctionalInterface
+    public interface Action {
+        boolean perform(Step step, Duration timeout) throws Exception;
+    }
+
+    static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(8);
+
+    private final String name;
+    private final By locator;
+    private final Action action;
+    private Duration timeout = DEFAULT_TIMEOUT;
+    private boolean optional;
+    private boolean settle;
+    private int retries;
+    private StepCondition precondition;
+    private StepCondition postcondition;
+
+    private Step(String name, By locator, Action action) {
+        this.name = name;
+        this.locator = locator;
+        this.action = action;
+    }
+
+    /**
+     * @param locator control the action works on; null for steps such as swipes that have none
+     */
+    public static Step of(String name, By locator, Action action) {
+        return new Step(name, locator, action);
+    }
+
+    public Step timeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    public Step optional() {
+        this.optional = true;
+        return this;
+    }
+
+    public Step settle() {
+        this.settle = true;
+        return this;
+    }
+
+    public Step retries(int retries) {
+        this.retries = Math.max(0, retries);
+        return this;
+    }
+
+    public Step when(StepCondition precondition) {
+        this.precondition = precondition;
+        return this;
+    }
+
+    public Step expect(StepCondition postcondition) {
+        this.postcondition = postcondition;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public By getLocator() {
+        return locator;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public boolean isOptional() {
+        return optional;
+    }
+
+    Action getAction() {
+        return action;
+    }
+
+    boolean settles() {
+        return settle;
+    }
+
+    int getRetries() {
+        return retries;
+    }
+
+    StepCondition getPrecondition() {
+        return precondition;
+    }
+
+    StepCondition getPostcondition() {
+        return postcondition;
+    }
+
+    @Override
+    public String toString() {
+        return name + (locator != null ? " " + locator : "");
+    }
+}
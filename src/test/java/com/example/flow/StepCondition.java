@@ -0,0 +1,116 @@
+package com.example.flow;
+
+import org.openqa.selenium.By;
+
+import com.example.snapshot.SnapshotMatch;
+import com.example.snapshot.UiSnapshot;
+
+/**
+ * A check on the screen evaluated against a {@link UiSnapshot}, so any number of them cost one
+ * page-source fetch. Returns null when the snapshot cannot answer (a locator strategy it does not
+ * evaluate locally); the {@link StepExecutor} then treats the condition as unknown.
+ */
+@FunctionalInterface
+public interface StepCondition {
+
+    Boolean evaluate(UiSnapshot snapshot);
+
+    /**
+     * At least one node matched by {@code locator} is displayed.
+     */
+    static StepCondition displayed(By locator) {
+        return snapshot -> {
+            if (!UiSnapshot.supports(locator)) {
+                return null;
+            }
+            for (SnapshotMatch match : snapshot.findAll(locator)) {
+                if (match.isDisplayed()) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    static StepCondition notDisplayed(By locator) {
+        return not(displayed(locator));
+    }
+
+    /**
+     * The first displayed node matched by {@code locator} shows {@code expected}, ignoring case and
+     * surrounding blanks.
+     */
+    static StepCondition textIs(By locator, String expected) {
+        return snapshot -> {
+            if (!UiSnapshot.supports(locator)) {
+                return null;
+            }
+            for (SnapshotMatch match : snapshot.findAll(locator)) {
+                if (match.isDisplayed()) {
+                    String text = match.getText();
+                    return text != null && text.trim().equalsIgnoreCase(expected.trim());
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * The first displayed node matched by {@code locator} shows some text.
+     */
+    static StepCondition hasText(By locator) {
+        return snapshot -> {
+            if (!UiSnapshot.supports(locator)) {
+                return null;
+            }
+            for (SnapshotMatch match : snapshot.findAll(locator)) {
+                if (match.isDisplayed()) {
+                    String text = match.getText();
+                    return text != null && !text.isBlank();
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * At least one of the conditions is true; unknown when none is true but one is unknown.
+     */
+    static StepCondition anyOf(StepCondition... conditions) {
+        return snapshot -> {
+            boolean unknown = false;
+            for (StepCondition condition : conditions) {
+                Boolean value = condition.evaluate(snapshot);
+                if (Boolean.TRUE.equals(value)) {
+                    return true;
+                }
+                unknown |= value == null;
+            }
+            return unknown ? null : false;
+        };
+    }
+
+    static StepCondition not(StepCondition condition) {
+        return snapshot -> {
+            Boolean value = condition.evaluate(snapshot);
+            return value == null ? null : !value;
+        };
+    }
+
+    /**
+     * False as soon as one condition is false; unknown when none is false but one is unknown.
+     */
+    static StepCondition allOf(StepCondition... conditions) {
+        return snapshot -> {
+            boolean unknown = false;
+            for (StepCondition condition : conditions) {
+                Boolean value = condition.evaluate(snapshot);
+                if (Boolean.FALSE.equals(value)) {
+                    return false;
+                }
+                unknown |= value == null;
+            }
+            return unknown ? null : true;
+        };
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.flow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.example.snapshot.UiSnapshot;
+import com.example.waits.FlowDeadlineExceededException;
+import com.example.waits.WaitLedger;
+
+/**
+ * Runs a {@link StepGraph}. Every step is timed the same way and recorded in the
+ * {@link WaitLedger} under {@code step.<graph>.<step>}; a summary with the slowest steps is printed
+ * when the graph ends.
+ *
+ * <p>Before a batch runs, one snapshot decides for each of its steps whether the postcondition
+ * already holds (the step is {@link Outcome#SATISFIED} and not performed, e.g. a dropdown that
+ * already shows its value on a re-run) and whether the precondition fails (the step is
+ * {@link Outcome#SKIPPED}). Anything the snapshot cannot decide is run. A failed required step ends
+ * the graph; a spent flow budget always does, optional step or not.
+ */
+public final class StepExecutor {
+
+    public enum Outcome {
+        /** Performed and, if it has one, its postcondition held afterwards. */
+        DONE,
+        /** Not performed: the postcondition already held. */
+        SATISFIED,
+        /** Not performed: the precondition did not hold. */
+        SKIPPED,
+        FAILED
+    }
+
+    /**
+     * What happened to each step of one run.
+     */
+    public static final class Result {
+        private final String graph;
+        private final Map<String, Outcome> outcomes = new LinkedHashMap<>();
+        private Step failedStep;
+
+        private Result(String graph) {
+            this.graph = graph;
+        }
+
+        public boolean succeeded() {
+            return failedStep == null;
+        }
+
+        /**
+         * The required step that ended the graph, or null.
+         */
+        public Step getFailedStep() {
+            return failedStep;
+        }
+
+        public Outcome outcomeOf(String step) {
+            return outcomes.get(step);
+        }
+
+        public Map<String, Outcome> outcomes() {
+            return Collections.unmodifiableMap(outcomes);
+        }
+
+        @Override
+        public String toString() {
+            return graph + (succeeded() ? " succeeded" : " failed at " + failedStep.getName()) + " " + outcomes;
+        }
+    }
+
+    private final String owner;
+    private final Supplier<UiSnapshot> snapshots;
+    private final Runnable settle;
+    private final WaitLedger ledger = WaitLedger.getInstance();
+
+    /**
+     * @param owner     prefix for log lines, e.g. the page class
+     * @param snapshots current screen, or null when it cannot be read
+     * @param settle    waits for the UI to go idle; run after steps marked {@link Step#settle()}
+     */
+    public StepExecutor(String owner, Supplier<UiSnapshot> snapshots, Runnable settle) {
+        this.owner = owner;
+        this.snapshots = snapshots;
+        this.settle = settle;
+    }
+
+    public Result run(StepGraph graph) {
+        String log = "[" + owner + "] " + graph.getName() + ": ";
+        Result result = new Result(graph.getName());
+        Map<String, Long> timings = new LinkedHashMap<>();
+        long start = System.currentTimeMillis();
+        try {
+            for (List<Step> batch : graph.batches()) {
+                List<Outcome> decided = decide(batch);
+                for (int i = 0; i < batch.size(); i++) {
+                    Step step = batch.get(i);
+                    if (decided.get(i) != null) {
+                        System.out.println(log + "skipping " + step.getName() + (decided.get(i) == Outcome.SATISFIED
+                            ? " (already satisfied)" : " (precondition not met)"));
+                        result.outcomes.put(step.getName(), decided.get(i));
+                        continue;
+                    }
+                    long stepStart = System.currentTimeMillis();
+                    boolean ok = attempt(step, log);
+                    long elapsed = System.currentTimeMillis() - stepStart;
+                    timings.put(step.getName(), elapsed);
+                    ledger.record("step." + graph.getName() + "." + step.getName(),
+                        step.getTimeout().toMillis() * (step.getRetries() + 1), elapsed, !ok, false);
+                    result.outcomes.put(step.getName(), ok ? Outcome.DONE : Outcome.FAILED);
+                    if (!ok && !step.isOptional()) {
+                        result.failedStep = step;
+                        System.err.println(log + "required step " + step + " failed after " + elapsed + " ms");
+                        return result;
+                    }
+                    if (!ok) {
+                        System.out.println(log + "optional step " + step.getName() + " failed; continuing");
+                    }
+                }
+            }
+            return result;
+        } finally {
+            System.out.println(log + summary(result, timings, System.currentTimeMillis() - start));
+        }
+    }
+
+    /**
+     * Post- and preconditions of the whole batch from one snapshot: {@link Outcome#SATISFIED} or
+     * {@link Outcome#SKIPPED} for steps that need not run, null for "run it".
+     */
+    private List<Outcome> decide(List<Step> batch) {
+        List<Outcome> decided = new ArrayList<>(Collections.nCopies(batch.size(), (Outcome) null));
+        UiSnapshot snapshot = null;
+        for (int i = 0; i < batch.size(); i++) {
+            Step step = batch.get(i);
+            if (step.getPostcondition() == null && step.getPrecondition() == null) {
+                continue;
+            }
+            if (snapshot == null) {
+                snapshot = snapshots.get();
+                if (snapshot == null) {
+                    return decided;
+                }
+            }
+            if (step.getPostcondition() != null && Boolean.TRUE.equals(evaluate(step.getPostcondition(), snapshot))) {
+                decided.set(i, Outcome.SATISFIED);
+            } else if (step.getPrecondition() != null && Boolean.FALSE.equals(evaluate(step.getPrecondition(), snapshot))) {
+                decided.set(i, Outcome.SKIPPED);
+            }
+        }
+        return decided;
+    }
+
+    private boolean attempt(Step step, String log) {
+        int attempts = step.getRetries() + 1;
+        for (int n = 1; n <= attempts; n++) {
+            boolean ok;
+            try {
+                ok = step.getAction().perform(step, step.getTimeout());
+            } catch (FlowDeadlineExceededException e) {
+                throw e;
+            } catch (Exception e) {
+                System.err.println(log + step.getName() + " attempt " + n + " threw: " + e.getMessage());
+                ok = false;
+            }
+            if (ok && step.settles()) {
+                settle.run();
+            }
+            if (ok && step.getPostcondition() != null) {
+                UiSnapshot after = snapshots.get();
+                ok = after == null || !Boolean.FALSE.equals(evaluate(step.getPostcondition(), after));
+                if (!ok) {
+                    System.err.println(log + step.getName() + " attempt " + n + " did not reach its postcondition");
+                }
+            }
+            if (ok) {
+                return true;
+            }
+            if (n < attempts) {
+                System.out.println(log + "retrying " + step.getName() + " (" + (n + 1) + "/" + attempts + ")");
+            }
+        }
+        return false;
+    }
+
+    private static Boolean evaluate(StepCondition condition, UiSnapshot snapshot) {
+        try {
+            return condition.evaluate(snapshot);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String summary(Result result, Map<String, Long> timings, long totalMillis) {
+        int done = 0;
+        int satisfied = 0;
+        int skipped = 0;
+        int failed = 0;
+        for (Outcome outcome : result.outcomes.values()) {
+            if (outcome == Outcome.DONE) {
+                done++;
+            } else if (outcome == Outcome.SATISFIED) {
+                satisfied++;
+            } else if (outcome == Outcome.SKIPPED) {
+                skipped++;
+            } else {
+                failed++;
+            }
+        }
+        List<Map.Entry<String, Long>> slowest = new ArrayList<>(timings.entrySet());
+        slowest.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        StringBuilder sb = new StringBuilder();
+        sb.append(done).append(" done, ").append(satisfied).append(" already satisfied, ").append(skipped).append(" skipped, ").append(failed).append(" failed in ")
+            .append(totalMillis).append(" ms");
+        for (int i = 0; i < Math.min(3, slowest.size()); i++) {
+            sb.append(i == 0 ? "; slowest: " : ", ").append(slowest.get(i).getKey()).append(' ')
+                .append(slowest.get(i).getValue()).append(" ms");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.flow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A flow described as data: steps in the order they run, grouped into batches. The preconditions of
+ * all steps in a {@link #batch(Step...)} are decided from one snapshot taken before the batch runs,
+ * so only group steps whose actions do not change what the others check for (e.g. several
+ * dropdowns on one form).
+ */
+public final class StepGraph {
+
+    private final String name;
+    private final List<List<Step>> batches = new ArrayList<>();
+
+    private StepGraph(String name) {
+        this.name = name;
+    }
+
+    public static StepGraph named(String name) {
+        return new StepGraph(name);
+    }
+
+    public StepGraph then(Step step) {
+        batches.add(Collections.singletonList(step));
+        return this;
+    }
+
+    public StepGraph batch(Step... steps) {
+        batches.add(Collections.unmodifiableList(Arrays.asList(steps)));
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    List<List<Step>> batches() {
+        return Collections.unmodifiableList(batches);
+    }
+
+    public int size() {
+        int n = 0;
+        for (List<Step> batch : batches) {
+            n += batch.size();
+        }
+        return n;
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.locators;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.openqa.selenium.By;
 
 // Removed MobileBy usages to avoid editor classpath issues; use standard `By` where possible
@@ -37,7 +41,10 @@ public final class AppLocators {
         public static final By VALIDATE_CLICKABLE = By.xpath("//*[contains(translate(@text,'abcdefghijklmnopqrstuvwxyz','ABCDEFGHIJKLMNOPQRSTUVWXYZ'),'VALIDATE') and (@clickable='true' or @clickable='True')]");
         public static final By VALIDATE_RESOURCE = By.xpath("//*[contains(translate(@resource-id,'abcdefghijklmnopqrstuvwxyz','ABCDEFGHIJKLMNOPQRSTUVWXYZ'),'VALIDATE') and (@clickable='true' or @clickable='True')]");
         public static final By SUBMIT_RESOURCE = By.xpath("//*[contains(translate(@resource-id,'abcdefghijklmnopqrstuvwxyz','ABCDEFGHIJKLMNOPQRSTUVWXYZ'),'SUBMIT') and (@clickable='true' or @clickable='True')]");
-        public static final By BOUNDS_FALLBACK = By.xpath("//android.view.View[@bounds='[99,1534][981,1677]' and (@clickable='true' or @clickable='True')]");
+        // Wide clickable View centred around 73% of screen height (was @bounds='[99,1534][981,1677]' on 1080x2208)
+        public static final By BOUNDS_FALLBACK = GeometricLocator.clickable("android.view.View")
+            .centreWithin(0.45, 0.60, 0.55, 0.85)
+            .widthBetween(0.60, 0.95);
         public static final By FIRST_CLICKABLE = By.xpath("(//*[(@clickable='true' or @clickable='True')])[1]");
         public static final By VALIDATE_TEXT_GENERIC = By.xpath(
             "//*[" +
@@ -53,7 +60,11 @@ public final class AppLocators {
         public static final By OTP_INPUT_BY_HINT = By.xpath("//android.widget.EditText[contains(translate(@hint,'abcdefghijklmnopqrstuvwxyz','ABCDEFGHIJKLMNOPQRSTUVWXYZ'),'OTP')]");
         public static final By OTP_INPUT_BY_DESC = By.xpath("//android.widget.EditText[contains(translate(@content-desc,'abcdefghijklmnopqrstuvwxyz','ABCDEFGHIJKLMNOPQRSTUVWXYZ'),'OTP')]");
         public static final By OTP_PIN_VIEW_DIGITS = By.xpath("//android.widget.EditText[@password='true' or contains(translate(@resource-id,'abcdefghijklmnopqrstuvwxyz','ABCDEFGHIJKLMNOPQRSTUVWXYZ'),'PIN')]");
-        public static final By RIGHT_ARROW_LOCATOR = By.xpath("//android.view.View[@bounds='[430,1848][650,2068]' and @clickable='true']");
+        // Clickable View horizontally centred in the lower 15% of the screen (was @bounds='[430,1848][650,2068]')
+        public static final By RIGHT_ARROW_LOCATOR = GeometricLocator.clickable("android.view.View")
+            .horizontallyCentred(0.05)
+            .inLowerFraction(0.15)
+            .widthBetween(0.10, 0.35);
         public static final By RIGHT_ARROW_LOCATOR_FUZZY = By.xpath(
             "//*[contains(translate(@content-desc,'abcdefghijklmnopqrstuvwxyz','ABCDEFGHIJKLMNOPQRSTUVWXYZ'),'RIGHT') " +
                 "and contains(translate(@content-desc,'abcdefghijklmnopqrstuvwxyz','ABCDEFGHIJKLMNOPQRSTUVWXYZ'),'ARROW') " +
@@ -126,6 +137,21 @@ public final class AppLocators {
             "Grant",
             "OK"
         };
+
+        // Every allow-button locator in the order PermissionPage tries them: ids, texts, resource fallback
+        public static final List<By> ALLOW_BUTTON_CHAIN = buildAllowButtonChain();
+
+        private static List<By> buildAllowButtonChain() {
+            List<By> chain = new ArrayList<>();
+            for (String id : ALLOW_BUTTON_IDS) {
+                chain.add(byId(id));
+            }
+            for (String text : ALLOW_BUTTON_TEXTS) {
+                chain.add(permissionsButtonByText(text));
+            }
+            chain.add(ALLOW_BUTTON_RESOURCE_CONTAINS);
+            return Collections.unmodifiableList(chain);
+        }
     }
 
     public static By byId(String id) {
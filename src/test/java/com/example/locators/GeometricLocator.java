@@ -0,0 +1,215 @@
+package com.example.locators;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+
+import com.example.snapshot.SnapshotCache;
+import com.example.snapshot.SnapshotLocator;
+import com.example.snapshot.SnapshotMatch;
+import com.example.snapshot.UiSnapshot;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * Resolution-independent replacement for hard-coded {@code @bounds} XPaths. The target is described
+ * by where its centre lies as a fraction of the viewport (or of an anchor element's bounds) and by its
+ * size as a fraction of the viewport, e.g. "clickable View centred horizontally in the lower 15% of
+ * the screen". It is resolved on the cached {@link UiSnapshot}; the chosen nodes are then fetched
+ * with an exact bounds XPath computed for the current device.
+ *
+ * <p>Instances are immutable; every refinement returns a copy.
+ */
+public final class GeometricLocator extends By implements SnapshotLocator {
+
+    private final String className;
+    private final boolean clickableOnly;
+    private final double left;
+    private final double top;
+    private final double right;
+    private final double bottom;
+    private final double minWidth;
+    private final double maxWidth;
+    private final double minHeight;
+    private final double maxHeight;
+    private final By anchor;
+
+    private GeometricLocator(String className, boolean clickableOnly, double left, double top, double right,
+                             double bottom, double minWidth, double maxWidth, double minHeight, double maxHeight,
+                             By anchor) {
+        this.className = className;
+        this.clickableOnly = clickableOnly;
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+        this.minWidth = minWidth;
+        this.maxWidth = maxWidth;
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+        this.anchor = anchor;
+    }
+
+    /**
+     * Clickable nodes of the given class (null for any class), anywhere on screen until refined.
+     */
+    public static GeometricLocator clickable(String className) {
+        return new GeometricLocator(className, true, 0, 0, 1, 1, 0, Double.MAX_VALUE, 0, Double.MAX_VALUE, null);
+    }
+
+    /**
+     * Nodes of the given class (null for any class) regardless of clickability.
+     */
+    public static GeometricLocator any(String className) {
+        return new GeometricLocator(className, false, 0, 0, 1, 1, 0, Double.MAX_VALUE, 0, Double.MAX_VALUE, null);
+    }
+
+    /**
+     * Centre must lie inside this region, given as fractions of the reference rectangle.
+     * Values outside 0..1 reach beyond an anchor, e.g. {@code top = 1} means "below the anchor".
+     */
+    public GeometricLocator centreWithin(double left, double top, double right, double bottom) {
+        return new GeometricLocator(className, clickableOnly, left, top, right, bottom,
+            minWidth, maxWidth, minHeight, maxHeight, anchor);
+    }
+
+    /**
+     * Narrows the horizontal centre band to {@code 0.5 ± tolerance}.
+     */
+    public GeometricLocator horizontallyCentred(double tolerance) {
+        return new GeometricLocator(className, clickableOnly, 0.5 - tolerance, top, 0.5 + tolerance, bottom,
+            minWidth, maxWidth, minHeight, maxHeight, anchor);
+    }
+
+    /**
+     * Centre in the bottom {@code fraction} of the reference rectangle.
+     */
+    public GeometricLocator inLowerFraction(double fraction) {
+        return new GeometricLocator(className, clickableOnly, left, 1 - fraction, right, 1,
+            minWidth, maxWidth, minHeight, maxHeight, anchor);
+    }
+
+    /**
+     * Width bounds as fractions of the viewport width.
+     */
+    public GeometricLocator widthBetween(double min, double max) {
+        return new GeometricLocator(className, clickableOnly, left, top, right, bottom,
+            min, max, minHeight, maxHeight, anchor);
+    }
+
+    /**
+     * Height bounds as fractions of the viewport height.
+     */
+    public GeometricLocator heightBetween(double min, double max) {
+        return new GeometricLocator(className, clickableOnly, left, top, right, bottom,
+            minWidth, maxWidth, min, max, anchor);
+    }
+
+    /**
+     * Measures the centre region against the first match of {@code anchor} instead of the viewport.
+     * Nothing matches while the anchor is absent.
+     */
+    public GeometricLocator relativeTo(By anchor) {
+        return new GeometricLocator(className, clickableOnly, left, top, right, bottom,
+            minWidth, maxWidth, minHeight, maxHeight, anchor);
+    }
+
+    /**
+     * Element name the bounds XPath of {@link #findElements} is built on.
+     */
+    String targetTag() {
+        return className == null ? "*" : className;
+    }
+
+    @Override
+    public List<SnapshotMatch> select(UiSnapshot snapshot) {
+        int width = snapshot.getWidth();
+        int height = snapshot.getHeight();
+        if (width <= 0 || height <= 0) {
+            return new ArrayList<>();
+        }
+        Rectangle reference = new Rectangle(0, 0, height, width);
+        if (anchor != null) {
+            List<SnapshotMatch> anchors = snapshot.findAll(anchor);
+            if (anchors.isEmpty()) {
+                return new ArrayList<>();
+            }
+            reference = anchors.get(0).getBounds();
+        }
+        double regionLeft = reference.getX() + left * reference.getWidth();
+        double regionRight = reference.getX() + right * reference.getWidth();
+        double regionTop = reference.getY() + top * reference.getHeight();
+        double regionBottom = reference.getY() + bottom * reference.getHeight();
+        double targetX = (regionLeft + regionRight) / 2;
+        double targetY = (regionTop + regionBottom) / 2;
+
+        List<SnapshotMatch> candidates = snapshot.findAll(className == null
+            ? By.xpath("//*")
+            : By.className(className));
+        List<SnapshotMatch> matches = new ArrayList<>();
+        for (SnapshotMatch match : candidates) {
+            if (clickableOnly && !match.isClickable() || !match.isDisplayed()) {
+                continue;
+            }
+            Rectangle b = match.getBounds();
+            Point c = match.getCenter();
+            double w = (double) b.getWidth() / width;
+            double h = (double) b.getHeight() / height;
+            if (c.getX() >= regionLeft && c.getX() <= regionRight
+                && c.getY() >= regionTop && c.getY() <= regionBottom
+                && w >= minWidth && w <= maxWidth && h >= minHeight && h <= maxHeight) {
+                matches.add(match);
+            }
+        }
+        matches.sort(Comparator.comparingDouble(m ->
+            Math.hypot(m.getCenter().getX() - targetX, m.getCenter().getY() - targetY)));
+        return matches;
+    }
+
+    @Override
+    public List<WebElement> findElements(SearchContext context) {
+        AndroidDriver driver = driverOf(context);
+        UiSnapshot snapshot = SnapshotCache.forDriver(driver).capture();
+        Set<WebElement> elements = new LinkedHashSet<>();
+        for (SnapshotMatch match : select(snapshot)) {
+            elements.addAll(context.findElements(By.xpath(
+                "//" + match.getClassName() + "[@bounds='" + match.attribute("bounds") + "']")));
+        }
+        return new ArrayList<>(elements);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("By.geometry: ");
+        sb.append(clickableOnly ? "clickable " : "").append(className == null ? "*" : className);
+        sb.append(String.format(Locale.ROOT, " centre in [%.2f..%.2f]x[%.2f..%.2f] of %s",
+            left, right, top, bottom, anchor == null ? "viewport" : anchor));
+        if (minWidth > 0 || maxWidth < Double.MAX_VALUE) {
+            sb.append(String.format(Locale.ROOT, ", width %.2f..%.2f", minWidth, Math.min(maxWidth, 99)));
+        }
+        if (minHeight > 0 || maxHeight < Double.MAX_VALUE) {
+            sb.append(String.format(Locale.ROOT, ", height %.2f..%.2f", minHeight, Math.min(maxHeight, 99)));
+        }
+        return sb.toString();
+    }
+
+    private static AndroidDriver driverOf(SearchContext context) {
+        if (context instanceof AndroidDriver) {
+            return (AndroidDriver) context;
+        }
+        if (context instanceof WrapsDriver && ((WrapsDriver) context).getWrappedDriver() instanceof AndroidDriver) {
+            return (AndroidDriver) ((WrapsDriver) context).getWrappedDriver();
+        }
+        throw new IllegalArgumentException("GeometricLocator needs an AndroidDriver search context, got " + context);
+    }
+}
@@ -31,9 +31,19 @@ public final class L2_Info_Locators {
     public static final By RESIDENCE_OPTION_OWN_HOUSE = By.xpath("//android.view.ViewGroup[@resource-id='android:id/content']/android.view.View/android.view.View/android.view.View/android.widget.ScrollView/android.widget.ScrollView/android.view.View[1]");
     public static final By OWNERSHIP_PROOF_SPINNER = By.xpath("//android.widget.Spinner[@text='Select Ownership Proof']");
     public static final By OWNERSHIP_OPTION_KATHA = By.xpath("//android.view.ViewGroup[@resource-id='android:id/content']/android.view.View/android.view.View/android.view.View/android.widget.ScrollView/android.widget.ScrollView/android.view.View[2]");
+    // A chosen value replaces the "Select ..." prompt, on the Spinner itself or on its selected-item TextView
+    public static final By RELIGION_SELECTED_HINDU = spinnerShowing("Hindu");
+    public static final By EDUCATION_SELECTED_ENGINEERING_GRADUATE = spinnerShowing("Engineering Graduate");
+    public static final By RESIDENCE_SELECTED_OWN_HOUSE = spinnerShowing("Own House");
+    public static final By OWNERSHIP_SELECTED_KATHA = spinnerShowing("Katha");
     public static final By DOCUMENT_CAPTURE_SECTION = By.xpath("//android.widget.ScrollView/android.view.View");
     public static final By CAPTURE_FRONT_IMAGE_TEXT = By.xpath("//android.widget.TextView[@text='Capture Front image']");
     public static final By CAPTURE_BACK_IMAGE_TEXT = By.xpath("//android.widget.TextView[@text='Capture Back image']");
+    // A captured side shows its thumbnail, or a retake control where the capture button was
+    public static final By FRONT_IMAGE_THUMBNAIL = By.xpath("//android.widget.ImageView[contains(@resource-id,'front_image') or contains(@content-desc,'Front image')]");
+    public static final By BACK_IMAGE_THUMBNAIL = By.xpath("//android.widget.ImageView[contains(@resource-id,'back_image') or contains(@content-desc,'Back image')]");
+    public static final By RETAKE_FRONT_IMAGE_TEXT = By.xpath("//android.widget.TextView[@text='Retake Front image']");
+    public static final By RETAKE_BACK_IMAGE_TEXT = By.xpath("//android.widget.TextView[@text='Retake Back image']");
     public static final By SUBMIT_TEXT_BUTTON = By.xpath(
         "//android.widget.TextView[@text='SUBMIT' or @text='Submit']/ancestor::android.view.View[@clickable='true'][1]"
             + " | //android.widget.Button[@text='SUBMIT' or @text='Submit']"
@@ -59,6 +69,8 @@ public final class L2_Info_Locators {
     public static final By BANK_BRANCH_NAME_INPUT = By.id("mifix.io.qa:id/ed_branch_name");
     public static final By BANK_BRANCH_ADDRESS_INPUT = By.id("mifix.io.qa:id/ed_branch_address");
     public static final By BANK_PROOF_IMAGE_TOGGLE = By.id("mifix.io.qa:id/add_or_view_bank_proof_image");
+    public static final By BANK_PROOF_IMAGE_1 = By.xpath("//android.widget.ImageView[contains(@resource-id,'bank_proof_image_1') or contains(@content-desc,'Bank Proof 1')]");
+    public static final By BANK_PROOF_IMAGE_2 = By.xpath("//android.widget.ImageView[contains(@resource-id,'bank_proof_image_2') or contains(@content-desc,'Bank Proof 2')]");
     public static final By BANK_PROOF_COMPOSE_CAPTURE = By.xpath("//androidx.compose.ui.platform.ComposeView/android.view.View/android.view.View[1]/android.view.View");
     public static final By BANK_PROOF_SECOND_CAPTURE_COMPOSE = By.xpath("//androidx.compose.ui.platform.ComposeView/android.view.View/android.view.View[1]/android.view.View[1]");
     public static final By CAMERA_CAPTURE_BUTTON = By.xpath("//android.widget.ImageButton[@content-desc='Capture']");
@@ -70,9 +82,8 @@ public final class L2_Info_Locators {
     public static final By BANK_PROOF_SAVE_BUTTON = By.id("mifix.io.qa:id/bt_save");
     public static final By BANK_ACCOUNT_DETAILS_CARD = By.xpath("//androidx.cardview.widget.CardView[@resource-id='mifix.io.qa:id/cvBankAccountDetails']/android.view.ViewGroup");
 
-
-    
-
-
-
+    private static By spinnerShowing(String value) {
+        return By.xpath("//android.widget.Spinner[@text='" + value + "'"
+            + " or .//android.widget.TextView[@resource-id='android:id/text1' and @text='" + value + "']]");
+    }
 }
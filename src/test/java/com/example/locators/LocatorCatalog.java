@@ -0,0 +1,60 @@
+package com.example.locators;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+
+/**
+ * Reflective inventory of every {@code public static final By} declared in {@link AppLocators}
+ * (including its nested screens) and {@link L2_Info_Locators}, keyed by qualified field name
+ * such as {@code AppLocators.Onboarding.VALIDATE_PARENT}.
+ */
+public final class LocatorCatalog {
+
+    private static Map<By, String> names;
+
+    private LocatorCatalog() {
+    }
+
+    /**
+     * Qualified field name of a catalogued locator (the first one when several fields share it), or null.
+     */
+    public static synchronized String nameOf(By locator) {
+        if (names == null) {
+            Map<By, String> reverse = new HashMap<>();
+            all().forEach((name, by) -> reverse.putIfAbsent(by, name));
+            names = reverse;
+        }
+        return names.get(locator);
+    }
+
+    public static Map<String, By> all() {
+        Map<String, By> catalog = new LinkedHashMap<>();
+        collect(AppLocators.class, "AppLocators", catalog);
+        collect(L2_Info_Locators.class, "L2_Info_Locators", catalog);
+        return Collections.unmodifiableMap(catalog);
+    }
+
+    private static void collect(Class<?> type, String prefix, Map<String, By> into) {
+        for (Field field : type.getDeclaredFields()) {
+            int mod = field.getModifiers();
+            if (Modifier.isPublic(mod) && Modifier.isStatic(mod) && By.class.isAssignableFrom(field.getType())) {
+                try {
+                    into.put(prefix + "." + field.getName(), (By) field.get(null));
+                } catch (IllegalAccessException e) {
+                    System.err.println("[LocatorCatalog] Unable to read " + prefix + "." + field.getName());
+                }
+            }
+        }
+        for (Class<?> nested : type.getDeclaredClasses()) {
+            if (Modifier.isPublic(nested.getModifiers())) {
+                collect(nested, prefix + "." + nested.getSimpleName(), into);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.locators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.openqa.selenium.By;
+
+/**
+ * Ordered fallback locators that learn which entry actually matches.
+ * {@link #ordered()} ranks entries by observed success rate (then latency, then declared order);
+ * entries marked with {@link #pinLast(By...)} are catch-alls that are never promoted.
+ */
+public final class LocatorChain {
+
+    private final String name;
+    private final List<By> declared;
+    private final Set<By> pinnedLast = new HashSet<>();
+    private final LocatorStats stats;
+
+    private LocatorChain(String name, List<By> declared, LocatorStats stats) {
+        this.name = name;
+        this.declared = Collections.unmodifiableList(new ArrayList<>(declared));
+        this.stats = stats;
+    }
+
+    public static LocatorChain of(String name, By... locators) {
+        return of(name, Arrays.asList(locators));
+    }
+
+    public static LocatorChain of(String name, List<By> locators) {
+        return new LocatorChain(name, locators, LocatorStats.getInstance());
+    }
+
+    public LocatorChain pinLast(By... locators) {
+        pinnedLast.addAll(Arrays.asList(locators));
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<By> declared() {
+        return declared;
+    }
+
+    /**
+     * Entries in the order they should be tried on this run.
+     */
+    public List<By> ordered() {
+        List<By> ordered = new ArrayList<>(declared);
+        ordered.sort(Comparator
+            .comparing((By by) -> pinnedLast.contains(by))
+            .thenComparing(Comparator.comparingDouble(this::successScore).reversed())
+            .thenComparingLong(this::latencyScore)
+            .thenComparingInt(declared::indexOf));
+        return ordered;
+    }
+
+    /**
+     * Records a successful lookup. Entries tried before the winner in {@code triedOrder} count as misses.
+     */
+    public void recordHit(By winner, List<By> triedOrder, long latencyMillis) {
+        for (By candidate : triedOrder) {
+            if (candidate.equals(winner)) {
+                break;
+            }
+            stats.recordMiss(key(candidate));
+        }
+        stats.recordHit(key(winner), latencyMillis);
+    }
+
+    public void recordHit(By winner, long latencyMillis) {
+        recordHit(winner, ordered(), latencyMillis);
+    }
+
+    /**
+     * Records a lookup where no entry matched.
+     */
+    public void recordMiss() {
+        for (By candidate : declared) {
+            stats.recordMiss(key(candidate));
+        }
+    }
+
+    private double successScore(By by) {
+        String key = key(by);
+        long hits = stats.hits(key);
+        long misses = stats.misses(key);
+        // Laplace smoothing keeps unseen entries at 0.5 so a single miss does not bury them
+        return (hits + 1.0) / (hits + misses + 2.0);
+    }
+
+    private long latencyScore(By by) {
+        long avg = stats.averageLatencyMillis(key(by));
+        return avg < 0 ? Long.MAX_VALUE : avg;
+    }
+
+    private String key(By by) {
+        return name + "|" + by;
+    }
+
+    @Override
+    public String toString() {
+        return name + ordered();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.locators;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Estimated on-device evaluation cost of a locator plus the reasons behind the score.
+ */
+public final class LocatorCost {
+
+    private final int score;
+    private final List<String> findings;
+
+    LocatorCost(int score, List<String> findings) {
+        this.score = score;
+        this.findings = Collections.unmodifiableList(findings);
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public List<String> getFindings() {
+        return findings;
+    }
+
+    @Override
+    public String toString() {
+        return score + " " + findings;
+    }
+}
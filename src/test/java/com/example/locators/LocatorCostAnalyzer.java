@@ -0,0 +1,167 @@
+package com.example.locators;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.By;
+
+/**
+ * Static cost model for locators. UiAutomator2 evaluates XPath against a freshly dumped copy of
+ * the whole hierarchy, so descendant scans, wildcard steps, reverse axes and per-node function
+ * calls dominate; native id / accessibility-id lookups are cheapest.
+ */
+public final class LocatorCostAnalyzer {
+
+    private static final Pattern AXIS = Pattern.compile("(ancestor|ancestor-or-self|following|following-sibling|preceding|preceding-sibling)::");
+    private static final Pattern DESCENDANT_AXIS = Pattern.compile("descendant(-or-self)?::");
+    private static final Pattern POSITION = Pattern.compile("\\[\\s*\\d+\\s*\\]");
+    private static final Pattern FUNCTION = Pattern.compile("(translate|contains|starts-with|normalize-space|string-length)\\s*\\(");
+    private static final Pattern REGEX_SELECTOR = Pattern.compile("\\w+Matches\\s*\\(");
+    // A page-source fetch dumps the whole hierarchy, like the one behind a leading //* scan
+    private static final int PAGE_SOURCE_FETCH = 35;
+
+    private LocatorCostAnalyzer() {
+    }
+
+    public static LocatorCost analyze(By locator) {
+        List<String> findings = new ArrayList<>();
+        if (locator instanceof GeometricLocator) {
+            // Resolved on a fresh page source, then each match is fetched again by an exact bounds XPath
+            findings.add("geometric: page source fetch");
+            int lookup = branchCost("//" + ((GeometricLocator) locator).targetTag(), new ArrayList<>());
+            findings.add("bounds XPath per match (" + lookup + ")");
+            return new LocatorCost(PAGE_SOURCE_FETCH + lookup, findings);
+        }
+        if (!(locator instanceof By.Remotable)) {
+            findings.add("custom locator strategy");
+            return new LocatorCost(20, findings);
+        }
+        By.Remotable.Parameters params = ((By.Remotable) locator).getRemoteParameters();
+        String value = String.valueOf(params.value());
+        switch (params.using()) {
+            case "id":
+                return new LocatorCost(1, findings);
+            case "accessibility id":
+                return new LocatorCost(2, findings);
+            case "class name":
+                findings.add("class-name scan");
+                return new LocatorCost(6, findings);
+            case "-android uiautomator":
+                return uiSelectorCost(value, findings);
+            case "xpath":
+                return xpathCost(value, findings);
+            default:
+                findings.add("strategy '" + params.using() + "'");
+                return new LocatorCost(20, findings);
+        }
+    }
+
+    /**
+     * Cheaper equivalent strategy for an XPath locator, or null when none is known.
+     * Callers should confirm the rewrite returns the same nodes before adopting it.
+     */
+    public static By suggestRewrite(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            return null;
+        }
+        By.Remotable.Parameters params = ((By.Remotable) locator).getRemoteParameters();
+        if (!"xpath".equals(params.using())) {
+            return null;
+        }
+        return XPathRewriter.rewrite(String.valueOf(params.value()));
+    }
+
+    private static LocatorCost uiSelectorCost(String value, List<String> findings) {
+        int selectors = value.split(";").length;
+        int regexes = count(REGEX_SELECTOR, value);
+        int score = 3 * selectors + 2 * regexes;
+        if (selectors > 1) {
+            findings.add(selectors + " selectors");
+        }
+        if (regexes > 0) {
+            findings.add(regexes + " regex matcher(s)");
+        }
+        if (value.contains("UiScrollable")) {
+            score += 25;
+            findings.add("UiScrollable scroll");
+        }
+        return new LocatorCost(score, findings);
+    }
+
+    private static LocatorCost xpathCost(String xpath, List<String> findings) {
+        String code = stripLiterals(xpath);
+        int score = 0;
+        String[] branches = code.split("\\|");
+        if (branches.length > 1) {
+            findings.add(branches.length + "-way union");
+        }
+        for (String branch : branches) {
+            score += branchCost(branch.trim(), findings);
+        }
+        return new LocatorCost(score, findings);
+    }
+
+    private static int branchCost(String branch, List<String> findings) {
+        int score = 5;
+        String path = branch.startsWith("(") ? branch.substring(1) : branch;
+        if (path.startsWith("//*")) {
+            score += 30;
+            findings.add("leading //* full-tree wildcard scan");
+        } else if (path.startsWith("//")) {
+            score += 12;
+            findings.add("leading // descendant scan");
+        }
+        int innerDescendants = count(Pattern.compile("//"), path) - (path.startsWith("//") ? 1 : 0);
+        if (innerDescendants > 0) {
+            score += 10 * innerDescendants;
+            findings.add(innerDescendants + " nested // scan(s)");
+        }
+        int axes = count(AXIS, path);
+        if (axes > 0) {
+            score += 15 * axes;
+            findings.add(axes + " reverse/sibling axis step(s)");
+        }
+        int descendantAxes = count(DESCENDANT_AXIS, path);
+        if (descendantAxes > 0) {
+            score += 10 * descendantAxes;
+            findings.add(descendantAxes + " descendant:: step(s)");
+        }
+        int translates = count(Pattern.compile("translate\\s*\\("), path);
+        if (translates > 0) {
+            score += 8 * translates;
+            findings.add(translates + " translate() case-folding call(s)");
+        }
+        int otherFunctions = count(FUNCTION, path) - translates;
+        score += 3 * Math.max(0, otherFunctions);
+        int positions = count(POSITION, path);
+        if (positions > 0) {
+            score += 4 * positions;
+            findings.add(positions + " positional index(es)");
+        }
+        int steps = path.replace("//", "/").split("/").length - 1;
+        if (steps > 4) {
+            score += 2 * (steps - 4);
+            findings.add(steps + "-step absolute path");
+        }
+        if (branch.contains("@bounds")) {
+            score += 10;
+            findings.add("hard-coded @bounds (resolution dependent)");
+        }
+        return score;
+    }
+
+    private static String stripLiterals(String xpath) {
+        return xpath.replaceAll("'[^']*'", "''").replaceAll("\"[^\"]*\"", "\"\"");
+    }
+
+    private static int count(Pattern pattern, String text) {
+        Matcher m = pattern.matcher(text);
+        int n = 0;
+        while (m.find()) {
+            n++;
+        }
+        return n;
+    }
+}
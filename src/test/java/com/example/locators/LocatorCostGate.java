@@ -0,0 +1,133 @@
+package com.example.locators;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.openqa.selenium.By;
+
+import com.example.snapshot.RecordedPageSources;
+import com.example.snapshot.UiSnapshot;
+
+/**
+ * Build gate over {@link LocatorCatalog}: prints the cost of every locator with any cheaper rewrite,
+ * and fails when a locator not recorded in the baseline (or one that got more expensive) exceeds the
+ * cost threshold. Rewrites are checked against the recorded page sources and only reported as
+ * accepted when they select exactly the same nodes in every snapshot where either side matches.
+ *
+ * <p>System properties: {@code locator.cost.threshold} (default 60), {@code locator.cost.baseline},
+ * {@code locator.cost.snapshots} (comma-separated directories, default the committed fixtures under
+ * {@code src/test/resources/pagesources} and the captures under {@code target}) and
+ * {@code locator.cost.updateBaseline=true} to re-record the baseline after deliberately accepting an
+ * expensive locator.
+ */
+public final class LocatorCostGate {
+
+    private static final int DEFAULT_THRESHOLD = 60;
+
+    private LocatorCostGate() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int threshold = Integer.getInteger("locator.cost.threshold", DEFAULT_THRESHOLD);
+        Path baselineFile = Paths.get(System.getProperty("locator.cost.baseline",
+            "src/test/resources/locators/locator-cost-baseline.properties"));
+        String snapshotDirs = System.getProperty("locator.cost.snapshots", "src/test/resources/pagesources,target");
+        boolean updateBaseline = Boolean.getBoolean("locator.cost.updateBaseline");
+
+        Properties baseline = loadBaseline(baselineFile);
+        Map<String, UiSnapshot> snapshots = new TreeMap<>();
+        for (String dir : snapshotDirs.split(",")) {
+            if (!dir.isBlank()) {
+                snapshots.putAll(RecordedPageSources.parse(Paths.get(dir.trim())));
+            }
+        }
+        System.out.println("[LocatorCostGate] threshold=" + threshold + ", " + snapshots.size()
+            + " recorded snapshot(s) under " + snapshotDirs);
+
+        Map<String, Integer> overThreshold = new TreeMap<>();
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, By> entry : LocatorCatalog.all().entrySet()) {
+            String name = entry.getKey();
+            By locator = entry.getValue();
+            LocatorCost cost = LocatorCostAnalyzer.analyze(locator);
+            System.out.println(String.format("%4d  %s %s", cost.getScore(), name, cost.getFindings()));
+
+            By rewrite = LocatorCostAnalyzer.suggestRewrite(locator);
+            if (rewrite != null) {
+                LocatorCost rewriteCost = LocatorCostAnalyzer.analyze(rewrite);
+                System.out.println("      rewrite (" + rewriteCost.getScore() + "): " + rewrite);
+                System.out.println("      " + verify(locator, rewrite, snapshots));
+            }
+
+            if (cost.getScore() <= threshold) {
+                continue;
+            }
+            overThreshold.put(name, cost.getScore());
+            String accepted = baseline.getProperty(name);
+            if (accepted == null) {
+                violations.add(name + " costs " + cost.getScore() + " (threshold " + threshold + ", not in baseline)");
+            } else if (cost.getScore() > Integer.parseInt(accepted.trim())) {
+                violations.add(name + " costs " + cost.getScore() + " (baseline " + accepted.trim() + ")");
+            }
+        }
+
+        if (updateBaseline) {
+            writeBaseline(baselineFile, overThreshold, threshold);
+            System.out.println("[LocatorCostGate] Baseline updated: " + baselineFile);
+            return;
+        }
+        if (!violations.isEmpty()) {
+            violations.forEach(v -> System.err.println("[LocatorCostGate] " + v));
+            throw new IllegalStateException(violations.size() + " locator(s) exceed the cost threshold; "
+                + "use a cheaper strategy or re-record the baseline with -Dlocator.cost.updateBaseline=true");
+        }
+        System.out.println("[LocatorCostGate] OK");
+    }
+
+    private static String verify(By original, By rewrite, Map<String, UiSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return "unverified: no recorded snapshots";
+        }
+        int compared = 0;
+        for (Map.Entry<String, UiSnapshot> entry : snapshots.entrySet()) {
+            UiSnapshot snapshot = entry.getValue();
+            if (snapshot.findAll(original).isEmpty() && snapshot.findAll(rewrite).isEmpty()) {
+                continue;
+            }
+            if (!snapshot.matchesSameNodes(original, rewrite)) {
+                return "REJECTED: selects different nodes in " + entry.getKey();
+            }
+            compared++;
+        }
+        return compared == 0
+            ? "unverified: no snapshot matches either locator"
+            : "accepted: same nodes in " + compared + " snapshot(s)";
+    }
+
+    private static Properties loadBaseline(Path file) throws IOException {
+        Properties props = new Properties();
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                props.load(in);
+            }
+        }
+        return props;
+    }
+
+    private static void writeBaseline(Path file, Map<String, Integer> overThreshold, int threshold) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Accepted locator costs above threshold " + threshold + " (LocatorCostGate).");
+        lines.add("# New entries should use a cheaper strategy instead of being added here.");
+        overThreshold.forEach((name, score) -> lines.add(name + "=" + score));
+        Files.createDirectories(file.getParent());
+        Files.write(file, lines);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.locators;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Hit/miss/latency counters per chain entry, persisted to {@code target/locator-stats.properties}
+ * so the next run starts with the locator that actually matched last time. Counters are kept in
+ * memory and written by {@link #save()} when a test class ends.
+ */
+public final class LocatorStats {
+
+    private static final Path STATS_FILE = Paths.get("target", "locator-stats.properties");
+    private static final LocatorStats INSTANCE = new LocatorStats(STATS_FILE);
+
+    private final Path file;
+    private final Properties props = new Properties();
+
+    private LocatorStats(Path file) {
+        this.file = file;
+        load();
+    }
+
+    public static LocatorStats getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized long hits(String key) {
+        return getLong(key + ".hits");
+    }
+
+    public synchronized long misses(String key) {
+        return getLong(key + ".misses");
+    }
+
+    /**
+     * Average latency of successful lookups in milliseconds, or -1 when the entry never matched.
+     */
+    public synchronized long averageLatencyMillis(String key) {
+        long hits = getLong(key + ".hits");
+        return hits == 0 ? -1 : getLong(key + ".latencyMs") / hits;
+    }
+
+    public synchronized void recordHit(String key, long latencyMillis) {
+        increment(key + ".hits", 1);
+        increment(key + ".latencyMs", Math.max(0, latencyMillis));
+    }
+
+    public synchronized void recordMiss(String key) {
+        increment(key + ".misses", 1);
+    }
+
+    /**
+     * Writes the current counters; failures are logged and otherwise ignored.
+     */
+    public synchronized void save() {
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream out = Files.newOutputStream(file)) {
+                props.store(out, "Locator chain statistics (hits, misses, latencyMs per chain entry)");
+            }
+        } catch (IOException e) {
+            System.err.println("[LocatorStats] Unable to save " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+            System.out.println("[LocatorStats] Loaded locator statistics from " + file);
+        } catch (IOException e) {
+            System.err.println("[LocatorStats] Unable to load " + file + ": " + e.getMessage());
+        }
+    }
+
+    private long getLong(String key) {
+        try {
+            return Long.parseLong(props.getProperty(key, "0"));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void increment(String key, long delta) {
+        props.setProperty(key, String.valueOf(getLong(key) + delta));
+    }
+}
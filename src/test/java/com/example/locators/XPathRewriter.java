@@ -0,0 +1,563 @@
+package com.example.locators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.By;
+
+import io.appium.java_client.AppiumBy;
+
+/**
+ * Rewrites single-step attribute XPaths such as
+ * {@code //*[contains(translate(@text,'abc..','ABC..'),'VALIDATE') or contains(...)]} into
+ * cheaper native strategies: {@code By.id}, {@code accessibilityId} or {@code -android uiautomator}
+ * {@code UiSelector} chains (several selectors joined by {@code ;} for cross-attribute ORs).
+ *
+ * <p>Only predicates built from {@code and}/{@code or}, {@code @attr='v'}, {@code contains()},
+ * {@code starts-with()} and ASCII upper-casing {@code translate()} are handled; anything else
+ * (axes, positions, unions, {@code @bounds}, {@code @password}) yields no rewrite.
+ */
+final class XPathRewriter {
+
+    private static final String LOWER = "abcdefghijklmnopqrstuvwxyz";
+    private static final String UPPER = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final Pattern SINGLE_STEP = Pattern.compile("^//([A-Za-z_][\\w.]*|\\*)\\[(.*)\\]$", Pattern.DOTALL);
+    private static final int MAX_SELECTORS = 6;
+
+    private static final Map<String, String> STRING_ATTRS = new LinkedHashMap<>();
+    private static final Map<String, String> BOOLEAN_ATTRS = new LinkedHashMap<>();
+
+    static {
+        STRING_ATTRS.put("text", "text");
+        STRING_ATTRS.put("content-desc", "description");
+        STRING_ATTRS.put("resource-id", "resourceId");
+        STRING_ATTRS.put("class", "className");
+        STRING_ATTRS.put("package", "packageName");
+        BOOLEAN_ATTRS.put("clickable", "clickable");
+        BOOLEAN_ATTRS.put("enabled", "enabled");
+        BOOLEAN_ATTRS.put("checked", "checked");
+        BOOLEAN_ATTRS.put("checkable", "checkable");
+        BOOLEAN_ATTRS.put("focusable", "focusable");
+        BOOLEAN_ATTRS.put("focused", "focused");
+        BOOLEAN_ATTRS.put("scrollable", "scrollable");
+        BOOLEAN_ATTRS.put("selected", "selected");
+        BOOLEAN_ATTRS.put("long-clickable", "longClickable");
+    }
+
+    private XPathRewriter() {
+    }
+
+    /**
+     * @return an equivalent native locator, or null when the expression is outside the supported subset
+     */
+    static By rewrite(String xpath) {
+        Matcher m = SINGLE_STEP.matcher(xpath.trim());
+        if (!m.matches() || !balanced(m.group(2))) {
+            return null;
+        }
+        String tag = m.group(1);
+        try {
+            Node predicate = new Parser(m.group(2)).parse();
+            List<List<Atom>> dnf = predicate.toDnf();
+            dnf.removeIf(conjunction -> conjunction.contains(Atom.FALSE));
+            if (dnf.isEmpty()) {
+                return null;
+            }
+            dnf = mergeAlternatives(dedupe(dnf));
+            if (dnf.size() > MAX_SELECTORS) {
+                return null;
+            }
+            By simple = simpleStrategy(tag, dnf);
+            if (simple != null) {
+                return simple;
+            }
+            List<String> selectors = new ArrayList<>();
+            for (List<Atom> conjunction : dnf) {
+                String selector = toSelector(tag, conjunction);
+                if (selector == null) {
+                    return null;
+                }
+                selectors.add(selector);
+            }
+            return AppiumBy.androidUIAutomator(String.join("; ", selectors));
+        } catch (IllegalArgumentException unsupported) {
+            return null;
+        }
+    }
+
+    private static By simpleStrategy(String tag, List<List<Atom>> dnf) {
+        if (!"*".equals(tag) || dnf.size() != 1 || dnf.get(0).size() != 1) {
+            return null;
+        }
+        Atom atom = dnf.get(0).get(0);
+        if (atom.kind != Kind.EQUALS || atom.caseInsensitive) {
+            return null;
+        }
+        if ("resource-id".equals(atom.attr)) {
+            return By.id(atom.value);
+        }
+        if ("content-desc".equals(atom.attr)) {
+            return AppiumBy.accessibilityId(atom.value);
+        }
+        return null;
+    }
+
+    private static String toSelector(String tag, List<Atom> conjunction) {
+        StringBuilder sb = new StringBuilder("new UiSelector()");
+        if (!"*".equals(tag)) {
+            sb.append(".className(").append(literal(tag)).append(')');
+        }
+        Map<String, List<Atom>> byAttr = new LinkedHashMap<>();
+        for (Atom atom : conjunction) {
+            byAttr.computeIfAbsent(atom.attr, k -> new ArrayList<>()).add(atom);
+        }
+        for (Map.Entry<String, List<Atom>> entry : byAttr.entrySet()) {
+            String attr = entry.getKey();
+            List<Atom> atoms = entry.getValue();
+            if (BOOLEAN_ATTRS.containsKey(attr)) {
+                if (atoms.size() != 1) {
+                    return null;
+                }
+                sb.append('.').append(BOOLEAN_ATTRS.get(attr)).append('(').append(atoms.get(0).value).append(')');
+                continue;
+            }
+            String method = STRING_ATTRS.get(attr);
+            if (atoms.size() == 1) {
+                Atom atom = atoms.get(0);
+                if (atom.kind == Kind.EQUALS && !atom.caseInsensitive) {
+                    sb.append('.').append(method).append('(').append(literal(atom.value)).append(')');
+                } else if (atom.kind == Kind.CONTAINS && !atom.caseInsensitive && !"class".equals(attr)
+                    && !"resource-id".equals(attr) && !"package".equals(attr)) {
+                    sb.append('.').append(method).append("Contains(").append(literal(atom.value)).append(')');
+                } else {
+                    sb.append('.').append(method).append("Matches(").append(literal("(?s)" + atom.regex())).append(')');
+                }
+                continue;
+            }
+            // Several contains() on one attribute: all but the last become lookaheads
+            StringBuilder regex = new StringBuilder("(?s)");
+            for (int i = 0; i < atoms.size(); i++) {
+                Atom atom = atoms.get(i);
+                if (atom.kind != Kind.CONTAINS) {
+                    return null;
+                }
+                String body = atom.caseInsensitive ? "(?i:.*" + atom.escaped() + ")" : ".*" + atom.escaped();
+                if (i < atoms.size() - 1) {
+                    regex.append("(?=").append(body).append(')');
+                } else {
+                    regex.append(atom.regex());
+                }
+            }
+            sb.append('.').append(method).append("Matches(").append(literal(regex.toString())).append(')');
+        }
+        return sb.toString();
+    }
+
+    private static List<List<Atom>> dedupe(List<List<Atom>> dnf) {
+        Set<Set<Atom>> seen = new LinkedHashSet<>();
+        List<List<Atom>> out = new ArrayList<>();
+        for (List<Atom> conjunction : dnf) {
+            if (seen.add(new LinkedHashSet<>(conjunction))) {
+                out.add(new ArrayList<>(new LinkedHashSet<>(conjunction)));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Collapses conjunctions that differ only in one string atom on the same attribute into a
+     * single regex alternation, e.g. {@code text~OTP or text~PIN} becomes {@code textMatches(.*(OTP|PIN).*)}.
+     */
+    private static List<List<Atom>> mergeAlternatives(List<List<Atom>> dnf) {
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            outer:
+            for (int i = 0; i < dnf.size(); i++) {
+                for (int j = i + 1; j < dnf.size(); j++) {
+                    List<Atom> combined = mergePair(dnf.get(i), dnf.get(j));
+                    if (combined != null) {
+                        dnf.set(i, combined);
+                        dnf.remove(j);
+                        merged = true;
+                        break outer;
+                    }
+                }
+            }
+        }
+        return dnf;
+    }
+
+    private static List<Atom> mergePair(List<Atom> a, List<Atom> b) {
+        if (a.size() != b.size()) {
+            return null;
+        }
+        List<Atom> onlyA = new ArrayList<>(a);
+        onlyA.removeAll(b);
+        List<Atom> onlyB = new ArrayList<>(b);
+        onlyB.removeAll(a);
+        if (onlyA.size() != 1 || onlyB.size() != 1) {
+            return null;
+        }
+        Atom x = onlyA.get(0);
+        Atom y = onlyB.get(0);
+        if (!x.attr.equals(y.attr) || !STRING_ATTRS.containsKey(x.attr)) {
+            return null;
+        }
+        List<Atom> result = new ArrayList<>(a);
+        result.set(result.indexOf(x), Atom.alternation(x, y));
+        return result;
+    }
+
+    private static String literal(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static boolean balanced(String predicate) {
+        int depth = 0;
+        char quote = 0;
+        for (char c : predicate.toCharArray()) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                if (--depth < 0) {
+                    return false;
+                }
+            }
+        }
+        return depth == 0 && quote == 0;
+    }
+
+    private enum Kind {
+        EQUALS,
+        CONTAINS,
+        STARTS_WITH,
+        REGEX
+    }
+
+    /**
+     * One attribute test; string tests are kept as regex fragments so they can be merged.
+     */
+    private static final class Atom {
+        static final Atom FALSE = new Atom("", Kind.EQUALS, "\u0000false", false, null);
+
+        final String attr;
+        final Kind kind;
+        final String value;
+        final boolean caseInsensitive;
+        final String regex;
+
+        private Atom(String attr, Kind kind, String value, boolean caseInsensitive, String regex) {
+            this.attr = attr;
+            this.kind = kind;
+            this.value = value;
+            this.caseInsensitive = caseInsensitive;
+            this.regex = regex;
+        }
+
+        static Atom of(String attr, Kind kind, String value, boolean caseInsensitive) {
+            if (BOOLEAN_ATTRS.containsKey(attr)) {
+                if (kind != Kind.EQUALS || caseInsensitive) {
+                    throw new IllegalArgumentException("Unsupported boolean test on @" + attr);
+                }
+                // UiAutomator2 always serialises booleans in lower case; any other spelling never matches
+                if ("true".equals(value) || "false".equals(value)) {
+                    return new Atom(attr, kind, value, false, null);
+                }
+                return FALSE;
+            }
+            if (!STRING_ATTRS.containsKey(attr)) {
+                throw new IllegalArgumentException("No UiSelector equivalent for @" + attr);
+            }
+            if (caseInsensitive && !value.equals(value.toUpperCase(Locale.ROOT))) {
+                // translate() upper-cases the attribute, so a literal with lower-case letters never matches
+                return FALSE;
+            }
+            return new Atom(attr, kind, value, caseInsensitive, null);
+        }
+
+        static Atom alternation(Atom x, Atom y) {
+            String merged = "(?:" + x.regex() + "|" + y.regex() + ")";
+            return new Atom(x.attr, Kind.REGEX, x.value + "|" + y.value, false, merged);
+        }
+
+        String escaped() {
+            StringBuilder sb = new StringBuilder();
+            for (char c : value.toCharArray()) {
+                if (Character.isLetterOrDigit(c) || c == ' ' || c == '_' || c == '-' || c == ':' || c == '/') {
+                    sb.append(c);
+                } else if ("\\^[]".indexOf(c) >= 0) {
+                    throw new IllegalArgumentException("Unsupported character in literal: " + c);
+                } else {
+                    sb.append('[').append(c).append(']');
+                }
+            }
+            return sb.toString();
+        }
+
+        String regex() {
+            if (regex != null) {
+                return regex;
+            }
+            String body;
+            switch (kind) {
+                case CONTAINS:
+                    body = ".*" + escaped() + ".*";
+                    break;
+                case STARTS_WITH:
+                    body = escaped() + ".*";
+                    break;
+                default:
+                    body = escaped();
+                    break;
+            }
+            return caseInsensitive ? "(?i:" + body + ")" : body;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Atom)) {
+                return false;
+            }
+            Atom other = (Atom) o;
+            return attr.equals(other.attr) && kind == other.kind && value.equals(other.value)
+                && caseInsensitive == other.caseInsensitive;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new Object[] {attr, kind, value, caseInsensitive});
+        }
+    }
+
+    private interface Node {
+        List<List<Atom>> toDnf();
+    }
+
+    private static final class AtomNode implements Node {
+        final Atom atom;
+
+        AtomNode(Atom atom) {
+            this.atom = atom;
+        }
+
+        @Override
+        public List<List<Atom>> toDnf() {
+            List<List<Atom>> dnf = new ArrayList<>();
+            dnf.add(new ArrayList<>(List.of(atom)));
+            return dnf;
+        }
+    }
+
+    private static final class OrNode implements Node {
+        final List<Node> children;
+
+        OrNode(List<Node> children) {
+            this.children = children;
+        }
+
+        @Override
+        public List<List<Atom>> toDnf() {
+            List<List<Atom>> dnf = new ArrayList<>();
+            for (Node child : children) {
+                dnf.addAll(child.toDnf());
+            }
+            return dnf;
+        }
+    }
+
+    private static final class AndNode implements Node {
+        final List<Node> children;
+
+        AndNode(List<Node> children) {
+            this.children = children;
+        }
+
+        @Override
+        public List<List<Atom>> toDnf() {
+            List<List<Atom>> dnf = new ArrayList<>();
+            dnf.add(new ArrayList<>());
+            for (Node child : children) {
+                List<List<Atom>> next = new ArrayList<>();
+                for (List<Atom> left : dnf) {
+                    for (List<Atom> right : child.toDnf()) {
+                        List<Atom> product = new ArrayList<>(left);
+                        product.addAll(right);
+                        next.add(product);
+                    }
+                }
+                dnf = next;
+            }
+            return dnf;
+        }
+    }
+
+    /**
+     * Recursive-descent parser for the supported predicate grammar:
+     * <pre>
+     * expr    := and ('or' and)*
+     * and     := primary ('and' primary)*
+     * primary := '(' expr ')' | '@attr' '=' literal | fn '(' value ',' literal ')'
+     * value   := '@attr' | 'translate(' '@attr' ',' lower ',' upper ')'
+     * </pre>
+     */
+    private static final class Parser {
+        private final String src;
+        private int pos;
+
+        Parser(String src) {
+            this.src = src;
+        }
+
+        Node parse() {
+            Node node = expr();
+            skipSpaces();
+            if (pos != src.length()) {
+                throw new IllegalArgumentException("Trailing input at " + pos);
+            }
+            return node;
+        }
+
+        private Node expr() {
+            List<Node> parts = new ArrayList<>();
+            parts.add(and());
+            while (keyword("or")) {
+                parts.add(and());
+            }
+            return parts.size() == 1 ? parts.get(0) : new OrNode(parts);
+        }
+
+        private Node and() {
+            List<Node> parts = new ArrayList<>();
+            parts.add(primary());
+            while (keyword("and")) {
+                parts.add(primary());
+            }
+            return parts.size() == 1 ? parts.get(0) : new AndNode(parts);
+        }
+
+        private Node primary() {
+            skipSpaces();
+            if (peek('(')) {
+                expect('(');
+                Node inner = expr();
+                expect(')');
+                return inner;
+            }
+            if (peek('@')) {
+                String attr = attribute();
+                expect('=');
+                return new AtomNode(Atom.of(attr, Kind.EQUALS, string(), false));
+            }
+            Kind kind;
+            if (keyword("contains")) {
+                kind = Kind.CONTAINS;
+            } else if (keyword("starts-with")) {
+                kind = Kind.STARTS_WITH;
+            } else {
+                throw new IllegalArgumentException("Unsupported expression at " + pos);
+            }
+            expect('(');
+            boolean caseInsensitive = false;
+            String attr;
+            if (keyword("translate")) {
+                expect('(');
+                attr = attribute();
+                expect(',');
+                String from = string();
+                expect(',');
+                String to = string();
+                expect(')');
+                if (!LOWER.equals(from) || !UPPER.equals(to)) {
+                    throw new IllegalArgumentException("Unsupported translate() mapping");
+                }
+                caseInsensitive = true;
+            } else {
+                attr = attribute();
+            }
+            expect(',');
+            String value = string();
+            expect(')');
+            return new AtomNode(Atom.of(attr, kind, value, caseInsensitive));
+        }
+
+        private String attribute() {
+            skipSpaces();
+            expect('@');
+            int start = pos;
+            while (pos < src.length() && (Character.isLetterOrDigit(src.charAt(pos)) || src.charAt(pos) == '-'
+                || src.charAt(pos) == '_')) {
+                pos++;
+            }
+            if (start == pos) {
+                throw new IllegalArgumentException("Attribute name expected at " + pos);
+            }
+            return src.substring(start, pos);
+        }
+
+        private String string() {
+            skipSpaces();
+            if (pos >= src.length()) {
+                throw new IllegalArgumentException("Literal expected");
+            }
+            char quote = src.charAt(pos);
+            if (quote != '\'' && quote != '"') {
+                throw new IllegalArgumentException("Literal expected at " + pos);
+            }
+            int end = src.indexOf(quote, pos + 1);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unterminated literal");
+            }
+            String value = src.substring(pos + 1, end);
+            pos = end + 1;
+            return value;
+        }
+
+        private boolean keyword(String word) {
+            skipSpaces();
+            if (src.startsWith(word, pos)) {
+                int after = pos + word.length();
+                boolean boundary = after >= src.length()
+                    || !(Character.isLetterOrDigit(src.charAt(after)) || src.charAt(after) == '-');
+                if (boundary) {
+                    pos = after;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean peek(char c) {
+            skipSpaces();
+            return pos < src.length() && src.charAt(pos) == c;
+        }
+
+        private void expect(char c) {
+            skipSpaces();
+            if (pos >= src.length() || src.charAt(pos) != c) {
+                throw new IllegalArgumentException("'" + c + "' expected at " + pos);
+            }
+            pos++;
+        }
+
+        private void skipSpaces() {
+            while (pos < src.length() && Character.isWhitespace(src.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.locators;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.example.snapshot.RecordedPageSources;
+import com.example.snapshot.UiSnapshot;
+
+import io.appium.java_client.AppiumBy;
+
+/**
+ * Rewrites produced by {@link XPathRewriter}, and their equivalence with the original XPath over the
+ * page-source fixtures under {@code src/test/resources/pagesources}.
+ */
+public class XPathRewriterTest {
+
+    private static final String FIXTURES = "src/test/resources/pagesources";
+
+    @DataProvider
+    public Object[][] rewrites() {
+        return new Object[][] {
+            {"//*[@content-desc='Validate']", AppiumBy.accessibilityId("Validate")},
+            {"//*[@resource-id='mifix.io.qa:id/bt_ok']", By.id("mifix.io.qa:id/bt_ok")},
+            {"//android.widget.TextView[@text='Customer Details']",
+                AppiumBy.androidUIAutomator("new UiSelector().className(\"android.widget.TextView\").text(\"Customer Details\")")},
+            {"//*[contains(@text,'JLG')]", AppiumBy.androidUIAutomator("new UiSelector().textContains(\"JLG\")")},
+            {"//*[contains(translate(@text,'abcdefghijklmnopqrstuvwxyz','ABCDEFGHIJKLMNOPQRSTUVWXYZ'),'VALIDATE')"
+                + " and (@clickable='true' or @clickable='True')]",
+                AppiumBy.androidUIAutomator("new UiSelector().textMatches(\"(?s)(?i:.*VALIDATE.*)\").clickable(true)")},
+            {"//android.widget.ImageView[contains(@resource-id,'front_image') or contains(@content-desc,'Front image')]",
+                AppiumBy.androidUIAutomator("new UiSelector().className(\"android.widget.ImageView\").resourceIdMatches(\"(?s).*front_image.*\");"
+                    + " new UiSelector().className(\"android.widget.ImageView\").descriptionContains(\"Front image\")")},
+        };
+    }
+
+    @Test(dataProvider = "rewrites")
+    public void rewritesSupportedPredicates(String xpath, By expected) {
+        By rewrite = XPathRewriter.rewrite(xpath);
+        assertEquals(String.valueOf(rewrite), expected.toString(), xpath);
+    }
+
+    @DataProvider
+    public Object[][] unsupported() {
+        return new Object[][] {
+            {"//android.widget.ScrollView/android.widget.EditText[3]"},
+            {"//android.widget.TextView[@text='Validate Number']/ancestor::android.view.View[@clickable='true'][1]"},
+            {"//android.widget.Button[@text='SUBMIT'] | //android.widget.TextView[@text='SUBMIT']"},
+            {"(//*[(@clickable='true' or @clickable='True')])[1]"},
+            {"//android.view.View[@bounds='[99,1534][981,1677]']"},
+            {"//android.widget.EditText[@password='true']"},
+        };
+    }
+
+    @Test(dataProvider = "unsupported")
+    public void leavesUnsupportedExpressionsAlone(String xpath) {
+        assertNull(XPathRewriter.rewrite(xpath), xpath);
+    }
+
+    /**
+     * Every catalogued rewrite selects exactly the nodes of its XPath wherever either matches, and
+     * at least one fixture shows the screen it is meant for.
+     */
+    @Test
+    public void catalogueRewritesMatchTheSameNodesInFixtures() {
+        Map<String, UiSnapshot> fixtures = RecordedPageSources.parse(Paths.get(FIXTURES));
+        assertTrue(!fixtures.isEmpty(), "no fixtures under " + FIXTURES);
+
+        List<String> problems = new ArrayList<>();
+        for (Map.Entry<String, By> entry : LocatorCatalog.all().entrySet()) {
+            By rewrite = LocatorCostAnalyzer.suggestRewrite(entry.getValue());
+            if (rewrite == null) {
+                continue;
+            }
+            int compared = 0;
+            for (Map.Entry<String, UiSnapshot> fixture : fixtures.entrySet()) {
+                UiSnapshot snapshot = fixture.getValue();
+                if (snapshot.findAll(entry.getValue()).isEmpty() && snapshot.findAll(rewrite).isEmpty()) {
+                    continue;
+                }
+                if (!snapshot.matchesSameNodes(entry.getValue(), rewrite)) {
+                    problems.add(entry.getKey() + ": different nodes in " + fixture.getKey());
+                }
+                compared++;
+            }
+            if (compared == 0) {
+                problems.add(entry.getKey() + ": no fixture matches it");
+            }
+        }
+        assertTrue(problems.isEmpty(), String.join("\n", problems));
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.managers;
+
+import java.io.File;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.example.testdata.TestConfig;
+
+import io.appium.java_client.service.local.AppiumDriverLocalService;
+import io.appium.java_client.service.local.AppiumServiceBuilder;
+import io.appium.java_client.service.local.flags.GeneralServerFlag;
+
+/**
+ * Local Appium servers started from the test JVM ({@code appium.server.embedded=true}), one per
+ * device, so parallel workers do not contend inside a single Node process. Each server gets free
+ * ports for itself, UiAutomator2's {@code systemPort} and {@code chromedriverPort}, logs to
+ * {@code target/appium-logs/<device>.log}, and is only handed out after {@code /status} answers.
+ */
+public final class AppiumServerManager {
+
+    private static final File LOG_DIR = new File("target", "appium-logs");
+    private static final AppiumServerManager INSTANCE = new AppiumServerManager();
+
+    /**
+     * A running server and the device-side ports reserved with it.
+     */
+    public static final class Server {
+        private final AppiumDriverLocalService service;
+        private final int port;
+        private final int systemPort;
+        private final int chromedriverPort;
+
+        private Server(AppiumDriverLocalService service, int port, int systemPort, int chromedriverPort) {
+            this.service = service;
+            this.port = port;
+            this.systemPort = systemPort;
+            this.chromedriverPort = chromedriverPort;
+        }
+
+        public URL getUrl() {
+            return service.getUrl();
+        }
+
+        public int getSystemPort() {
+            return systemPort;
+        }
+
+        public int getChromedriverPort() {
+            return chromedriverPort;
+        }
+    }
+
+    private final Map<String, Server> byDevice = new ConcurrentHashMap<>();
+    // Starting a server takes seconds; only callers for the same device wait for it
+    private final Map<String, Object> deviceLocks = new ConcurrentHashMap<>();
+    private final PortAllocator ports = PortAllocator.getInstance();
+
+    private AppiumServerManager() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stopAll, "appium-server-shutdown"));
+    }
+
+    public static AppiumServerManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The device's server, started on first use and restarted if it stopped answering. Servers of
+     * different devices start in parallel.
+     *
+     * @param systemPort the device's configured {@code systemPort}, or 0 to allocate one
+     */
+    public Server serverFor(Device device, int systemPort) {
+        String key = device.getName();
+        synchronized (deviceLocks.computeIfAbsent(key, k -> new Object())) {
+            Server server = byDevice.get(key);
+            if (server != null && isReady(server.getUrl())) {
+                return server;
+            }
+            if (server != null) {
+                System.err.println("[AppiumServerManager] Server for " + key + " stopped answering; restarting");
+                byDevice.remove(key);
+                stop(server);
+            }
+            server = start(key, systemPort);
+            byDevice.put(key, server);
+            return server;
+        }
+    }
+
+    public void stopAll() {
+        for (String key : new ArrayList<>(byDevice.keySet())) {
+            Server server = byDevice.remove(key);
+            if (server != null) {
+                stop(server);
+            }
+        }
+    }
+
+    private Server start(String deviceName, int systemPort) {
+        int port = ports.allocate();
+        int devicePort = systemPort > 0 ? systemPort : ports.allocate();
+        int chromedriverPort = ports.allocate();
+        LOG_DIR.mkdirs();
+        File log = new File(LOG_DIR, deviceName.replaceAll("[^A-Za-z0-9_.-]", "_") + ".log");
+
+        AppiumServiceBuilder builder = new AppiumServiceBuilder()
+            .withIPAddress("127.0.0.1")
+            .usingPort(port)
+            .withArgument(GeneralServerFlag.BASEPATH, "/")
+            .withArgument(GeneralServerFlag.LOG_TIMESTAMP)
+            .withArgument(GeneralServerFlag.LOG_NO_COLORS)
+            .withLogFile(log)
+            .withTimeout(Duration.ofSeconds(TestConfig.APPIUM_SERVER_START_TIMEOUT));
+        if (!TestConfig.APPIUM_SERVER_JS.isEmpty()) {
+            builder.withAppiumJS(new File(TestConfig.APPIUM_SERVER_JS));
+        }
+        AppiumDriverLocalService service = AppiumDriverLocalService.buildService(builder);
+
+        long start = System.currentTimeMillis();
+        try {
+            service.start();
+            if (!awaitReady(service.getUrl(), Duration.ofSeconds(TestConfig.APPIUM_SERVER_START_TIMEOUT))) {
+                throw new IllegalStateException("/status did not answer");
+            }
+        } catch (RuntimeException e) {
+            service.stop();
+            ports.release(port);
+            if (systemPort <= 0) {
+                ports.release(devicePort);
+            }
+            ports.release(chromedriverPort);
+            throw new IllegalStateException("Unable to start Appium server for " + deviceName + " (log: " + log + "): "
+                + e.getMessage(), e);
+        }
+        System.out.println("[AppiumServerManager] Started " + service.getUrl() + " for " + deviceName + " in "
+            + (System.currentTimeMillis() - start) + " ms (systemPort " + devicePort + ", chromedriverPort "
+            + chromedriverPort + ", log " + log + ")");
+        return new Server(service, port, devicePort, chromedriverPort);
+    }
+
+    private void stop(Server server) {
+        try {
+            server.service.stop();
+        } catch (Exception e) {
+            System.err.println("[AppiumServerManager] Error while stopping " + server.getUrl() + ": " + e.getMessage());
+        }
+        ports.release(server.port);
+        ports.release(server.systemPort);
+        ports.release(server.chromedriverPort);
+    }
+
+    private static boolean awaitReady(URL url, Duration timeout) {
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            if (isReady(url)) {
+                return true;
+            }
+            try {
+                Thread.sleep(250);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True when the server answers {@code GET /status} with 200.
+     */
+    static boolean isReady(URL url) {
+        HttpURLConnection connection = null;
+        try {
+            String base = url.toString().endsWith("/") ? url.toString() : url + "/";
+            connection = (HttpURLConnection) new URL(base + "status").openConnection();
+            connection.setConnectTimeout(2000);
+            connection.setReadTimeout(2000);
+            return connection.getResponseCode() == 200;
+        } catch (Exception e) {
+            return false;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.managers;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+
+import com.example.locators.AppLocators;
+import com.example.snapshot.SnapshotCache;
+import com.example.snapshot.SnapshotMatch;
+import com.example.snapshot.UiSnapshot;
+import com.example.testdata.TestConfig;
+import com.example.waits.FlowDeadline;
+import com.example.waits.WaitEngine;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * Suite-wide login: hands each test a session positioned at the JLG home (the Customer Details
+ * screen), logging in only when the app is actually logged out. One page-source snapshot tells
+ * where the app is:
+ * <ul>
+ *   <li>JLG home: nothing to do;</li>
+ *   <li>home screen with the JLG tile: open JLG;</li>
+ *   <li>login screen: log in and open JLG (once per device per suite while the app keeps its data);</li>
+ *   <li>anything else: wait a few seconds for a known screen (a new session usually starts on
+ *       the splash screen), then grant permissions, and only then relaunch the app and look again.</li>
+ * </ul>
+ * With {@code login.shared=false} every call runs the full permissions, login and JLG sequence.
+ */
+public final class AuthenticatedSessionFixture {
+
+    private static final AuthenticatedSessionFixture INSTANCE = new AuthenticatedSessionFixture();
+    // Splash screen of a new session
+    private static final Duration LAUNCH_WAIT = Duration.ofSeconds(5);
+    // Relaunch to first screen (splash included)
+    private static final Duration SCREEN_WAIT = Duration.ofSeconds(20);
+
+    enum Screen { JLG_HOME, HOME, LOGIN, UNKNOWN }
+
+    private final Map<String, int[]> perDevice = new LinkedHashMap<>();
+
+    private AuthenticatedSessionFixture() {
+    }
+
+    public static AuthenticatedSessionFixture getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Leaves the app on the JLG home, logged in as {@code TestConfig.USERNAME}.
+     *
+     * @param device device name, for the per-device login counts
+     */
+    public void openJlgHome(AndroidDriver driver, PageObjectManager pages, String device) {
+        long start = System.currentTimeMillis();
+        if (!TestConfig.LOGIN_SHARED) {
+            pages.getPermissionPage().handlePermissions();
+            login(pages);
+            count(device, 0);
+            return;
+        }
+
+        Screen screen = detect(driver);
+        if (screen == Screen.UNKNOWN) {
+            screen = awaitKnownScreen(driver, "session.screenAfterLaunch", LAUNCH_WAIT);
+        }
+        if (screen == Screen.UNKNOWN) {
+            pages.getPermissionPage().handlePermissions();
+            screen = detect(driver);
+        }
+        if (screen == Screen.UNKNOWN) {
+            System.out.println("[AuthenticatedSessionFixture] App is on an unrecognised screen; relaunching " + TestConfig.APP_PACKAGE);
+            relaunch(driver);
+            pages.getPermissionPage().handlePermissions();
+            screen = awaitKnownScreen(driver, "session.screenAfterRelaunch", SCREEN_WAIT);
+        }
+
+        switch (screen) {
+            case JLG_HOME:
+                break;
+            case HOME:
+                pages.getHomePage().waitForJLGVisible();
+                pages.getHomePage().clickJLG();
+                break;
+            default:
+                // Logged out, or still unrecognised: the login flow's own waits report what is wrong
+                login(pages);
+                count(device, 0);
+                break;
+        }
+        if (screen == Screen.JLG_HOME || screen == Screen.HOME) {
+            count(device, 1);
+        }
+        System.out.println("[AuthenticatedSessionFixture] " + device + " at JLG home (was " + screen + ") in "
+            + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Logins performed and logins saved, per device.
+     */
+    public synchronized String report() {
+        StringBuilder sb = new StringBuilder("[AuthenticatedSessionFixture] ");
+        if (perDevice.isEmpty()) {
+            return sb.append("no sessions prepared").toString();
+        }
+        perDevice.forEach((device, c) -> sb.append(device).append(": ").append(c[0]).append(" login(s), ")
+            .append(c[1]).append(" reused; "));
+        return sb.substring(0, sb.length() - 2);
+    }
+
+    private static void login(PageObjectManager pages) {
+        pages.getHomePage().loginAndOpenJLG(TestConfig.USERNAME, TestConfig.PASSWORD,
+            FlowDeadline.start("login", Duration.ofSeconds(TestConfig.FLOW_BUDGET_LOGIN)));
+    }
+
+    /**
+     * One snapshot; JLG home is checked first because its screens can mention JLG too.
+     */
+    static Screen detect(AndroidDriver driver) {
+        UiSnapshot snapshot;
+        try {
+            snapshot = SnapshotCache.forDriver(driver).capture();
+        } catch (Exception e) {
+            System.err.println("[AuthenticatedSessionFixture] Screen check failed: " + e.getMessage());
+            return Screen.UNKNOWN;
+        }
+        return classify(snapshot);
+    }
+
+    static Screen classify(UiSnapshot snapshot) {
+        if (displayed(snapshot, AppLocators.Onboarding.CUSTOMER_DETAILS_TEXT)) {
+            return Screen.JLG_HOME;
+        }
+        if (displayed(snapshot, AppLocators.Login.USER_ID)) {
+            return Screen.LOGIN;
+        }
+        if (displayed(snapshot, AppLocators.Home.JLG_TEXT)) {
+            return Screen.HOME;
+        }
+        return Screen.UNKNOWN;
+    }
+
+    private static boolean displayed(UiSnapshot snapshot, By locator) {
+        for (SnapshotMatch match : snapshot.findAll(locator)) {
+            if (match.isDisplayed()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Screen awaitKnownScreen(AndroidDriver driver, String label, Duration timeout) {
+        Screen screen = new WaitEngine(driver).poll(label, timeout, d -> {
+            Screen s = detect(driver);
+            return s == Screen.UNKNOWN ? null : s;
+        });
+        return screen != null ? screen : Screen.UNKNOWN;
+    }
+
+    private static void relaunch(AndroidDriver driver) {
+        try {
+            driver.terminateApp(TestConfig.APP_PACKAGE);
+            driver.activateApp(TestConfig.APP_PACKAGE);
+        } catch (Exception e) {
+            System.err.println("[AuthenticatedSessionFixture] Relaunch failed: " + e.getMessage());
+        }
+    }
+
+    private synchronized void count(String device, int slot) {
+        perDevice.computeIfAbsent(device, d -> new int[2])[slot]++;
+    }
+}
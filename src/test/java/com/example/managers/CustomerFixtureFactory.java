@@ -0,0 +1,225 @@
+package com.example.managers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.example.pages.L2InfoActions;
+import com.example.pages.OnboardingPage;
+import com.example.testdata.TestConfig;
+import com.example.waits.FlowDeadline;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * Onboards customers in the background so L2 tests do not have to: {@code fixtures.producers}
+ * threads each lease a spare device from the {@link DevicePool}, walk consent, mobile submit,
+ * voter-id capture and L2 customer selection, and park the result as a {@link PreparedCustomer} in a
+ * bounded queue. A test {@link #take(Duration) takes} one and continues on its device, so the slow
+ * onboarding of the next customer overlaps the L2 stage of this one.
+ *
+ * <p>{@code fixtures.queue.capacity} bounds prepared plus in-progress customers; a producer waits for
+ * room before it leases a device, so no device sits idle behind a full queue. A customer parked longer
+ * than {@code fixtures.maxParkedSeconds} is dropped rather than handed out. Off with
+ * {@code fixtures.producers=0}.
+ */
+public final class CustomerFixtureFactory {
+
+    private static final CustomerFixtureFactory INSTANCE = new CustomerFixtureFactory();
+    // A producer gives up its turn when no device is spare for this long, then tries again
+    private static final Duration LEASE_WAIT = Duration.ofSeconds(30);
+    // Consecutive failed onboardings after which a producer stops
+    private static final int MAX_CONSECUTIVE_FAILURES = 3;
+    private static final long JOIN_MILLIS = 10_000;
+
+    private final List<Thread> producers = new ArrayList<>();
+    private final AtomicInteger prepared = new AtomicInteger();
+    private final AtomicInteger taken = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger stale = new AtomicInteger();
+    private BlockingQueue<PreparedCustomer> ready;
+    private Semaphore slots;
+    private volatile boolean running;
+
+    private CustomerFixtureFactory() {
+    }
+
+    public static CustomerFixtureFactory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts the producers; does nothing when {@code fixtures.producers} is 0 or they already run.
+     *
+     * @param sessions opens a session on a leased device; it must not release the device, which the
+     *                 producer gives back to the device pool whether or not the session opened
+     */
+    public synchronized void start(Function<Device, AndroidDriver> sessions) {
+        if (running || TestConfig.FIXTURES_PRODUCERS <= 0) {
+            return;
+        }
+        int capacity = Math.max(1, TestConfig.FIXTURES_QUEUE_CAPACITY);
+        ready = new ArrayBlockingQueue<>(capacity);
+        slots = new Semaphore(capacity);
+        running = true;
+        for (int i = 0; i < TestConfig.FIXTURES_PRODUCERS; i++) {
+            Thread producer = new Thread(() -> produce(sessions), "customer-fixture-" + (i + 1));
+            producer.setDaemon(true);
+            producers.add(producer);
+            producer.start();
+        }
+        System.out.println("[CustomerFixtureFactory] Started " + producers.size() + " producer(s), queue capacity " + capacity);
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * The oldest prepared customer, waiting up to {@code timeout} for one; null when the factory is
+     * off or none arrived. The caller owns the customer's device and session from then on.
+     */
+    public PreparedCustomer take(Duration timeout) {
+        if (!running) {
+            return null;
+        }
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+        try {
+            while (true) {
+                long remaining = deadline - System.currentTimeMillis();
+                PreparedCustomer customer = remaining > 0 ? ready.poll(remaining, TimeUnit.MILLISECONDS) : ready.poll();
+                if (customer == null) {
+                    System.out.println("[CustomerFixtureFactory] No prepared customer within " + timeout.getSeconds() + " s");
+                    return null;
+                }
+                slots.release();
+                long age = System.currentTimeMillis() - customer.getPreparedAtMillis();
+                if (age >= TimeUnit.SECONDS.toMillis(TestConfig.FIXTURES_MAX_PARKED_SECONDS)) {
+                    // The app has likely timed out the customer screen by now
+                    stale.incrementAndGet();
+                    System.err.println("[CustomerFixtureFactory] Dropping " + customer + ": parked " + age / 1000 + " s");
+                    giveBack(customer.getDevice(), customer.getDriver());
+                    continue;
+                }
+                taken.incrementAndGet();
+                System.out.println("[CustomerFixtureFactory] " + Thread.currentThread().getName() + " took " + customer
+                    + " (parked " + age + " ms)");
+                return customer;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Stops the producers and hands parked customers' sessions and devices back to their pools.
+     * Call before {@link DriverSessionPool#shutdown()}.
+     */
+    public synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Thread producer : producers) {
+            producer.interrupt();
+        }
+        for (Thread producer : producers) {
+            try {
+                producer.join(JOIN_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        producers.clear();
+        List<PreparedCustomer> unused = new ArrayList<>();
+        ready.drainTo(unused);
+        for (PreparedCustomer customer : unused) {
+            giveBack(customer.getDevice(), customer.getDriver());
+        }
+        System.out.println(report() + (unused.isEmpty() ? "" : "; " + unused.size() + " unused at suite end"));
+    }
+
+    public String report() {
+        return "[CustomerFixtureFactory] " + prepared.get() + " prepared, " + taken.get() + " taken, "
+            + stale.get() + " dropped as stale, " + failed.get() + " failed";
+    }
+
+    private void produce(Function<Device, AndroidDriver> sessions) {
+        int failures = 0;
+        while (running && failures < MAX_CONSECUTIVE_FAILURES) {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+            Device device;
+            try {
+                device = DevicePool.getInstance().lease(LEASE_WAIT);
+            } catch (IllegalStateException e) {
+                slots.release();
+                continue;
+            }
+            AndroidDriver driver = null;
+            boolean parked = false;
+            try {
+                driver = sessions.apply(device);
+                PreparedCustomer customer = prepare(device, driver);
+                // Handed to the factory before it is visible to take(): this thread may end before a test takes it
+                SessionLifecycleManager.getInstance().parked(driver, CustomerFixtureFactory.class.getSimpleName());
+                parked = ready.offer(customer);
+                if (parked) {
+                    prepared.incrementAndGet();
+                    failures = 0;
+                    System.out.println("[CustomerFixtureFactory] Prepared " + customer);
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                failures++;
+                failed.incrementAndGet();
+                System.err.println("[CustomerFixtureFactory] Onboarding on " + device.getName() + " failed ("
+                    + failures + "/" + MAX_CONSECUTIVE_FAILURES + "): " + e.getMessage());
+            } finally {
+                if (!parked) {
+                    giveBack(device, driver);
+                    slots.release();
+                }
+            }
+        }
+        if (failures >= MAX_CONSECUTIVE_FAILURES) {
+            System.err.println("[CustomerFixtureFactory] " + Thread.currentThread().getName() + " stopped after "
+                + failures + " consecutive failures");
+        }
+    }
+
+    private static PreparedCustomer prepare(Device device, AndroidDriver driver) {
+        PageObjectManager pages = new PageObjectManager(driver);
+        AuthenticatedSessionFixture.getInstance().openJlgHome(driver, pages, device.getName());
+        OnboardingPage onboarding = pages.getOnboardingPage();
+        String mobile = onboarding.completeOnboardingThroughVoterId(
+            FlowDeadline.start("fixture.onboarding", Duration.ofSeconds(TestConfig.FLOW_BUDGET_ONBOARDING)));
+        L2InfoActions l2Actions = new L2InfoActions(driver);
+        if (!l2Actions.clickContinuationDirectly()) {
+            throw new IllegalStateException("L2 continuation not available after voter-id capture");
+        }
+        String name = l2Actions.selectFirstCustomerSkippingAlerts();
+        return new PreparedCustomer(mobile, onboarding.getLastVoterId(), name, device, driver);
+    }
+
+    private static void giveBack(Device device, AndroidDriver driver) {
+        try {
+            DriverSessionPool.getInstance().release(driver);
+        } finally {
+            DevicePool.getInstance().release(device);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.managers;
+
+/**
+ * One entry of the device pool: the adb serial plus the ports and Appium server that must be
+ * unique per device when several run at once.
+ */
+public final class Device {
+
+    private final String name;
+    private final String udid;
+    private final int systemPort;
+    private final int mjpegServerPort;
+    private final String serverUrl;
+
+    /**
+     * @param udid            adb serial; empty to let Appium pick the only connected device
+     * @param systemPort      UiAutomator2 server port on the host; 0 lets Appium choose
+     * @param mjpegServerPort screen-streaming port; 0 leaves the capability unset
+     */
+    public Device(String name, String udid, int systemPort, int mjpegServerPort, String serverUrl) {
+        this.name = name;
+        this.udid = udid;
+        this.systemPort = systemPort;
+        this.mjpegServerPort = mjpegServerPort;
+        this.serverUrl = serverUrl;
+    }
+
+    /**
+     * Parses {@code udid|systemPort|mjpegServerPort|serverUrl}; trailing fields may be omitted.
+     */
+    static Device parse(String spec, int index, String defaultServerUrl) {
+        String[] f = spec.trim().split("\\|");
+        String udid = f[0].trim();
+        int systemPort = f.length > 1 && !f[1].isBlank() ? Integer.parseInt(f[1].trim()) : 8200 + index;
+        int mjpegPort = f.length > 2 && !f[2].isBlank() ? Integer.parseInt(f[2].trim()) : 7810 + index;
+        String url = f.length > 3 && !f[3].isBlank() ? f[3].trim() : defaultServerUrl;
+        return new Device(udid, udid, systemPort, mjpegPort, url);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUdid() {
+        return udid;
+    }
+
+    public int getSystemPort() {
+        return systemPort;
+    }
+
+    public int getMjpegServerPort() {
+        return mjpegServerPort;
+    }
+
+    public String getServerUrl() {
+        return serverUrl;
+    }
+
+    @Override
+    public String toString() {
+        return name + (udid.isEmpty() || udid.equals(name) ? "" : " [" + udid + "]") + " (systemPort " + systemPort + ", mjpeg " + mjpegServerPort + ", " + serverUrl + ")";
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.managers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.example.testdata.TestConfig;
+
+/**
+ * Devices tests can run on, from {@code devices} in config.properties (comma-separated
+ * {@code udid|systemPort|mjpegServerPort|serverUrl}). Without that list the pool holds the single
+ * {@code device.udid}/{@code device.name} device, so serial runs behave as before.
+ *
+ * <p>A test leases a device, runs on it and releases it; with fewer devices than TestNG threads,
+ * {@link #lease(Duration)} blocks until one is free.
+ */
+public final class DevicePool {
+
+    private static final DevicePool INSTANCE = new DevicePool(configuredDevices());
+
+    private final List<Device> devices;
+    private final BlockingQueue<Device> available;
+
+    private DevicePool(List<Device> devices) {
+        this.devices = Collections.unmodifiableList(devices);
+        this.available = new LinkedBlockingQueue<>(devices);
+        System.out.println("[DevicePool] " + devices.size() + " device(s): " + devices);
+    }
+
+    public static DevicePool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * True when devices are leased per test method ({@code device.lease.scope=method}) rather than per class.
+     */
+    public static boolean leasesPerMethod() {
+        return "method".equalsIgnoreCase(TestConfig.DEVICE_LEASE_SCOPE);
+    }
+
+    /**
+     * Takes a free device, waiting up to {@code timeout} for one.
+     *
+     * @throws IllegalStateException when none became free in time
+     */
+    public Device lease(Duration timeout) {
+        return lease(null, timeout);
+    }
+
+    /**
+     * Like {@link #lease(Duration)}, but takes the device named {@code preferred} when it is free.
+     * Any other free device is taken rather than waiting for it.
+     */
+    public Device lease(String preferred, Duration timeout) {
+        try {
+            Device device = null;
+            if (preferred != null) {
+                for (Device candidate : devices) {
+                    if (candidate.getName().equals(preferred) && available.remove(candidate)) {
+                        device = candidate;
+                        break;
+                    }
+                }
+            }
+            if (device == null) {
+                device = available.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (device == null) {
+                throw new IllegalStateException("No device became free within " + timeout.getSeconds() + " s ("
+                    + devices.size() + " configured)");
+            }
+            System.out.println("[DevicePool] " + Thread.currentThread().getName() + " leased " + device.getName()
+                + (preferred == null || preferred.equals(device.getName()) ? "" : " (planned " + preferred + ")"));
+            return device;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a device", e);
+        }
+    }
+
+    public void release(Device device) {
+        if (device != null && devices.contains(device) && !available.contains(device)) {
+            available.offer(device);
+            System.out.println("[DevicePool] " + Thread.currentThread().getName() + " released " + device.getName());
+        }
+    }
+
+    public List<Device> getDevices() {
+        return devices;
+    }
+
+    private static List<Device> configuredDevices() {
+        List<Device> list = new ArrayList<>();
+        String spec = TestConfig.DEVICES;
+        if (spec != null && !spec.isBlank()) {
+            for (String entry : spec.split("[,;]")) {
+                if (!entry.isBlank()) {
+                    list.add(Device.parse(entry, list.size(), TestConfig.APPIUM_SERVER_URL));
+                }
+            }
+        }
+        if (list.isEmpty()) {
+            list.add(new Device(TestConfig.DEVICE_NAME, TestConfig.DEVICE_UDID, 0, 0, TestConfig.APPIUM_SERVER_URL));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.managers;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * The driver and device leased by the current test thread. With per-method leases
+ * ({@code device.lease.scope=method}) this is how methods of one class run in parallel on
+ * different devices without sharing a driver field.
+ */
+public final class DriverRegistry {
+
+    private static final ThreadLocal<AndroidDriver> DRIVER = new ThreadLocal<>();
+    private static final ThreadLocal<Device> DEVICE = new ThreadLocal<>();
+
+    private DriverRegistry() {
+    }
+
+    public static AndroidDriver getDriver() {
+        return DRIVER.get();
+    }
+
+    public static Device getDevice() {
+        return DEVICE.get();
+    }
+
+    public static void bind(AndroidDriver driver, Device device) {
+        DRIVER.set(driver);
+        DEVICE.set(device);
+    }
+
+    public static void unbind() {
+        DRIVER.remove();
+        DEVICE.remove();
+    }
+}
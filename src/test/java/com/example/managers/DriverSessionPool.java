@@ -0,0 +1,209 @@
+package com.example.managers;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openqa.selenium.Capabilities;
+
+import com.example.testdata.TestConfig;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * Keeps Appium sessions alive between test classes. Creating a session (server handshake,
+ * UiAutomator2 install check, app launch) takes 10-30 s on our emulators; a pooled session is
+ * handed to the next class with the same server, device and capabilities after a cheap app reset
+ * ({@code session.pool.reset}: {@code clear} = clear app data and relaunch, {@code restart} =
+ * terminate and relaunch, {@code none}). With {@code login.shared} on, {@code clear} acts as
+ * {@code restart} so the shared login is kept.
+ *
+ * <p>Sessions are health-checked before reuse and replaced when the check or the reset fails.
+ * A device runs one UiAutomator2 session at a time, so idle sessions for other capabilities on the
+ * same device are quit before a new one is created. {@link #shutdown()} quits everything; every
+ * quit goes through {@link SessionLifecycleManager}.
+ */
+public final class DriverSessionPool {
+
+    private static final DriverSessionPool INSTANCE = new DriverSessionPool();
+
+    private final SessionLifecycleManager lifecycle = SessionLifecycleManager.getInstance();
+    private final Map<String, AndroidDriver> idle = new LinkedHashMap<>();
+    private final Map<AndroidDriver, String> leased = new LinkedHashMap<>();
+    private int created;
+    private int reused;
+
+    private DriverSessionPool() {
+    }
+
+    public static DriverSessionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * A healthy, reset session for these capabilities: an idle pooled one if there is one, otherwise new.
+     *
+     * @param owner test class taking the session; recorded by {@link SessionLifecycleManager}
+     */
+    public AndroidDriver acquire(URL serverUrl, Capabilities capabilities, String owner) {
+        String key = keyOf(serverUrl, capabilities);
+        AndroidDriver pooled;
+        synchronized (this) {
+            pooled = TestConfig.SESSION_POOL_ENABLED ? idle.remove(key) : null;
+        }
+        if (pooled != null) {
+            long start = System.currentTimeMillis();
+            if (isHealthy(pooled) && reset(pooled)) {
+                synchronized (this) {
+                    leased.put(pooled, key);
+                    reused++;
+                }
+                lifecycle.leased(pooled, owner);
+                System.out.println("[DriverSessionPool] Reusing session " + pooled.getSessionId() + " for " + deviceOf(capabilities)
+                    + " (reset " + TestConfig.SESSION_POOL_RESET + " in " + (System.currentTimeMillis() - start) + " ms)");
+                return pooled;
+            }
+            System.err.println("[DriverSessionPool] Pooled session for " + deviceOf(capabilities) + " is unusable; creating a new one");
+            quit(pooled);
+        }
+
+        quitIdleOnDevice(deviceOf(capabilities));
+        long start = System.currentTimeMillis();
+        AndroidDriver driver = new AndroidDriver(serverUrl, capabilities);
+        synchronized (this) {
+            leased.put(driver, key);
+            created++;
+        }
+        lifecycle.opened(driver, owner);
+        System.out.println("[DriverSessionPool] Created session " + driver.getSessionId() + " for " + deviceOf(capabilities)
+            + " in " + (System.currentTimeMillis() - start) + " ms");
+        return driver;
+    }
+
+    /**
+     * Returns the session for reuse; quits it instead when pooling is disabled or the session is not from this pool.
+     */
+    public void release(AndroidDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        String key;
+        AndroidDriver displaced = null;
+        synchronized (this) {
+            key = leased.remove(driver);
+            if (key != null && TestConfig.SESSION_POOL_ENABLED) {
+                displaced = idle.put(key, driver);
+            }
+        }
+        if (key == null || !TestConfig.SESSION_POOL_ENABLED) {
+            quit(driver);
+            return;
+        }
+        lifecycle.returned(driver);
+        if (displaced != null) {
+            quit(displaced);
+        }
+    }
+
+    /**
+     * Quits the session and forgets it, e.g. after it was left in a state a reset cannot recover.
+     */
+    public void discard(AndroidDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        synchronized (this) {
+            leased.remove(driver);
+            idle.values().remove(driver);
+        }
+        quit(driver);
+    }
+
+    /**
+     * Quits every idle and leased session.
+     */
+    public void shutdown() {
+        List<AndroidDriver> all;
+        synchronized (this) {
+            all = new ArrayList<>(idle.values());
+            all.addAll(leased.keySet());
+            idle.clear();
+            leased.clear();
+        }
+        for (AndroidDriver driver : all) {
+            quit(driver);
+        }
+        System.out.println("[DriverSessionPool] Shut down: " + created + " sessions created, " + reused + " reused");
+    }
+
+    private void quitIdleOnDevice(String device) {
+        List<AndroidDriver> stale = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, AndroidDriver>> it = idle.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, AndroidDriver> e = it.next();
+                if (e.getKey().startsWith(device + "|")) {
+                    stale.add(e.getValue());
+                    it.remove();
+                }
+            }
+        }
+        for (AndroidDriver driver : stale) {
+            quit(driver);
+        }
+    }
+
+    /**
+     * One round trip: the session must exist on the server and the device must answer.
+     */
+    private static boolean isHealthy(AndroidDriver driver) {
+        try {
+            return driver.getSessionId() != null && driver.getCurrentPackage() != null;
+        } catch (Exception e) {
+            System.err.println("[DriverSessionPool] Health check failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean reset(AndroidDriver driver) {
+        String mode = TestConfig.SESSION_POOL_RESET;
+        String appPackage = TestConfig.APP_PACKAGE;
+        try {
+            if ("none".equalsIgnoreCase(mode)) {
+                return true;
+            }
+            if ("clear".equalsIgnoreCase(mode) && !TestConfig.LOGIN_SHARED) {
+                // Same state a noReset=false session starts from, without the session handshake
+                driver.terminateApp(appPackage);
+                driver.executeScript("mobile: clearApp", Map.of("appId", appPackage));
+            } else {
+                driver.terminateApp(appPackage);
+            }
+            driver.activateApp(appPackage);
+            return true;
+        } catch (Exception e) {
+            System.err.println("[DriverSessionPool] App reset (" + mode + ") failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void quit(AndroidDriver driver) {
+        lifecycle.quit(driver);
+    }
+
+    private static String keyOf(URL serverUrl, Capabilities capabilities) {
+        return deviceOf(capabilities) + "|" + serverUrl + "|" + new TreeMap<>(capabilities.asMap());
+    }
+
+    private static String deviceOf(Capabilities capabilities) {
+        Object udid = capabilities.getCapability("appium:udid");
+        if (udid != null && !String.valueOf(udid).isEmpty()) {
+            return String.valueOf(udid);
+        }
+        return String.valueOf(capabilities.getCapability("appium:deviceName"));
+    }
+}
@@ -16,6 +16,10 @@ public class PageObjectManager {
         this.driver = driver;
     }
 
+    public AndroidDriver getDriver() {
+        return driver;
+    }
+
     public PermissionPage getPermissionPage() {
         return (permissionPage == null) ? permissionPage = new PermissionPage(driver) : permissionPage;
     }
@@ -0,0 +1,40 @@
+package com.example.managers;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlSuite.ParallelMode;
+import org.testng.xml.XmlTest;
+
+/**
+ * Runs the suite in parallel only when {@code devices} lists more than one device; otherwise
+ * testng.xml stays serial, as before the device pool. With several devices, tests run in parallel
+ * and so do the classes inside them (methods with {@code device.lease.scope=method}), one thread
+ * per device.
+ *
+ * <p>Registered as a listener in testng.xml.
+ */
+public class ParallelSuiteConfigurer implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int devices = DevicePool.getInstance().getDevices().size();
+        if (devices < 2) {
+            System.out.println("[ParallelSuiteConfigurer] One device; running serially");
+            return;
+        }
+        ParallelMode inner = DevicePool.leasesPerMethod() ? ParallelMode.METHODS : ParallelMode.CLASSES;
+        for (XmlSuite suite : suites) {
+            suite.setParallel(ParallelMode.TESTS);
+            suite.setThreadCount(devices);
+            for (XmlTest test : suite.getTests()) {
+                test.setParallel(inner);
+                test.setThreadCount(devices);
+            }
+        }
+        System.out.println("[ParallelSuiteConfigurer] " + devices + " devices; tests and "
+            + inner.name().toLowerCase(Locale.ROOT) + " run in parallel on " + devices + " threads");
+    }
+}
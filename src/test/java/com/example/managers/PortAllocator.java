@@ -0,0 +1,53 @@
+package com.example.managers;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Hands out free local TCP ports, never the same one twice while it is held. A port is free when
+ * it can be bound at the moment of the check; keeping track of handed-out ports closes the window
+ * where two workers probe the same port before either server has bound it.
+ */
+public final class PortAllocator {
+
+    private static final PortAllocator INSTANCE = new PortAllocator();
+    private static final int MAX_ATTEMPTS = 50;
+
+    private final Set<Integer> held = new HashSet<>();
+
+    private PortAllocator() {
+    }
+
+    public static PortAllocator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @throws IllegalStateException when no free port was found
+     */
+    public synchronized int allocate() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int port = probe();
+            if (port > 0 && held.add(port)) {
+                return port;
+            }
+        }
+        throw new IllegalStateException("No free local port after " + MAX_ATTEMPTS + " attempts");
+    }
+
+    public synchronized void release(int port) {
+        held.remove(port);
+    }
+
+    private static int probe() {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            socket.setReuseAddress(true);
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.managers;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * A customer onboarded ahead of time by {@link CustomerFixtureFactory}: consent captured, mobile
+ * submitted, voter id captured and the L2 customer selected. The L2 screens only exist on the device
+ * that walked there, so the customer comes with that device and its session, parked on the L1
+ * details form.
+ */
+public final class PreparedCustomer {
+
+    private final String mobile;
+    private final String voterId;
+    private final String name;
+    private final Device device;
+    private final AndroidDriver driver;
+    private final long preparedAtMillis;
+
+    PreparedCustomer(String mobile, String voterId, String name, Device device, AndroidDriver driver) {
+        this.mobile = mobile;
+        this.voterId = voterId;
+        this.name = name;
+        this.device = device;
+        this.driver = driver;
+        this.preparedAtMillis = System.currentTimeMillis();
+    }
+
+    public String getMobile() {
+        return mobile;
+    }
+
+    public String getVoterId() {
+        return voterId;
+    }
+
+    /**
+     * Name on the L2 customer card that was selected.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public Device getDevice() {
+        return device;
+    }
+
+    public AndroidDriver getDriver() {
+        return driver;
+    }
+
+    public long getPreparedAtMillis() {
+        return preparedAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (mobile " + mobile + ", voter id " + voterId + ") on " + device.getName();
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.managers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.example.snapshot.SnapshotCache;
+import com.example.testdata.TestConfig;
+import com.example.waits.UiChangeSources;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * Owns the end of every Appium session this JVM opens. Sessions are registered with the test class
+ * that created them and are guaranteed a {@code quit()}: when they are discarded, when their class
+ * ends still holding them, at suite end, and from a JVM shutdown hook.
+ *
+ * <p>A reaper thread quits pooled sessions that have sat unused longer than
+ * {@code session.idle.timeoutSeconds} and sessions whose owning thread has died. Sessions that had
+ * to be closed on someone else's behalf are reported as leaks, with their creator, in
+ * {@code target/session-leaks.properties}.
+ */
+public final class SessionLifecycleManager {
+
+    private static final Path LEAK_FILE = Paths.get("target", "session-leaks.properties");
+    private static final long REAP_PERIOD_SECONDS = 30;
+    private static final SessionLifecycleManager INSTANCE = new SessionLifecycleManager();
+
+    private enum State { LEASED, IDLE }
+
+    private static final class Tracked {
+        final String sessionId;
+        final String createdBy;
+        final long createdAt = System.currentTimeMillis();
+        String owner;
+        Thread ownerThread;
+        State state = State.LEASED;
+        long stateSince = createdAt;
+
+        Tracked(String sessionId, String createdBy) {
+            this.sessionId = sessionId;
+            this.createdBy = createdBy;
+        }
+    }
+
+    private final Map<AndroidDriver, Tracked> sessions = new IdentityHashMap<>();
+    private final List<String> leaks = new ArrayList<>();
+    private int opened;
+    private int closed;
+    private ScheduledExecutorService reaper;
+
+    private SessionLifecycleManager() {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            closeAll("JVM shutdown");
+            saveLeaks();
+        }, "session-lifecycle-shutdown"));
+    }
+
+    public static SessionLifecycleManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts tracking a newly created session, leased to {@code owner}.
+     */
+    public synchronized void opened(AndroidDriver driver, String owner) {
+        Tracked t = new Tracked(String.valueOf(driver.getSessionId()), owner);
+        t.owner = owner;
+        t.ownerThread = Thread.currentThread();
+        sessions.put(driver, t);
+        opened++;
+        startReaper();
+    }
+
+    public synchronized void leased(AndroidDriver driver, String owner) {
+        Tracked t = sessions.get(driver);
+        if (t != null) {
+            t.owner = owner;
+            t.ownerThread = Thread.currentThread();
+            move(t, State.LEASED);
+        }
+    }
+
+    /**
+     * The session stays leased but no thread owns it, e.g. a prepared customer waiting in
+     * {@link CustomerFixtureFactory}; the reaper leaves it alone until {@link #leased} hands it on.
+     */
+    public synchronized void parked(AndroidDriver driver, String owner) {
+        Tracked t = sessions.get(driver);
+        if (t != null) {
+            t.owner = owner;
+            t.ownerThread = null;
+            move(t, State.LEASED);
+        }
+    }
+
+    /**
+     * The session went back to the pool and is idle until leased again.
+     */
+    public synchronized void returned(AndroidDriver driver) {
+        Tracked t = sessions.get(driver);
+        if (t != null) {
+            t.ownerThread = null;
+            move(t, State.IDLE);
+        }
+    }
+
+    /**
+     * Quits the session (once) and stops tracking it.
+     */
+    public void quit(AndroidDriver driver) {
+        Tracked t;
+        synchronized (this) {
+            t = sessions.remove(driver);
+            if (t != null) {
+                closed++;
+            }
+        }
+        UiChangeSources.release(driver);
+        SnapshotCache.release(driver);
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.err.println("[SessionLifecycleManager] Error while quitting session "
+                + (t != null ? t.sessionId : driver.getSessionId()) + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Quits sessions {@code owner} still holds; called when its test class ends. Each is a leak.
+     */
+    public void endOfClass(String owner) {
+        for (AndroidDriver driver : select(owner, State.LEASED)) {
+            leak(driver, "still leased at end of " + owner);
+            DriverSessionPool.getInstance().discard(driver);
+        }
+    }
+
+    /**
+     * Quits whatever the pool did not, writes the leak report and prints a summary.
+     */
+    public void endOfSuite() {
+        closeAll("suite end");
+        stopReaper();
+        saveLeaks();
+        synchronized (this) {
+            System.out.println("[SessionLifecycleManager] " + opened + " sessions opened, " + closed + " quit, "
+                + leaks.size() + " leaked" + (leaks.isEmpty() ? "" : " (see " + LEAK_FILE + ")"));
+        }
+    }
+
+    /**
+     * Quits every tracked session; idle pooled ones are expected here, leased ones are leaks.
+     */
+    private void closeAll(String reason) {
+        for (AndroidDriver driver : select(null, State.LEASED)) {
+            leak(driver, "still leased at " + reason);
+            DriverSessionPool.getInstance().discard(driver);
+        }
+        for (AndroidDriver driver : select(null, State.IDLE)) {
+            DriverSessionPool.getInstance().discard(driver);
+        }
+    }
+
+    /**
+     * Reaper pass: idle pooled sessions past the timeout are quit quietly; leased sessions whose
+     * owning thread is gone are leaks.
+     */
+    void reap() {
+        long idleLimit = TestConfig.SESSION_IDLE_TIMEOUT_SECONDS * 1000L;
+        long now = System.currentTimeMillis();
+        List<AndroidDriver> expired = new ArrayList<>();
+        List<AndroidDriver> orphaned = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<AndroidDriver, Tracked> e : sessions.entrySet()) {
+                Tracked t = e.getValue();
+                if (t.state == State.IDLE && now - t.stateSince > idleLimit) {
+                    expired.add(e.getKey());
+                } else if (t.state == State.LEASED && t.ownerThread != null && !t.ownerThread.isAlive()) {
+                    orphaned.add(e.getKey());
+                }
+            }
+        }
+        for (AndroidDriver driver : expired) {
+            System.out.println("[SessionLifecycleManager] Reaping session idle for more than "
+                + TestConfig.SESSION_IDLE_TIMEOUT_SECONDS + " s");
+            DriverSessionPool.getInstance().discard(driver);
+        }
+        for (AndroidDriver driver : orphaned) {
+            leak(driver, "owner thread ended without releasing it");
+            DriverSessionPool.getInstance().discard(driver);
+        }
+    }
+
+    private synchronized List<AndroidDriver> select(String owner, State state) {
+        List<AndroidDriver> out = new ArrayList<>();
+        for (Map.Entry<AndroidDriver, Tracked> e : sessions.entrySet()) {
+            Tracked t = e.getValue();
+            if ((owner == null || owner.equals(t.owner)) && t.state == state) {
+                out.add(e.getKey());
+            }
+        }
+        return out;
+    }
+
+    private synchronized void leak(AndroidDriver driver, String reason) {
+        Tracked t = sessions.get(driver);
+        if (t == null) {
+            return;
+        }
+        String entry = t.sessionId + "=created by " + t.createdBy + ", last leased by " + t.owner + ", "
+            + (System.currentTimeMillis() - t.createdAt) / 1000 + " s old, " + reason;
+        leaks.add(entry);
+        System.err.println("[SessionLifecycleManager] Leaked session " + entry);
+    }
+
+    private void move(Tracked t, State state) {
+        t.state = state;
+        t.stateSince = System.currentTimeMillis();
+    }
+
+    private synchronized void startReaper() {
+        if (reaper != null) {
+            return;
+        }
+        reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+        reaper.scheduleWithFixedDelay(() -> {
+            try {
+                reap();
+            } catch (Exception e) {
+                System.err.println("[SessionLifecycleManager] Reaper pass failed: " + e.getMessage());
+            }
+        }, REAP_PERIOD_SECONDS, REAP_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private synchronized void stopReaper() {
+        if (reaper != null) {
+            reaper.shutdownNow();
+            reaper = null;
+        }
+    }
+
+    private synchronized void saveLeaks() {
+        if (leaks.isEmpty()) {
+            return;
+        }
+        Properties props = new Properties();
+        for (String entry : leaks) {
+            int eq = entry.indexOf('=');
+            props.setProperty(entry.substring(0, eq), entry.substring(eq + 1));
+        }
+        try {
+            Files.createDirectories(LEAK_FILE.getParent());
+            try (OutputStream out = Files.newOutputStream(LEAK_FILE)) {
+                props.store(out, "Sessions that had to be quit on their owner's behalf");
+            }
+        } catch (IOException e) {
+            System.err.println("[SessionLifecycleManager] Unable to save " + LEAK_FILE + ": " + e.getMessage());
+        }
+    }
+}
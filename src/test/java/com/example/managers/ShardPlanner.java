@@ -0,0 +1,137 @@
+package com.example.managers;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import com.example.testdata.TestConfig;
+
+/**
+ * Orders and assigns tests so the suite finishes as early as possible on the device pool, using
+ * the previous run's durations ({@link TestDurationHistory}).
+ *
+ * <p>At suite start the work items (test classes, or test methods with
+ * {@code device.lease.scope=method}) are planned longest-processing-time first: longest item onto
+ * the least-loaded device. The method interceptor then hands TestNG the longest items first. At run
+ * time a lease takes the planned device when it is free and any free device otherwise, so a device
+ * that finishes early steals the next-longest remaining item instead of idling.
+ *
+ * <p>Registered as a listener in testng.xml.
+ */
+public class ShardPlanner implements ISuiteListener, IMethodInterceptor {
+
+    private static final Map<String, String> PLANNED = new ConcurrentHashMap<>();
+    private static volatile TestDurationHistory history;
+
+    /**
+     * Device the plan put this work item on, or null when it was not planned.
+     */
+    public static String plannedDevice(String className, String methodName) {
+        return PLANNED.get(workItem(className, methodName));
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        TestDurationHistory durations = history();
+        Map<String, Long> items = new LinkedHashMap<>();
+        for (ITestNGMethod method : suite.getAllMethods()) {
+            String className = method.getRealClass().getName();
+            String item = workItem(className, method.getMethodName());
+            long overhead = items.containsKey(item) || DevicePool.leasesPerMethod() ? 0 : durations.classOverheadMillis(className);
+            items.merge(item, durations.estimateMillis(className, method.getMethodName()) + overhead, Long::sum);
+        }
+        plan(items, DevicePool.getInstance().getDevices());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        // Nothing to do; the next run reads this run's testng-results.xml
+    }
+
+    /**
+     * Longest items first; with class leases, whole classes are ordered by their total and methods inside by their own estimate.
+     */
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        TestDurationHistory durations = history();
+        Map<String, Long> classTotals = new HashMap<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod m = instance.getMethod();
+            classTotals.merge(m.getRealClass().getName(), durations.estimateMillis(m.getRealClass().getName(), m.getMethodName()), Long::sum);
+        }
+        Comparator<IMethodInstance> byMethod = Comparator.comparingLong(
+            i -> durations.estimateMillis(i.getMethod().getRealClass().getName(), i.getMethod().getMethodName()));
+        Comparator<IMethodInstance> order = DevicePool.leasesPerMethod()
+            ? byMethod.reversed()
+            : Comparator.<IMethodInstance>comparingLong(i -> classTotals.get(i.getMethod().getRealClass().getName())).reversed()
+                .thenComparing(i -> i.getMethod().getRealClass().getName())
+                .thenComparing(byMethod.reversed());
+        List<IMethodInstance> sorted = new ArrayList<>(methods);
+        sorted.sort(order);
+        return sorted;
+    }
+
+    /**
+     * LPT assignment of {@code items} (work item to estimated ms) onto {@code devices}; logs the plan.
+     */
+    static Map<String, String> plan(Map<String, Long> items, List<Device> devices) {
+        List<Map.Entry<String, Long>> ordered = new ArrayList<>(items.entrySet());
+        ordered.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        long[] load = new long[devices.size()];
+        Map<String, String> plan = new LinkedHashMap<>();
+        long serial = 0;
+        for (Map.Entry<String, Long> item : ordered) {
+            int least = 0;
+            for (int d = 1; d < load.length; d++) {
+                if (load[d] < load[least]) {
+                    least = d;
+                }
+            }
+            load[least] += item.getValue();
+            serial += item.getValue();
+            plan.put(item.getKey(), devices.get(least).getName());
+        }
+        PLANNED.clear();
+        PLANNED.putAll(plan);
+
+        long makespan = 0;
+        for (long l : load) {
+            makespan = Math.max(makespan, l);
+        }
+        System.out.println("[ShardPlanner] " + items.size() + " work items on " + devices.size() + " device(s): predicted "
+            + makespan / 1000 + " s wall clock (" + serial / 1000 + " s serial)");
+        for (Map.Entry<String, Long> item : ordered) {
+            System.out.println("[ShardPlanner]   " + plan.get(item.getKey()) + " <- " + item.getKey() + " (~" + item.getValue() / 1000 + " s)");
+        }
+        return plan;
+    }
+
+    private static String workItem(String className, String methodName) {
+        return DevicePool.leasesPerMethod() ? className + "#" + methodName : className;
+    }
+
+    private static TestDurationHistory history() {
+        TestDurationHistory h = history;
+        if (h == null) {
+            synchronized (ShardPlanner.class) {
+                if (history == null) {
+                    history = TestDurationHistory.load(new File(TestConfig.SHARD_HISTORY_FILE));
+                }
+                h = history;
+            }
+        }
+        return h;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.managers;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Per-test durations from the previous run's {@code testng-results.xml}. Only tests that actually
+ * ran (PASS or FAIL) count; a parameterised test that ran several times is averaged. Per-class
+ * configuration time (session setup, teardown) is kept separately so class-level estimates
+ * include it.
+ */
+public final class TestDurationHistory {
+
+    private static final long FALLBACK_ESTIMATE_MS = 60_000;
+
+    private final Map<String, long[]> methods = new HashMap<>();
+    private final Map<String, Long> classOverhead = new HashMap<>();
+
+    private TestDurationHistory() {
+    }
+
+    /**
+     * Reads {@code results}; an absent or unreadable file gives an empty history.
+     */
+    public static TestDurationHistory load(File results) {
+        TestDurationHistory history = new TestDurationHistory();
+        if (!results.isFile()) {
+            System.out.println("[TestDurationHistory] No previous results at " + results + "; using default estimates");
+            return history;
+        }
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            Document doc = factory.newDocumentBuilder().parse(results);
+            NodeList classes = doc.getElementsByTagName("class");
+            for (int i = 0; i < classes.getLength(); i++) {
+                Element cls = (Element) classes.item(i);
+                String className = cls.getAttribute("name");
+                NodeList runs = cls.getElementsByTagName("test-method");
+                for (int j = 0; j < runs.getLength(); j++) {
+                    history.add(className, (Element) runs.item(j));
+                }
+            }
+            System.out.println("[TestDurationHistory] Loaded durations of " + history.methods.size() + " tests from " + results);
+        } catch (Exception e) {
+            System.err.println("[TestDurationHistory] Unable to read " + results + ": " + e.getMessage());
+        }
+        return history;
+    }
+
+    private void add(String className, Element run) {
+        String status = run.getAttribute("status");
+        if (!"PASS".equals(status) && !"FAIL".equals(status)) {
+            return;
+        }
+        long duration;
+        try {
+            duration = Long.parseLong(run.getAttribute("duration-ms"));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        if ("true".equals(run.getAttribute("is-config"))) {
+            classOverhead.merge(className, duration, Long::sum);
+            return;
+        }
+        long[] e = methods.computeIfAbsent(key(className, run.getAttribute("name")), k -> new long[2]);
+        e[0] += duration;
+        e[1]++;
+    }
+
+    /**
+     * Average recorded duration, or the median of all known tests when this one has no history
+     * (one minute when nothing is known).
+     */
+    public long estimateMillis(String className, String methodName) {
+        long[] e = methods.get(key(className, methodName));
+        return e != null ? e[0] / e[1] : defaultEstimate();
+    }
+
+    /**
+     * Configuration time recorded for the class (0 when unknown).
+     */
+    public long classOverheadMillis(String className) {
+        return classOverhead.getOrDefault(className, 0L);
+    }
+
+    public boolean isEmpty() {
+        return methods.isEmpty();
+    }
+
+    private long defaultEstimate() {
+        if (methods.isEmpty()) {
+            return FALLBACK_ESTIMATE_MS;
+        }
+        List<Long> averages = new ArrayList<>();
+        for (long[] e : methods.values()) {
+            averages.add(e[0] / e[1]);
+        }
+        averages.sort(null);
+        return averages.get(averages.size() / 2);
+    }
+
+    private static String key(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+}
@@ -1,21 +1,181 @@
 package com.example.pages;
 
 import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.WebDriverWait;
+
+import com.example.locators.LocatorCatalog;
+import com.example.snapshot.CompactHierarchy;
+import com.example.snapshot.HierarchyDiff;
+import com.example.snapshot.SnapshotCache;
+import com.example.snapshot.SnapshotHistory;
+import com.example.snapshot.UiSnapshot;
+import com.example.testdata.TestConfig;
+import com.example.waits.FlowDeadline;
+import com.example.waits.PollStrategy;
+import com.example.waits.WaitEngine;
+import com.example.waits.WaitLedger;
 
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.pagefactory.AppiumFieldDecorator;
 
 public class BasePage {
+    private static final Duration UI_IDLE_BUDGET = Duration.ofSeconds(3);
+    private static final Duration UI_IDLE_FALLBACK = Duration.ofMillis(250);
+    // Fixed settle pause (ui.settle=pause), the old tinySleep
+    protected static final Duration SETTLE_PAUSE = Duration.ofMillis(250);
+    // Page-source round trips already take ~100 ms, so start polling almost back to back
+    private static final PollStrategy UI_IDLE_POLL =
+        PollStrategy.exponential(Duration.ofMillis(20), 2, Duration.ofMillis(250));
+
     protected AndroidDriver driver;
-    protected WebDriverWait wait;
+    // Shared by every wait of this page; nested waits are bounded by the enclosing one
+    protected final WaitEngine waits;
 
     public BasePage(AndroidDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        this.waits = new WaitEngine(driver);
         // Initialize PageFactory with AppiumFieldDecorator and explicit wait timeout
         PageFactory.initElements(new AppiumFieldDecorator(driver, Duration.ofSeconds(15)), this);
     }
+
+    /**
+     * Fetches the page source once so a batch of locators can be evaluated locally.
+     * An unchanged screen reuses the previous snapshot and its index.
+     * Returns null when the source cannot be fetched or parsed; callers then fall back
+     * to querying the driver per locator.
+     */
+    protected UiSnapshot captureSnapshot() {
+        try {
+            return SnapshotCache.forDriver(driver).capture();
+        } catch (Exception e) {
+            System.err.println("[" + getClass().getSimpleName() + "] Snapshot capture failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Logs what changed since the last recorded screen and records this one, so failure artifacts
+     * show the transition that led to them. Only the compact form is kept after this returns.
+     */
+    protected void recordScreen(String pageSource) {
+        try {
+            SnapshotHistory history = SnapshotHistory.forDriver(driver);
+            CompactHierarchy current = CompactHierarchy.parse(pageSource);
+            HierarchyDiff diff = history.diffFromLatest(current);
+            if (diff != null) {
+                System.out.println("[" + getClass().getSimpleName() + "] Screen change since last snapshot: " + diff.summary(5));
+            }
+            history.record(current);
+        } catch (Exception e) {
+            System.err.println("[" + getClass().getSimpleName() + "] Unable to record screen: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for {@code condition} on {@code locator}. Catalogued locators are profiled as their own step
+     * ({@code action.Screen.FIELD}, per coded {@code timeout}) so their timeout can follow recorded
+     * history; others keep {@code timeout}.
+     */
+    protected <T> T untilLocator(String action, By locator, Duration timeout, Function<? super WebDriver, T> condition) {
+        String name = LocatorCatalog.nameOf(locator);
+        if (name == null) {
+            return waits.until(action, timeout, condition);
+        }
+        return waits.untilStep(action + "." + name.substring(name.indexOf('.') + 1), timeout, condition);
+    }
+
+    /**
+     * Lets the UI settle after a click, swipe or dialog; see {@link #settleUi(Duration)}.
+     */
+    protected void settleUi() {
+        settleUi(SETTLE_PAUSE);
+    }
+
+    /**
+     * With {@code ui.settle=idle} (the default) {@link #waitForUiIdle()}; with {@code ui.settle=pause}
+     * a fixed {@code pause}, cut to any active deadline. Pauses are recorded as {@code ui.settle.pause}
+     * and idle waits as {@code ui.idle} in the {@link WaitLedger}, so runs in both modes can be compared.
+     */
+    protected void settleUi(Duration pause) {
+        if ("idle".equalsIgnoreCase(TestConfig.UI_SETTLE)) {
+            waitForUiIdle();
+            return;
+        }
+        long millis = Math.min(pause.toMillis(), WaitEngine.remainingMillis());
+        long start = System.currentTimeMillis();
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        WaitLedger.getInstance().record("ui.settle.pause", pause.toMillis(), System.currentTimeMillis() - start,
+            false, millis < pause.toMillis());
+    }
+
+    /**
+     * Returns once {@code ui.idle.stablePolls} consecutive page sources repeat the layout fingerprint
+     * (ids, bounds, state) of the one before. Each poll is one fetch through {@link SnapshotCache}, which
+     * skips the parse while the source is unchanged, and the settled snapshot is left there for the
+     * next step's capture to reuse.
+     */
+    protected boolean waitForUiIdle() {
+        return waitForUiIdle(UI_IDLE_BUDGET, TestConfig.UI_IDLE_STABLE_POLLS);
+    }
+
+    /**
+     * @param stablePolls how many consecutive polls must repeat the previous fingerprint
+     * @return true when idle, false when the budget ran out (or the source was unavailable) first
+     */
+    protected boolean waitForUiIdle(Duration budget, int stablePolls) {
+        long[] last = {0};
+        int[] matches = {-1};
+        boolean[] unavailable = {false};
+        boolean idle = waits.holds("ui.idle", budget, UI_IDLE_POLL, d -> {
+            long fingerprint;
+            try {
+                fingerprint = SnapshotCache.forDriver(driver).capture().layoutFingerprint();
+            } catch (Exception e) {
+                unavailable[0] = true;
+                return true;
+            }
+            matches[0] = matches[0] >= 0 && fingerprint == last[0] ? matches[0] + 1 : 0;
+            last[0] = fingerprint;
+            return matches[0] >= stablePolls;
+        });
+        if (unavailable[0]) {
+            // No hierarchy to compare; behave like the fixed pause this replaces
+            try {
+                Thread.sleep(Math.min(UI_IDLE_FALLBACK.toMillis(), WaitEngine.remainingMillis()));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+        return idle;
+    }
+
+    /**
+     * Runs {@code body} with every wait bounded by {@code deadline}. When the budget runs out the
+     * failure (or a false result) is logged together with the report of where the time went.
+     */
+    protected <T> T within(FlowDeadline deadline, String stage, Supplier<T> body) {
+        String page = "[" + getClass().getSimpleName() + "] ";
+        try (FlowDeadline.Scope ignored = deadline.enter(stage)) {
+            T result = body.get();
+            if (Boolean.FALSE.equals(result) && deadline.isExpired()) {
+                System.err.println(page + stage + " ran out of flow budget; " + deadline.report());
+            }
+            return result;
+        } catch (RuntimeException e) {
+            if (deadline.isExpired()) {
+                System.err.println(page + stage + " ran out of flow budget; " + deadline.report());
+            }
+            throw e;
+        }
+    }
 }
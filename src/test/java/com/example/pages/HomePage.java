@@ -6,17 +6,19 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
 
 import org.openqa.selenium.By;
-import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.example.locators.AppLocators;
+import com.example.locators.LocatorChain;
+import com.example.waits.AnyLocatorWait;
+import com.example.waits.FlowDeadline;
+import com.example.waits.LocatorHit;
 
 import io.appium.java_client.android.AndroidDriver;
 
@@ -31,6 +33,8 @@ public class HomePage extends BasePage {
     private static final By SIGN_IN_LOCATOR = AppLocators.Login.SIGN_IN;
     private static final By SIGN_IN_FALLBACK = AppLocators.Login.SIGN_IN_FALLBACK;
     private static final By JLG_LOCATOR = AppLocators.Home.JLG_TEXT;
+    private static final LocatorChain SIGN_IN_CHAIN = LocatorChain.of("login.signIn", SIGN_IN_LOCATOR, SIGN_IN_FALLBACK)
+        .pinLast(SIGN_IN_FALLBACK);
 
     public HomePage(AndroidDriver driver) {
         super(driver);
@@ -45,20 +49,10 @@ public class HomePage extends BasePage {
     public boolean waitForLoginScreenReady() {
         long start = System.currentTimeMillis();
         try {
-            WebDriverWait wait = new WebDriverWait(driver, LOGIN_WAIT);
-            wait.pollingEvery(POLL_INTERVAL).ignoring(NoSuchElementException.class);
+            waits.untilStep("login.userId", LOGIN_WAIT, ExpectedConditions.visibilityOfElementLocated(USER_ID_LOCATOR));
+            waits.untilStep("login.password", ELEMENT_WAIT, ExpectedConditions.visibilityOfElementLocated(PASSWORD_LOCATOR));
 
-            wait.until(ExpectedConditions.visibilityOfElementLocated(USER_ID_LOCATOR));
-
-            WebDriverWait shortWait = new WebDriverWait(driver, ELEMENT_WAIT);
-            shortWait.pollingEvery(POLL_INTERVAL).ignoring(NoSuchElementException.class);
-            shortWait.until(ExpectedConditions.visibilityOfElementLocated(PASSWORD_LOCATOR));
-
-            try {
-                shortWait.until(ExpectedConditions.elementToBeClickable(SIGN_IN_LOCATOR));
-            } catch (TimeoutException te) {
-                shortWait.until(ExpectedConditions.elementToBeClickable(SIGN_IN_FALLBACK));
-            }
+            waitForSignIn();
 
             long elapsed = System.currentTimeMillis() - start;
             System.out.println("[HomePage] Login screen ready (ms): " + elapsed);
@@ -71,19 +65,33 @@ public class HomePage extends BasePage {
         }
     }
 
+    /**
+     * Login through to the JLG tile under {@code deadline}: every wait is cut to the remaining budget
+     * and the first one after it runs out fails with the budget report.
+     */
+    public void loginAndOpenJLG(String userId, String password, FlowDeadline deadline) {
+        within(deadline, "login", () -> {
+            if (!waitForLoginScreenReady()) {
+                deadline.failIfExpired("login screen");
+                System.err.println("[HomePage] Login screen did not become ready within wait; proceeding with attempts for debugging.");
+            }
+            enterUserId(userId);
+            enterPassword(password);
+            clickSignInButton();
+            waitForJLGVisible();
+            clickJLG();
+            return null;
+        });
+    }
+
     public void waitForJLGVisible() {
-        new WebDriverWait(driver, ELEMENT_WAIT)
-            .pollingEvery(POLL_INTERVAL)
-            .ignoring(NoSuchElementException.class)
-            .until(ExpectedConditions.visibilityOfElementLocated(JLG_LOCATOR));
+        waits.untilStep("home.jlgVisible", ELEMENT_WAIT, ExpectedConditions.visibilityOfElementLocated(JLG_LOCATOR));
     }
 
     public void clickJLG() {
         try {
-            WebElement jlg = new WebDriverWait(driver, ELEMENT_WAIT)
-                .pollingEvery(POLL_INTERVAL)
-                .ignoring(NoSuchElementException.class)
-                .until(ExpectedConditions.elementToBeClickable(JLG_LOCATOR));
+            WebElement jlg = waits.untilStep("home.jlgClickable", ELEMENT_WAIT,
+                ExpectedConditions.elementToBeClickable(JLG_LOCATOR));
             jlg.click();
         } catch (Exception e) {
             captureDebugArtifacts("jlg_click_failed");
@@ -92,20 +100,16 @@ public class HomePage extends BasePage {
     }
 
     public void enterUserId(String userId) {
-        WebElement userField = new WebDriverWait(driver, ELEMENT_WAIT)
-            .pollingEvery(POLL_INTERVAL)
-            .ignoring(NoSuchElementException.class)
-            .until(ExpectedConditions.visibilityOfElementLocated(USER_ID_LOCATOR));
+        WebElement userField = waits.untilStep("login.userId", ELEMENT_WAIT,
+            ExpectedConditions.visibilityOfElementLocated(USER_ID_LOCATOR));
 
         userField.clear();
         userField.sendKeys(userId);
     }
 
     public void enterPassword(String password) {
-        WebElement pwdField = new WebDriverWait(driver, ELEMENT_WAIT)
-            .pollingEvery(POLL_INTERVAL)
-            .ignoring(NoSuchElementException.class)
-            .until(ExpectedConditions.visibilityOfElementLocated(PASSWORD_LOCATOR));
+        WebElement pwdField = waits.untilStep("login.password", ELEMENT_WAIT,
+            ExpectedConditions.visibilityOfElementLocated(PASSWORD_LOCATOR));
 
         pwdField.clear();
         pwdField.sendKeys(password);
@@ -113,16 +117,7 @@ public class HomePage extends BasePage {
 
     public void clickSignInButton() {
         try {
-            WebElement signIn;
-            WebDriverWait shortWait = new WebDriverWait(driver, ELEMENT_WAIT);
-            shortWait.pollingEvery(POLL_INTERVAL).ignoring(NoSuchElementException.class);
-
-            try {
-                signIn = shortWait.until(ExpectedConditions.elementToBeClickable(SIGN_IN_LOCATOR));
-            } catch (TimeoutException te) {
-                signIn = shortWait.until(ExpectedConditions.elementToBeClickable(SIGN_IN_FALLBACK));
-            }
-
+            WebElement signIn = waitForSignIn();
             signIn.click();
         } catch (Exception e) {
             captureDebugArtifacts("click_signin_failed");
@@ -130,13 +125,35 @@ public class HomePage extends BasePage {
         }
     }
 
+    /**
+     * Races the Sign In id against the generic Button fallback under one ELEMENT_WAIT budget;
+     * the fallback is only accepted once half the budget has passed.
+     */
+    private WebElement waitForSignIn() {
+        List<By> candidates = SIGN_IN_CHAIN.ordered();
+        try {
+            LocatorHit hit = new AnyLocatorWait(driver, ELEMENT_WAIT)
+                .pollingEvery(POLL_INTERVAL)
+                .staggeredBy(ELEMENT_WAIT.dividedBy(candidates.size()))
+                .untilClickable(candidates);
+            SIGN_IN_CHAIN.recordHit(hit.getLocator(), candidates, hit.getElapsedMillis());
+            System.out.println("[HomePage] Sign In located via " + hit);
+            return hit.getElement();
+        } catch (RuntimeException e) {
+            SIGN_IN_CHAIN.recordMiss();
+            throw e;
+        }
+    }
+
     private void captureDebugArtifacts(String prefix) {
         try {
             Path dir = Paths.get("target");
             Files.createDirectories(dir);
 
             String ps = prefix + "_pagesource_" + UUID.randomUUID() + ".xml";
-            Files.writeString(dir.resolve(ps), driver.getPageSource(), StandardCharsets.UTF_8);
+            String source = driver.getPageSource();
+            Files.writeString(dir.resolve(ps), source, StandardCharsets.UTF_8);
+            recordScreen(source);
 
             File screenshot = driver.getScreenshotAs(OutputType.FILE);
             String sc = prefix + "_screenshot_" + UUID.randomUUID() + ".png";
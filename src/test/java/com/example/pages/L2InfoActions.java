@@ -5,7 +5,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.openqa.selenium.By;
@@ -16,9 +15,17 @@ import org.openqa.selenium.interactions.Pause;
 import org.openqa.selenium.interactions.PointerInput;
 import org.openqa.selenium.interactions.Sequence;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
+import com.example.flow.Step;
+import com.example.flow.StepCondition;
+import com.example.flow.StepExecutor;
+import com.example.flow.StepGraph;
+import com.example.locators.AppLocators;
 import com.example.locators.L2_Info_Locators;
+import com.example.snapshot.UiSnapshot;
+import com.example.testdata.TestConfig;
+import com.example.waits.CompletionDetector;
+import com.example.waits.FlowDeadline;
 
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.nativekey.AndroidKey;
@@ -32,16 +39,43 @@ public class L2InfoActions extends BasePage {
 
     private static final Duration MEDIUM = Duration.ofSeconds(8);
     private static final Duration LONG = Duration.ofSeconds(60);
+    private static final Duration ALERT_WAIT = Duration.ofSeconds(3);
+    // Former fixed sleeps after each submit, now only upper bounds for completion detection
+    private static final Duration TEXT_SUBMIT_CEILING = Duration.ofSeconds(30);
+    private static final Duration SUBMIT_CEILING = Duration.ofSeconds(15);
+
+    private static final Duration STEP_WAIT = Duration.ofSeconds(12);
+    private static final Duration CLICK_WAIT = Duration.ofSeconds(8);
+
+    private static final StepCondition FRONT_IMAGE_CAPTURED = StepCondition.anyOf(
+        StepCondition.displayed(L2_Info_Locators.FRONT_IMAGE_THUMBNAIL),
+        StepCondition.displayed(L2_Info_Locators.RETAKE_FRONT_IMAGE_TEXT));
+    private static final StepCondition BACK_IMAGE_CAPTURED = StepCondition.anyOf(
+        StepCondition.displayed(L2_Info_Locators.BACK_IMAGE_THUMBNAIL),
+        StepCondition.displayed(L2_Info_Locators.RETAKE_BACK_IMAGE_TEXT));
+
+    // All four dropdowns show their values and both document sides are captured
+    private static final StepCondition L1_FORM_PREFILLED = StepCondition.allOf(
+        StepCondition.displayed(L2_Info_Locators.RELIGION_SELECTED_HINDU),
+        StepCondition.displayed(L2_Info_Locators.EDUCATION_SELECTED_ENGINEERING_GRADUATE),
+        StepCondition.displayed(L2_Info_Locators.RESIDENCE_SELECTED_OWN_HOUSE),
+        StepCondition.displayed(L2_Info_Locators.OWNERSHIP_SELECTED_KATHA),
+        StepCondition.notDisplayed(L2_Info_Locators.CAPTURE_FRONT_IMAGE_TEXT),
+        StepCondition.notDisplayed(L2_Info_Locators.CAPTURE_BACK_IMAGE_TEXT));
+
+    private final CompletionDetector completion;
+    private final StepExecutor steps;
 
     public L2InfoActions(AndroidDriver driver) {
         super(driver);
+        this.completion = new CompletionDetector(driver, waits, AppLocators.Onboarding.PROGRESS_BAR_GENERIC,
+            AppLocators.Onboarding.TOAST_GENERIC, L2_Info_Locators.SUCCESS_MESSAGE);
+        this.steps = new StepExecutor("L2InfoActions", this::captureSnapshot, this::settleUi);
     }
 
     private boolean waitForAnyClickable(By locator, Duration timeout) {
         try {
-            WebDriverWait waitClickable = new WebDriverWait(driver, timeout);
-            waitClickable.pollingEvery(Duration.ofMillis(250));
-            return Boolean.TRUE.equals(waitClickable.until(d -> {
+            return Boolean.TRUE.equals(untilLocator("anyClickable", locator, timeout, d -> {
                 List<WebElement> candidates = d.findElements(locator);
                 for (WebElement candidate : candidates) {
                     if (candidate == null) {
@@ -64,15 +98,13 @@ public class L2InfoActions extends BasePage {
      * @return true when the continuation view was clicked, false if absent or disabled
      */
     public boolean clickContinuationAfterSuccess() {
-        WebDriverWait localWait = new WebDriverWait(driver, MEDIUM);
-        localWait.pollingEvery(Duration.ofMillis(300));
-
         try {
-            localWait.until(ExpectedConditions.visibilityOfElementLocated(L2_Info_Locators.SUCCESS_MESSAGE));
-            WebElement continuation = localWait.until(ExpectedConditions.elementToBeClickable(L2_Info_Locators.POST_SUCCESS_COMPOSE_VIEW));
+            waits.untilStep("l2.successMessage", MEDIUM, ExpectedConditions.visibilityOfElementLocated(L2_Info_Locators.SUCCESS_MESSAGE));
+            WebElement continuation = waits.untilStep("l2.postSuccessComposeView", MEDIUM,
+                ExpectedConditions.elementToBeClickable(L2_Info_Locators.POST_SUCCESS_COMPOSE_VIEW));
             continuation.click();
             System.out.println("[L2InfoActions] Clicked post-success compose view after success message.");
-            tinySleep();
+            settleUi();
             return true;
         } catch (Exception e) {
             System.err.println("[L2InfoActions] Unable to click continuation after success: " + e.getMessage());
@@ -81,14 +113,12 @@ public class L2InfoActions extends BasePage {
     }
 
     public boolean clickContinuationDirectly() {
-        WebDriverWait localWait = new WebDriverWait(driver, MEDIUM);
-        localWait.pollingEvery(Duration.ofMillis(300));
-
         try {
-            WebElement continuation = localWait.until(ExpectedConditions.elementToBeClickable(L2_Info_Locators.POST_SUCCESS_COMPOSE_VIEW));
+            WebElement continuation = waits.untilStep("l2.postSuccessComposeView", MEDIUM,
+                ExpectedConditions.elementToBeClickable(L2_Info_Locators.POST_SUCCESS_COMPOSE_VIEW));
             continuation.click();
             System.out.println("[L2InfoActions] Directly clicked post-success compose view.");
-            tinySleep();
+            settleUi();
             return true;
         } catch (Exception e) {
             System.err.println("[L2InfoActions] Failed to click continuation directly : " + e.getMessage());
@@ -102,10 +132,7 @@ public class L2InfoActions extends BasePage {
      * @return the name of the customer whose card was successfully selected
      */
     public String selectFirstCustomerSkippingAlerts() {
-        WebDriverWait localWait = new WebDriverWait(driver, MEDIUM);
-        localWait.pollingEvery(Duration.ofMillis(300));
-
-        List<WebElement> initialCards = localWait.until(
+        List<WebElement> initialCards = waits.untilStep("l2.customerCards", MEDIUM,
             ExpectedConditions.presenceOfAllElementsLocatedBy(L2_Info_Locators.LISTVIEW_OF_L2));
 
         List<String> discoveredLabels = new ArrayList<>();
@@ -127,18 +154,18 @@ public class L2InfoActions extends BasePage {
             String label = extractPrimaryText(card);
 
             try {
-                localWait.until(ExpectedConditions.elementToBeClickable(card)).click();
+                waits.untilStep("l2.customerCard", MEDIUM, ExpectedConditions.elementToBeClickable(card)).click();
             } catch (Exception e) {
                 System.err.println("[L2InfoActions] Failed to click L2 card index " + index + ": " + e.getMessage());
                 continue;
             }
 
-            tinySleep();
+            settleUi();
 
             if (waitForAlertIfPresent()) {
                 System.out.println("[L2InfoActions] Alert detected for customer card " + (label != null ? label : index));
                 dismissAlertIfPresent();
-                tinySleep();
+                settleUi();
                 continue;
             }
 
@@ -168,10 +195,8 @@ public class L2InfoActions extends BasePage {
     }
 
     private boolean waitForAlertIfPresent() {
-        WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(3));
-        shortWait.pollingEvery(Duration.ofMillis(200));
         try {
-            return Boolean.TRUE.equals(shortWait.until(d ->
+            return Boolean.TRUE.equals(waits.until("l2.alertMessage", ALERT_WAIT, d ->
                 d.findElements(L2_Info_Locators.ALERT_MESSAGE)
                     .stream()
                     .anyMatch(WebElement::isDisplayed)));
@@ -181,11 +206,8 @@ public class L2InfoActions extends BasePage {
     }
 
     private void dismissAlertIfPresent() {
-        WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(3));
-        shortWait.pollingEvery(Duration.ofMillis(200));
-
         try {
-            WebElement okText = shortWait.until(
+            WebElement okText = waits.until("l2.alertOk", ALERT_WAIT,
                 ExpectedConditions.elementToBeClickable(L2_Info_Locators.ALERT_OK_TEXT));
             okText.click();
             return;
@@ -196,7 +218,7 @@ public class L2InfoActions extends BasePage {
         }
 
         try {
-            WebElement dismissButton = shortWait.until(
+            WebElement dismissButton = waits.until("l2.alertDismiss", ALERT_WAIT,
                 ExpectedConditions.elementToBeClickable(L2_Info_Locators.ALERT_DISMISS_BUTTON));
             dismissButton.click();
         } catch (TimeoutException ignored) {
@@ -206,267 +228,331 @@ public class L2InfoActions extends BasePage {
         }
     }
 
+    /**
+     * How the L1 details form ended.
+     */
+    public enum L1Outcome {
+        /** Form filled and acknowledged with the final OKAY; bank details follow. */
+        SUBMITTED,
+        /** Form was already filled; only the final SUBMIT was clicked and bank details do not follow. */
+        PREFILLED,
+        /** A step failed or the flow budget ran out. */
+        FAILED;
+
+        public boolean succeeded() {
+            return this != FAILED;
+        }
+    }
+
+    /**
+     * Runs the L1 details flow (including bank details) under the default
+     * {@code flow.budget.l2details} budget.
+     */
     public boolean fillL2ProspectL1DetailsFlow() {
-        WebDriverWait localWait = new WebDriverWait(driver, Duration.ofSeconds(12));
-        localWait.pollingEvery(Duration.ofMillis(300));
-        try {
-            WebElement l1Card = localWait.until(
-                ExpectedConditions.elementToBeClickable(L2_Info_Locators.PROSPECT_L1_DETAILS_CARD));
-            l1Card.click();
-            tinySleep();
+        return fillL2ProspectL1DetailsFlow(
+            FlowDeadline.start("l2.prospectL1Details", Duration.ofSeconds(TestConfig.FLOW_BUDGET_L2_DETAILS)));
+    }
 
-            WebElement altInput = localWait.until(
-                ExpectedConditions.visibilityOfElementLocated(L2_Info_Locators.ALTERNATE_MOBILE_INPUT));
-            try {
-                altInput.clear();
-            } catch (Exception ignored) {
+    /**
+     * Runs the L1 details flow with every wait and settle delay bounded by {@code deadline}; returns
+     * false as soon as the budget is spent. A form that was already filled ends at the final SUBMIT,
+     * without bank details.
+     */
+    public boolean fillL2ProspectL1DetailsFlow(FlowDeadline deadline) {
+        return within(deadline, "l2.prospectL1Details", () -> {
+            L1Outcome outcome = runL1DetailsForm();
+            if (outcome == L1Outcome.PREFILLED) {
+                System.out.println("[L2InfoActions] Prefilled L1 form submitted; bank details not applicable.");
+                return true;
             }
-            altInput.click();
-            altInput.sendKeys("8105928245");
-            tinySleep();
-            hideKeyboardIfVisible();
+            return outcome == L1Outcome.SUBMITTED && runBankDetailsAfterL1();
+        });
+    }
+
+    /**
+     * The L1 details form up to the final OKAY acknowledgement (or the final SUBMIT of a prefilled
+     * form), without the bank details that follow; for callers that checkpoint the two separately.
+     */
+    public L1Outcome fillL2ProspectL1DetailsOnly(FlowDeadline deadline) {
+        return within(deadline, "l2.prospectL1Details", this::runL1DetailsForm);
+    }
 
-            if (areTargetValuesAlreadyPresent()) {
+    private boolean runBankDetailsAfterL1() {
+        if (!fillBankDetailsAndCaptureProof()) {
+            System.err.println("[L2InfoActions] Bank details workflow failed.");
+            return false;
+        }
+        return true;
+    }
+
+    private L1Outcome runL1DetailsForm() {
+        try {
+            if (!steps.run(l1DetailsOpenSteps()).succeeded()) {
+                return L1Outcome.FAILED;
+            }
+            UiSnapshot snapshot = captureSnapshot();
+            if (snapshot != null && Boolean.TRUE.equals(L1_FORM_PREFILLED.evaluate(snapshot))) {
                 System.out.println("[L2InfoActions] Target values already filled; proceeding directly to final submit.");
-                if (!waitForAnyClickable(L2_Info_Locators.FINAL_SUBMIT_TEXT, LONG)) {
-                    System.err.println("[L2InfoActions] Final SUBMIT button did not become enabled (prefilled path).");
-                    return false;
-                }
-                if (!clickFirstVisible(L2_Info_Locators.FINAL_SUBMIT_TEXT, Duration.ofSeconds(8))) {
-                    System.err.println("[L2InfoActions] Unable to click final SUBMIT button (prefilled path).");
-                    return false;
-                }
-                tinySleep();
-                return true;
+                return steps.run(l1DetailsPrefilledSteps()).succeeded() ? L1Outcome.PREFILLED : L1Outcome.FAILED;
             }
+            return steps.run(l1DetailsFormSteps()).succeeded() ? L1Outcome.SUBMITTED : L1Outcome.FAILED;
+        } catch (Exception e) {
+            System.err.println("[L2InfoActions] L2 Prospect L1 details flow failed: " + e.getMessage());
+            return L1Outcome.FAILED;
+        }
+    }
+
+    private StepGraph l1DetailsOpenSteps() {
+        return StepGraph.named("l2.l1Details.open")
+            .then(Step.of("prospectL1DetailsCard", L2_Info_Locators.PROSPECT_L1_DETAILS_CARD, this::profiledClickStep)
+                .timeout(STEP_WAIT).settle())
+            .then(Step.of("alternateMobileInput", L2_Info_Locators.ALTERNATE_MOBILE_INPUT, this::alternateMobileStep)
+                .timeout(STEP_WAIT));
+    }
 
-            if (!isElementDisplayed(L2_Info_Locators.CURRENT_ADDRESS_YES_TOGGLE, Duration.ofMillis(600))) {
+    /**
+     * A customer whose L1 form was completed on an earlier visit only needs the final SUBMIT, as
+     * before step graphs.
+     */
+    private StepGraph l1DetailsPrefilledSteps() {
+        return StepGraph.named("l2.l1Details.prefilled")
+            .then(Step.of("finalSubmit", L2_Info_Locators.FINAL_SUBMIT_TEXT, submitStep(null, null))
+                .timeout(LONG).settle());
+    }
+
+    /**
+     * The form after the alternate mobile number: address toggle, the four dropdowns, document
+     * capture and the submit chain up to the final OKAY. Dropdowns that already show their values
+     * and document images already captured (a form left part-filled) are answered from a snapshot
+     * instead of being performed. A fully filled form ({@link #L1_FORM_PREFILLED}) takes
+     * {@link #l1DetailsPrefilledSteps()} instead.
+     */
+    private StepGraph l1DetailsFormSteps() {
+        return StepGraph.named("l2.l1Details.form")
+            .then(Step.of("scrollToAddressToggle", null, (step, timeout) -> {
                 for (int i = 0; i < 3; i++) {
                     swipeToCoordinates(490, 390, Duration.ofMillis(350));
-                    tinySleep();
+                    settleUi();
                     if (isElementDisplayed(L2_Info_Locators.CURRENT_ADDRESS_YES_TOGGLE, Duration.ofMillis(400))) {
                         break;
                     }
                 }
-            }
-
-            try {
-                WebElement yesToggle = localWait.until(
-                    ExpectedConditions.elementToBeClickable(L2_Info_Locators.CURRENT_ADDRESS_YES_TOGGLE));
-                yesToggle.click();
-            } catch (Exception e) {
-                System.err.println("[L2InfoActions] Unable to click current address YES toggle: " + e.getMessage());
-            }
-            tinySleep();
-
-            for (int i = 0; i < 2; i++) {
-                swipeToCoordinates(490, 390, Duration.ofMillis(350));
-                if (isElementDisplayed(L2_Info_Locators.RELIGION_SPINNER, Duration.ofMillis(500))) {
-                    break;
-                }
-            }
-
-            try {
-                WebElement religionSpinner = localWait.until(
-                    ExpectedConditions.elementToBeClickable(L2_Info_Locators.RELIGION_SPINNER));
-                religionSpinner.click();
-                WebElement hindu = localWait.until(
-                    ExpectedConditions.elementToBeClickable(L2_Info_Locators.RELIGION_OPTION_HINDU));
-                hindu.click();
-            } catch (Exception e) {
-                System.err.println("[L2InfoActions] Religion selection failed: " + e.getMessage());
-            }
-            tinySleep();
-
-            try {
-                WebElement eduSpinner = localWait.until(
-                    ExpectedConditions.elementToBeClickable(L2_Info_Locators.EDUCATION_SPINNER));
-                eduSpinner.click();
-                WebElement engGrad = localWait.until(
-                    ExpectedConditions.elementToBeClickable(L2_Info_Locators.EDUCATION_OPTION_ENGINEERING_GRADUATE));
-                engGrad.click();
-                String selectedEdu = "";
-                try {
-                    selectedEdu = driver.findElement(L2_Info_Locators.EDUCATION_SPINNER).getText();
-                } catch (Exception ignored) {
-                    selectedEdu = "Engineering Graduate";
+                return true;
+            }).when(StepCondition.notDisplayed(L2_Info_Locators.CURRENT_ADDRESS_YES_TOGGLE)))
+            .then(Step.of("currentAddressYesToggle", L2_Info_Locators.CURRENT_ADDRESS_YES_TOGGLE, this::profiledClickStep)
+                .timeout(STEP_WAIT).optional().settle())
+            .then(Step.of("scrollToReligion", null, (step, timeout) -> {
+                for (int i = 0; i < 2; i++) {
+                    swipeToCoordinates(490, 390, Duration.ofMillis(350));
+                    if (isElementDisplayed(L2_Info_Locators.RELIGION_SPINNER, Duration.ofMillis(500))) {
+                        break;
+                    }
                 }
-                System.out.println("[L2InfoActions] Selected education qualification: " + selectedEdu);
-            } catch (Exception e) {
-                System.err.println("[L2InfoActions] Education selection failed: " + e.getMessage());
-            }
-            tinySleep();
-
-            try {
-                WebElement resSpinner = localWait.until(
-                    ExpectedConditions.elementToBeClickable(L2_Info_Locators.RESIDENCE_SPINNER));
-                resSpinner.click();
-                WebElement ownHouse = localWait.until(
-                    ExpectedConditions.elementToBeClickable(L2_Info_Locators.RESIDENCE_OPTION_OWN_HOUSE));
-                ownHouse.click();
-            } catch (Exception e) {
-                System.err.println("[L2InfoActions] Residence selection failed: " + e.getMessage());
-            }
-            tinySleep();
-
-            swipeToCoordinates(490, 1200, Duration.ofMillis(350));
-
-            try {
-                WebElement ownershipSpinner = localWait.until(
-                    ExpectedConditions.elementToBeClickable(L2_Info_Locators.OWNERSHIP_PROOF_SPINNER));
-                ownershipSpinner.click();
-                WebElement katha = localWait.until(
-                    ExpectedConditions.elementToBeClickable(L2_Info_Locators.OWNERSHIP_OPTION_KATHA));
-                katha.click();
-            } catch (Exception e) {
-                System.err.println("[L2InfoActions] Ownership proof selection failed: " + e.getMessage());
-            }
-            tinySleep();
-
-            try {
-                WebElement docSection = localWait.until(
-                    ExpectedConditions.elementToBeClickable(L2_Info_Locators.DOCUMENT_CAPTURE_SECTION));
-                docSection.click();
-            } catch (Exception e) {
-                System.err.println("[L2InfoActions] Could not click document capture section: " + e.getMessage());
-            }
-            tinySleep();
-
-            if (!clickWhenClickable(L2_Info_Locators.CAPTURE_FRONT_IMAGE_TEXT, Duration.ofSeconds(8))) {
-                System.err.println("[L2InfoActions] Failed to trigger 'Capture Front image'.");
-                return false;
-            }
-            tinySleep();
+                return true;
+            }).settle())
+            // One at a time: later spinners may sit below the fold or render only after religion is chosen
+            .then(dropdown("religionSpinner", L2_Info_Locators.RELIGION_SPINNER, "religionOptionHindu",
+                L2_Info_Locators.RELIGION_OPTION_HINDU, L2_Info_Locators.RELIGION_SELECTED_HINDU))
+            .then(dropdown("educationSpinner", L2_Info_Locators.EDUCATION_SPINNER, "educationOptionEngineeringGraduate",
+                L2_Info_Locators.EDUCATION_OPTION_ENGINEERING_GRADUATE,
+                L2_Info_Locators.EDUCATION_SELECTED_ENGINEERING_GRADUATE))
+            .then(dropdown("residenceSpinner", L2_Info_Locators.RESIDENCE_SPINNER, "residenceOptionOwnHouse",
+                L2_Info_Locators.RESIDENCE_OPTION_OWN_HOUSE, L2_Info_Locators.RESIDENCE_SELECTED_OWN_HOUSE))
+            .then(Step.of("scrollToOwnershipProof", null, (step, timeout) -> {
+                swipeToCoordinates(490, 1200, Duration.ofMillis(350));
+                return true;
+            }))
+            .then(dropdown("ownershipProofSpinner", L2_Info_Locators.OWNERSHIP_PROOF_SPINNER, "ownershipOptionKatha",
+                L2_Info_Locators.OWNERSHIP_OPTION_KATHA, L2_Info_Locators.OWNERSHIP_SELECTED_KATHA))
+            .then(Step.of("documentCaptureSection", L2_Info_Locators.DOCUMENT_CAPTURE_SECTION, this::profiledClickStep)
+                .timeout(STEP_WAIT).optional().settle())
+            // Done only on evidence of the image: a missing capture button may just be a collapsed section
+            .batch(
+                Step.of("captureFrontImage", L2_Info_Locators.CAPTURE_FRONT_IMAGE_TEXT, this::clickStep)
+                    .timeout(CLICK_WAIT).settle().expect(FRONT_IMAGE_CAPTURED),
+                Step.of("captureBackImage", L2_Info_Locators.CAPTURE_BACK_IMAGE_TEXT, this::clickStep)
+                    .timeout(CLICK_WAIT).settle().expect(BACK_IMAGE_CAPTURED))
+            .then(Step.of("textSubmit", L2_Info_Locators.SUBMIT_TEXT_BUTTON,
+                submitStep(L2_Info_Locators.GENERIC_COMPOSE_BUTTON, TEXT_SUBMIT_CEILING)).timeout(LONG))
+            .then(Step.of("composeSubmit", L2_Info_Locators.GENERIC_COMPOSE_BUTTON,
+                submitStep(L2_Info_Locators.FINAL_SUBMIT_TEXT, SUBMIT_CEILING)).timeout(LONG))
+            .then(Step.of("finalSubmit", L2_Info_Locators.FINAL_SUBMIT_TEXT,
+                submitStep(L2_Info_Locators.FINAL_OKAY_TEXT, SUBMIT_CEILING)).timeout(LONG))
+            .then(Step.of("finalOkay", L2_Info_Locators.FINAL_OKAY_TEXT, submitStep(null, null)).timeout(LONG).settle());
+    }
 
-            if (!clickWhenClickable(L2_Info_Locators.CAPTURE_BACK_IMAGE_TEXT, Duration.ofSeconds(8))) {
-                System.err.println("[L2InfoActions] Failed to trigger 'Capture Back image'.");
-                return false;
-            }
-            tinySleep();
+    /**
+     * Opens the dropdown and picks {@code option}. Done once the dropdown shows the value
+     * ({@code selected}), so already-filled dropdowns are not touched; retried once when the value
+     * does not show afterwards. A dropdown that is not there yet is waited for, as before step
+     * graphs; optional, so one that never appears is logged and the form goes on.
+     */
+    private Step dropdown(String name, By spinner, String optionStep, By option, By selected) {
+        return Step.of(name, spinner, (step, timeout) -> {
+            waits.untilStep("l2." + step.getName(), timeout, ExpectedConditions.elementToBeClickable(spinner)).click();
+            waits.untilStep("l2." + optionStep, timeout, ExpectedConditions.elementToBeClickable(option)).click();
+            return true;
+        }).timeout(STEP_WAIT).optional().settle().retries(1)
+            .expect(StepCondition.displayed(selected));
+    }
 
-            if (!waitForAnyClickable(L2_Info_Locators.SUBMIT_TEXT_BUTTON, Duration.ofSeconds(60))) {
-                System.err.println("[L2InfoActions] Submit button (text) did not become enabled.");
-                return false;
-            }
-            if (!clickFirstVisible(L2_Info_Locators.SUBMIT_TEXT_BUTTON, Duration.ofSeconds(8))) {
-                System.err.println("[L2InfoActions] Unable to click Submit button (text).");
-                return false;
-            }
-            sleepSeconds(30);
+    /*
+    -------------------------
+    Step actions
+    ------------------------- */
+    private boolean clickStep(Step step, Duration timeout) {
+        return clickWhenClickable(step.getLocator(), timeout);
+    }
 
-            if (!waitForAnyClickable(L2_Info_Locators.GENERIC_COMPOSE_BUTTON, LONG)) {
-                System.err.println("[L2InfoActions] Compose submit button did not become enabled after text submit.");
-                return false;
-            }
-            if (!clickFirstVisible(L2_Info_Locators.GENERIC_COMPOSE_BUTTON, Duration.ofSeconds(8))) {
-                System.err.println("[L2InfoActions] Failed to click compose submit button.");
-                return false;
-            }
-            sleepSeconds(15);
+    private boolean profiledClickStep(Step step, Duration timeout) {
+        waits.untilStep("l2." + step.getName(), timeout, ExpectedConditions.elementToBeClickable(step.getLocator())).click();
+        return true;
+    }
 
-            if (!waitForAnyClickable(L2_Info_Locators.FINAL_SUBMIT_TEXT, LONG)) {
-                System.err.println("[L2InfoActions] Final SUBMIT button did not become enabled.");
-                return false;
-            }
-            if (!clickFirstVisible(L2_Info_Locators.FINAL_SUBMIT_TEXT, Duration.ofSeconds(8))) {
-                System.err.println("[L2InfoActions] Unable to click final SUBMIT button.");
-                return false;
-            }
-            sleepSeconds(15);
+    private boolean alternateMobileStep(Step step, Duration timeout) {
+        WebElement altInput = waits.untilStep("l2." + step.getName(), timeout,
+            ExpectedConditions.visibilityOfElementLocated(step.getLocator()));
+        try {
+            altInput.clear();
+        } catch (Exception ignored) {
+        }
+        altInput.click();
+        altInput.sendKeys("8105928245");
+        settleUi();
+        hideKeyboardIfVisible();
+        return true;
+    }
 
-            if (!waitForAnyClickable(L2_Info_Locators.FINAL_OKAY_TEXT, LONG)) {
-                System.err.println("[L2InfoActions] Final OKAY acknowledgement did not appear.");
+    /**
+     * Waits for the button to enable, clicks it and, when {@code next} is given, waits for the submit
+     * to complete (at most {@code ceiling}).
+     */
+    private Step.Action submitStep(By next, Duration ceiling) {
+        return (step, timeout) -> {
+            if (!waitForAnyClickable(step.getLocator(), timeout)) {
+                System.err.println("[L2InfoActions] " + step.getName() + " button did not become enabled.");
                 return false;
             }
-            if (!clickFirstVisible(L2_Info_Locators.FINAL_OKAY_TEXT, Duration.ofSeconds(8))) {
-                System.err.println("[L2InfoActions] Unable to click final OKAY acknowledgement.");
+            if (!clickFirstVisible(step.getLocator(), CLICK_WAIT)) {
+                System.err.println("[L2InfoActions] Unable to click " + step.getName() + " button.");
                 return false;
             }
-            tinySleep();
-
-            if (!fillBankDetailsAndCaptureProof()) {
-                System.err.println("[L2InfoActions] Bank details workflow failed.");
-                return false;
+            if (next != null) {
+                completion.awaitCompletion("l2." + step.getName(), next, ceiling);
             }
-
             return true;
-        } catch (Exception e) {
-            System.err.println("[L2InfoActions] L2 Prospect L1 details flow failed: " + e.getMessage());
-            return false;
-        }
+        };
+    }
+
+    public boolean fillBankDetailsAndCaptureProof(FlowDeadline deadline) {
+        return within(deadline, "l2.bankDetails", this::fillBankDetailsAndCaptureProof);
     }
 
     public boolean fillBankDetailsAndCaptureProof() {
         try {
-            if (!clickWhenClickable(L2_Info_Locators.ADD_BANK_ACCOUNT_BUTTON, Duration.ofSeconds(12))) {
-                System.err.println("[L2InfoActions] Add bank account button not clickable.");
-                return false;
-            }
-            tinySleep();
-
-            if (!enterBankAccountNumber()) {
-                return false;
-            }
-
-            if (!enterIfscAndValidateBranch()) {
-                return false;
-            }
-
-            if (!captureBankProofImage()) {
-                return false;
-            }
-
-            return true;
+            return steps.run(bankDetailsSteps()).succeeded();
         } catch (Exception e) {
             System.err.println("[L2InfoActions] Bank details flow threw exception: " + e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Bank account form, proof capture and save. For a customer whose bank details are already on
+     * file, the form fields and the proof images are recognised from snapshots and only the
+     * dismiss-and-save tail runs.
+     */
+    private StepGraph bankDetailsSteps() {
+        return StepGraph.named("l2.bankDetails")
+            .then(Step.of("addBankAccount", L2_Info_Locators.ADD_BANK_ACCOUNT_BUTTON, this::clickStep)
+                .timeout(Duration.ofSeconds(12)).settle()
+                .expect(StepCondition.displayed(L2_Info_Locators.BANK_ACCOUNT_NUMBER_INPUT)))
+            .batch(
+                Step.of("bankAccountNumber", L2_Info_Locators.BANK_ACCOUNT_NUMBER_INPUT,
+                    (step, timeout) -> enterBankAccountNumber())
+                    .expect(StepCondition.textIs(L2_Info_Locators.BANK_ACCOUNT_NUMBER_INPUT, TestConfig.BANK_ACCOUNT_NUMBER)),
+                Step.of("bankIfsc", L2_Info_Locators.BANK_IFSC_INPUT, (step, timeout) -> enterIfscAndValidateBranch())
+                    .expect(StepCondition.allOf(
+                        StepCondition.textIs(L2_Info_Locators.BANK_IFSC_INPUT, TestConfig.BANK_IFSC),
+                        StepCondition.hasText(L2_Info_Locators.BANK_BRANCH_NAME_INPUT),
+                        StepCondition.hasText(L2_Info_Locators.BANK_BRANCH_ADDRESS_INPUT))))
+            .then(Step.of("openBankProof", L2_Info_Locators.BANK_PROOF_IMAGE_TOGGLE, (step, timeout) -> {
+                if (clickWhenClickable(step.getLocator(), timeout)) {
+                    return true;
+                }
+                System.err.println("[L2InfoActions] Unable to open bank proof capture toggle; trying preview dismiss.");
+                return clickWhenClickable(L2_Info_Locators.BANK_PROOF_PREVIEW_DISMISS_BUTTON, Duration.ofSeconds(6));
+            }).settle())
+            // Uploaded proof shows its images and no longer offers Upload; without a capture option there is
+            // nothing to capture. Optional because saveBankProof fails the graph when no proof made it.
+            .then(Step.of("captureBankProof", L2_Info_Locators.BANK_PROOF_COMPOSE_CAPTURE, (step, timeout) -> captureBankProofImages())
+                .optional().settle()
+                .when(StepCondition.displayed(L2_Info_Locators.BANK_PROOF_COMPOSE_CAPTURE))
+                .expect(StepCondition.allOf(
+                    StepCondition.anyOf(
+                        StepCondition.displayed(L2_Info_Locators.BANK_PROOF_IMAGE_1),
+                        StepCondition.displayed(L2_Info_Locators.BANK_PROOF_IMAGE_2)),
+                    StepCondition.notDisplayed(L2_Info_Locators.BANK_PROOF_UPLOAD_BUTTON))))
+            .then(Step.of("acknowledgeUpload", L2_Info_Locators.ALERT_OK_TEXT, this::clickStep).optional()
+                .expect(StepCondition.notDisplayed(L2_Info_Locators.ALERT_OK_TEXT)))
+            .then(Step.of("revealPreviewDismiss", null, (step, timeout) -> {
+                swipeToCoordinates(500, 1400, Duration.ofMillis(350));
+                return true;
+            }).settle())
+            .then(Step.of("dismissPreview", L2_Info_Locators.BANK_PROOF_PREVIEW_DISMISS_BUTTON, this::clickStep)
+                .timeout(Duration.ofSeconds(4)).optional().settle()
+                .expect(StepCondition.notDisplayed(L2_Info_Locators.BANK_PROOF_PREVIEW_DISMISS_BUTTON)))
+            .then(Step.of("closePreview", L2_Info_Locators.BANK_PROOF_PREVIEW_CLOSE_ICON, this::clickStep)
+                .timeout(Duration.ofSeconds(6)).optional().settle()
+                .expect(StepCondition.notDisplayed(L2_Info_Locators.BANK_PROOF_PREVIEW_CLOSE_ICON)))
+            .then(Step.of("saveBankProof", L2_Info_Locators.BANK_PROOF_SAVE_BUTTON,
+                (step, timeout) -> finalizeBankProofSection()));
+    }
+
     private boolean enterBankAccountNumber() {
         try {
-            WebElement accountNumber = new WebDriverWait(driver, Duration.ofSeconds(8))
-                .until(ExpectedConditions.visibilityOfElementLocated(L2_Info_Locators.BANK_ACCOUNT_NUMBER_INPUT));
+            WebElement accountNumber = waits.untilStep("l2.bankAccountNumberInput", MEDIUM,
+                ExpectedConditions.visibilityOfElementLocated(L2_Info_Locators.BANK_ACCOUNT_NUMBER_INPUT));
             accountNumber.click();
             accountNumber.clear();
-            accountNumber.sendKeys("10990200087021");
+            accountNumber.sendKeys(TestConfig.BANK_ACCOUNT_NUMBER);
         } catch (Exception e) {
             System.err.println("[L2InfoActions] Unable to enter primary account number: " + e.getMessage());
             return false;
         }
 
-        tinySleep();
+        settleUi();
 
         try {
-            WebElement reenter = new WebDriverWait(driver, Duration.ofSeconds(8))
-                .until(ExpectedConditions.visibilityOfElementLocated(L2_Info_Locators.BANK_ACCOUNT_REENTER_INPUT));
+            WebElement reenter = waits.untilStep("l2.bankAccountReenterInput", MEDIUM,
+                ExpectedConditions.visibilityOfElementLocated(L2_Info_Locators.BANK_ACCOUNT_REENTER_INPUT));
             reenter.click();
             reenter.clear();
-            reenter.sendKeys("10990200087021");
+            reenter.sendKeys(TestConfig.BANK_ACCOUNT_NUMBER);
         } catch (Exception e) {
             System.err.println("[L2InfoActions] Unable to re-enter account number: " + e.getMessage());
             return false;
         }
 
         hideKeyboardIfVisible();
-        tinySleep();
+        settleUi();
         return true;
     }
 
     private boolean enterIfscAndValidateBranch() {
         try {
-            WebElement ifscInput = new WebDriverWait(driver, Duration.ofSeconds(8))
-                .until(ExpectedConditions.visibilityOfElementLocated(L2_Info_Locators.BANK_IFSC_INPUT));
+            WebElement ifscInput = waits.untilStep("l2.bankIfscInput", MEDIUM,
+                ExpectedConditions.visibilityOfElementLocated(L2_Info_Locators.BANK_IFSC_INPUT));
             ifscInput.click();
             ifscInput.clear();
-            ifscInput.sendKeys("ICIC0002121");
+            ifscInput.sendKeys(TestConfig.BANK_IFSC);
         } catch (Exception e) {
             System.err.println("[L2InfoActions] Unable to enter IFSC: " + e.getMessage());
             return false;
         }
 
         hideKeyboardIfVisible();
-        tinySleep();
+        settleUi();
 
         if (!clickWhenClickable(L2_Info_Locators.BANK_IFSC_SEARCH_BUTTON, Duration.ofSeconds(8))) {
             System.err.println("[L2InfoActions] Unable to click IFSC search button.");
@@ -474,8 +560,8 @@ public class L2InfoActions extends BasePage {
         }
 
         try {
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(12));
-            wait.until(driver1 -> {
+            // safeGetText waits inside this one, so they share its 12 s instead of adding 2 s each per poll
+            waits.until("l2.branchDetails", Duration.ofSeconds(12), d -> {
                 String branch = safeGetText(L2_Info_Locators.BANK_BRANCH_NAME_INPUT, Duration.ofSeconds(2));
                 String address = safeGetText(L2_Info_Locators.BANK_BRANCH_ADDRESS_INPUT, Duration.ofSeconds(2));
                 return !branch.isBlank() && !address.isBlank();
@@ -492,41 +578,16 @@ public class L2InfoActions extends BasePage {
         return true;
     }
 
-    private boolean captureBankProofImage() {
-        if (!clickWhenClickable(L2_Info_Locators.BANK_PROOF_IMAGE_TOGGLE, Duration.ofSeconds(8))) {
-            System.err.println("[L2InfoActions] Unable to open bank proof capture toggle; trying preview dismiss.");
-            if (!clickWhenClickable(L2_Info_Locators.BANK_PROOF_PREVIEW_DISMISS_BUTTON, Duration.ofSeconds(6))) {
-                System.err.println("[L2InfoActions] Preview dismiss button also unavailable; aborting bank proof flow.");
-                return false;
-            }
-        }
-
-        tinySleep();
-
-        if (bankProofImagesAlreadyPresent()) {
-            System.out.println("[L2InfoActions] Existing bank proof images detected; dismissing preview and proceeding to save.");
-            if (!clickWhenClickable(L2_Info_Locators.BANK_PROOF_PREVIEW_DISMISS_BUTTON, Duration.ofSeconds(6))) {
-                System.out.println("[L2InfoActions] Preview dismiss button not clickable; continuing.");
-            }
-            tinySleep();
-            swipeToCoordinates(500, 1400, Duration.ofMillis(350));
-            tinySleep();
-            return finalizeBankProofSection();
-        }
-
+    /**
+     * Two camera shots through the document scanner, then Upload.
+     */
+    private boolean captureBankProofImages() {
         if (!clickFirstVisible(L2_Info_Locators.BANK_PROOF_COMPOSE_CAPTURE, Duration.ofSeconds(8))) {
             System.err.println("[L2InfoActions] Unable to trigger bank proof compose capture option.");
-            if (clickWhenClickable(L2_Info_Locators.BANK_PROOF_PREVIEW_CLOSE_ICON, Duration.ofSeconds(6))) {
-                System.out.println("[L2InfoActions] Compose capture missing; tapped close icon and proceeding to save.");
-                tinySleep();
-                swipeToCoordinates(500, 1400, Duration.ofMillis(350));
-                tinySleep();
-                return finalizeBankProofSection();
-            }
             return false;
         }
 
-        tinySleep();
+        settleUi();
 
         if (!clickWhenClickable(L2_Info_Locators.CAMERA_CAPTURE_BUTTON, Duration.ofSeconds(10))) {
             System.err.println("[L2InfoActions] Unable to click camera capture button for bank proof (first shot).");
@@ -543,14 +604,14 @@ public class L2InfoActions extends BasePage {
             return false;
         }
 
-        tinySleep();
+        settleUi();
 
         if (!clickWhenClickable(L2_Info_Locators.BANK_PROOF_SECOND_CAPTURE_COMPOSE, Duration.ofSeconds(10))) {
             System.err.println("[L2InfoActions] Unable to re-open compose camera icon for second capture.");
             return false;
         }
 
-        tinySleep();
+        settleUi();
 
         if (!clickWhenClickable(L2_Info_Locators.CAMERA_CAPTURE_BUTTON, Duration.ofSeconds(10))) {
             System.err.println("[L2InfoActions] Unable to click camera capture button for bank proof (second shot).");
@@ -567,14 +628,14 @@ public class L2InfoActions extends BasePage {
             return false;
         }
 
-        tinySleep();
+        settleUi();
 
         if (!clickWhenClickable(L2_Info_Locators.BANK_PROOF_UPLOAD_BUTTON, Duration.ofSeconds(12))) {
             System.err.println("[L2InfoActions] Unable to click Upload button after captures.");
             return false;
         }
 
-        tinySleep();
+        settleUi();
 
         boolean successDisplayed = isElementDisplayed(L2_Info_Locators.SUCCESS_MESSAGE, Duration.ofSeconds(6));
         if (successDisplayed) {
@@ -583,17 +644,7 @@ public class L2InfoActions extends BasePage {
             System.out.println("[L2InfoActions] Success message not observed after upload; continuing cautiously.");
         }
 
-        if (!clickWhenClickable(L2_Info_Locators.ALERT_OK_TEXT, Duration.ofSeconds(8))) {
-            System.out.println("[L2InfoActions] OK alert not clickable or not present after bank proof upload.");
-        }
-
-        swipeToCoordinates(500, 1400, Duration.ofMillis(350));
-        if (!clickWhenClickable(L2_Info_Locators.BANK_PROOF_PREVIEW_DISMISS_BUTTON, Duration.ofSeconds(4))) {
-            System.out.println("[L2InfoActions] Preview dismiss button not present post-upload or already handled.");
-        }
-        tinySleep();
-
-        return finalizeBankProofSection();
+        return true;
     }
 
     private boolean finalizeBankProofSection() {
@@ -607,7 +658,7 @@ public class L2InfoActions extends BasePage {
             return false;
         }
 
-        tinySleep();
+        settleUi();
 
         try {
             WebElement detailsCard = driver.findElement(L2_Info_Locators.BANK_ACCOUNT_DETAILS_CARD);
@@ -623,22 +674,9 @@ public class L2InfoActions extends BasePage {
         return true;
     }
 
-    private boolean bankProofImagesAlreadyPresent() {
-        try {
-            boolean firstImageVisible = isElementDisplayed(By.xpath("//android.widget.ImageView[contains(@resource-id,'bank_proof_image_1') or contains(@content-desc,'Bank Proof 1')]"), Duration.ofMillis(600));
-            boolean secondImageVisible = isElementDisplayed(By.xpath("//android.widget.ImageView[contains(@resource-id,'bank_proof_image_2') or contains(@content-desc,'Bank Proof 2')]"), Duration.ofMillis(600));
-            boolean uploadDisabled = !isElementDisplayed(L2_Info_Locators.BANK_PROOF_UPLOAD_BUTTON, Duration.ofMillis(600));
-            return (firstImageVisible || secondImageVisible) && uploadDisabled;
-        } catch (Exception ignored) {
-            return false;
-        }
-    }
-
     private boolean clickFirstVisible(By locator, Duration timeout) {
         try {
-            WebDriverWait w = new WebDriverWait(driver, timeout);
-            w.pollingEvery(Duration.ofMillis(250));
-            return Boolean.TRUE.equals(w.until(d -> {
+            return Boolean.TRUE.equals(waits.until("l2.firstVisible", timeout, d -> {
                 List<WebElement> elements = d.findElements(locator);
                 if (elements.isEmpty()) {
                     return null;
@@ -651,9 +689,8 @@ public class L2InfoActions extends BasePage {
 
                 for (WebElement candidate : ordered) {
                     try {
-                        new WebDriverWait(driver, Duration.ofMillis(800))
-                            .pollingEvery(Duration.ofMillis(150))
-                            .until(ExpectedConditions.visibilityOf(candidate));
+                        // Bounded by what is left of the enclosing firstVisible wait
+                        waits.poll("l2.candidateVisible", Duration.ofMillis(800), ExpectedConditions.visibilityOf(candidate));
                     } catch (Exception ignored) {
                     }
 
@@ -671,9 +708,7 @@ public class L2InfoActions extends BasePage {
 
     private boolean isElementDisplayed(By locator, Duration timeout) {
         try {
-            WebDriverWait w = new WebDriverWait(driver, timeout);
-            w.pollingEvery(Duration.ofMillis(200));
-            return Boolean.TRUE.equals(w.until(d -> {
+            return waits.holds("l2.displayed", timeout, d -> {
                 List<WebElement> els = d.findElements(locator);
                 for (WebElement el : els) {
                     try {
@@ -681,7 +716,7 @@ public class L2InfoActions extends BasePage {
                     } catch (Exception ignored) {}
                 }
                 return false;
-            }));
+            });
         } catch (Exception e) {
             return false;
         }
@@ -689,31 +724,9 @@ public class L2InfoActions extends BasePage {
 
     
 
-    private boolean areTargetValuesAlreadyPresent() {
-        try {
-            String religionValue = safeGetText(L2_Info_Locators.RELIGION_SPINNER, Duration.ofSeconds(2));
-            String educationValue = safeGetText(L2_Info_Locators.EDUCATION_SPINNER, Duration.ofSeconds(2));
-            String residenceValue = safeGetText(L2_Info_Locators.RESIDENCE_SPINNER, Duration.ofSeconds(2));
-            String ownershipValue = safeGetText(L2_Info_Locators.OWNERSHIP_PROOF_SPINNER, Duration.ofSeconds(2));
-
-            boolean captureButtonsHidden = !isElementDisplayed(L2_Info_Locators.CAPTURE_FRONT_IMAGE_TEXT, Duration.ofMillis(500))
-                && !isElementDisplayed(L2_Info_Locators.CAPTURE_BACK_IMAGE_TEXT, Duration.ofMillis(500));
-
-            return textMatches(religionValue, "Hindu")
-                && textMatches(educationValue, "Engineering Graduate")
-                && textMatches(residenceValue, "Own House")
-                && textMatches(ownershipValue, "Katha")
-                && captureButtonsHidden;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
     private String safeGetText(By locator, Duration timeout) {
         try {
-            WebElement element = new WebDriverWait(driver, timeout)
-                .pollingEvery(Duration.ofMillis(250))
-                .until(ExpectedConditions.visibilityOfElementLocated(locator));
+            WebElement element = waits.until("l2.text", timeout, ExpectedConditions.visibilityOfElementLocated(locator));
             String text = element.getText();
             return text != null ? text.trim() : "";
         } catch (Exception ignored) {
@@ -727,13 +740,6 @@ public class L2InfoActions extends BasePage {
         }
     }
 
-    private boolean textMatches(String actual, String expected) {
-        if (actual == null || expected == null) {
-            return false;
-        }
-        return actual.trim().equalsIgnoreCase(expected.trim());
-    }
-
     private void swipeToCoordinates(int endX, int endY, Duration moveDuration) {
         try {
             Dimension size = driver.manage().window().getSize();
@@ -769,20 +775,10 @@ public class L2InfoActions extends BasePage {
                 tap.addAction(new Pause(finger, Duration.ofMillis(140)));
                 tap.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
                 driver.perform(Collections.singletonList(tap));
-                tinySleep();
-
-                try {
-                    new WebDriverWait(driver, Duration.ofMillis(700))
-                        .ignoring(Exception.class)
-                        .until(d -> {
-                            try {
-                                return !isDisplayed(element);
-                            } catch (Exception ex) {
-                                return true;
-                            }
-                        });
-                } catch (Exception ignored) {
-                }
+                settleUi();
+
+                // isDisplayed swallows its own exceptions, so this cannot throw
+                waits.poll("l2.tapDismissed", Duration.ofMillis(700), d -> !isDisplayed(element));
 
                 return true;
             } catch (Exception ignored) {
@@ -836,9 +832,7 @@ public class L2InfoActions extends BasePage {
 
     private boolean clickWhenClickable(By locator, Duration timeout) {
         try {
-            WebElement element = new WebDriverWait(driver, timeout)
-                .pollingEvery(Duration.ofMillis(250))
-                .until(ExpectedConditions.elementToBeClickable(locator));
+            WebElement element = untilLocator("clickable", locator, timeout, ExpectedConditions.elementToBeClickable(locator));
             return clickWithFallbacks(element);
         } catch (Exception e) {
             return false;
@@ -864,9 +858,7 @@ public class L2InfoActions extends BasePage {
     private boolean attemptHideKeyboard() {
         try {
             driver.hideKeyboard();
-            WebDriverWait waitForDismiss = new WebDriverWait(driver, Duration.ofSeconds(2));
-            waitForDismiss.pollingEvery(Duration.ofMillis(200));
-            return Boolean.TRUE.equals(waitForDismiss.until(d -> !isKeyboardCurrentlyShown()));
+            return waits.holds("l2.keyboardHidden", Duration.ofSeconds(2), d -> !isKeyboardCurrentlyShown());
         } catch (Exception e) {
             return false;
         }
@@ -875,7 +867,7 @@ public class L2InfoActions extends BasePage {
     private boolean sendBackKeyToHideKeyboard() {
         try {
             driver.pressKey(new KeyEvent(AndroidKey.BACK));
-            tinySleep();
+            settleUi();
             return !isKeyboardCurrentlyShown();
         } catch (Exception e) {
             return false;
@@ -889,18 +881,4 @@ public class L2InfoActions extends BasePage {
             return false;
         }
     }
-
-    private void sleepSeconds(long seconds) {
-        try {
-            TimeUnit.SECONDS.sleep(seconds);
-        } catch (InterruptedException ignored) {
-        }
-    }
-
-    private void tinySleep() {
-        try {
-            Thread.sleep(250);
-        } catch (InterruptedException ignored) {
-        }
-    }
 }
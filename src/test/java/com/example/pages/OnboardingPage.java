@@ -16,7 +16,6 @@ import java.util.concurrent.ThreadLocalRandom;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.Point;
 import org.openqa.selenium.TimeoutException;
@@ -25,9 +24,16 @@ import org.openqa.selenium.interactions.Pause;
 import org.openqa.selenium.interactions.PointerInput;
 import org.openqa.selenium.interactions.Sequence;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
+import com.example.flow.Step;
+import com.example.flow.StepExecutor;
+import com.example.flow.StepGraph;
 import com.example.locators.AppLocators;
+import com.example.locators.LocatorChain;
+import com.example.waits.AnyLocatorWait;
+import com.example.waits.FlowDeadline;
+import com.example.waits.SettleDetector;
+import com.example.waits.LocatorHit;
 
 import io.appium.java_client.MobileBy;
 import io.appium.java_client.android.AndroidDriver;
@@ -37,6 +43,7 @@ public class OnboardingPage extends BasePage {
     private static final Duration MEDIUM = Duration.ofSeconds(8);
     private static final Duration SHORT = Duration.ofSeconds(4);
     private static final Duration TINY = Duration.ofMillis(300);
+    private static final Duration SWIPE_SETTLE = Duration.ofMillis(350);
     private static final int MAX_SCROLL_ATTEMPTS = 6;
 
     private static final By[] PRIMARY_LOCATORS = {
@@ -57,6 +64,12 @@ public class OnboardingPage extends BasePage {
             AppLocators.Onboarding.RIGHT_ARROW_IMAGE_FUZZY
     };
 
+    // Same entries, reordered across runs by which one actually matched; FIRST_CLICKABLE never moves up
+    private static final LocatorChain PRIMARY_CHAIN = LocatorChain.of("onboarding.primary", PRIMARY_LOCATORS)
+            .pinLast(AppLocators.Onboarding.FIRST_CLICKABLE);
+
+    private static final LocatorChain RIGHT_ARROW_CHAIN = LocatorChain.of("onboarding.rightArrow", RIGHT_ARROW_LOCATORS);
+
     private static final String[] SCROLL_CUES = {
             "Validate",
             "Validate Number",
@@ -64,9 +77,14 @@ public class OnboardingPage extends BasePage {
     };
 
     private By lastUsedLocator = null;
+    private String lastVoterId;
+    private final SettleDetector settle;
+    private final StepExecutor steps;
 
     public OnboardingPage(AndroidDriver driver) {
         super(driver);
+        this.settle = new SettleDetector(driver, waits);
+        this.steps = new StepExecutor("OnboardingPage", this::captureSnapshot, () -> settleUi(TINY));
     }
 
     /*
@@ -74,24 +92,11 @@ public class OnboardingPage extends BasePage {
     Wait helpers
     ------------------------- */
     private WebElement waitVisible(By locator, Duration timeout) {
-        return new WebDriverWait(driver, timeout)
-                .pollingEvery(Duration.ofMillis(300))
-                .ignoring(NoSuchElementException.class)
-                .until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return untilLocator("visible", locator, timeout, ExpectedConditions.visibilityOfElementLocated(locator));
     }
 
     private WebElement waitClickable(By locator, Duration timeout) {
-        return new WebDriverWait(driver, timeout)
-                .pollingEvery(Duration.ofMillis(300))
-                .ignoring(NoSuchElementException.class)
-                .until(ExpectedConditions.elementToBeClickable(locator));
-    }
-
-    private void tinySleep() {
-        try {
-            Thread.sleep(TINY.toMillis());
-        } catch (InterruptedException ignored) {
-        }
+        return untilLocator("clickable", locator, timeout, ExpectedConditions.elementToBeClickable(locator));
     }
 
     private WebElement locateEditTextWithoutAdditionalScroll(By locator) {
@@ -117,7 +122,7 @@ public class OnboardingPage extends BasePage {
             System.err.println("[OnboardingPage] locateEditTextWithoutAdditionalScroll failed for '" + targetLabel + "': " + e.getMessage());
         }
 
-        tinySleep();
+        settleUi(TINY);
         return firstDisplayed(driver.findElements(locator));
     }
 
@@ -125,6 +130,38 @@ public class OnboardingPage extends BasePage {
     -------------------------
     Public flows
     ------------------------- */
+    /**
+     * Customer details, consent, mobile submission and voter-id capture as one bounded flow; waits are
+     * cut to what is left of {@code deadline}. Returns the submitted mobile number.
+     */
+    public String completeOnboardingThroughVoterId(FlowDeadline deadline) {
+        return within(deadline, "onboarding", () -> {
+            if (!openCustomerDetailsScreen()) {
+                deadline.failIfExpired("customer details");
+                throw new IllegalStateException("Onboarding APK did not launch within timeout.");
+            }
+            clickCaptureCustomerConsent();
+            String mobile = enterMobileNumberAndSubmit();
+            System.out.println("[OnboardingPage] Submitted onboarding mobile number: " + mobile);
+            completeVoterIdCaptureFlow();
+            return mobile;
+        });
+    }
+
+    /**
+     * Voter id typed by the last voter-id capture on this page, or null before one ran.
+     */
+    public String getLastVoterId() {
+        return lastVoterId;
+    }
+
+    public void completeVoterIdCaptureFlow(FlowDeadline deadline) {
+        within(deadline, "onboarding.voterIdCapture", () -> {
+            completeVoterIdCaptureFlow();
+            return null;
+        });
+    }
+
     public boolean openCustomerDetailsScreen() {
         try {
             WebElement el = waitVisible(AppLocators.Onboarding.CUSTOMER_DETAILS_TEXT, LONG);
@@ -167,11 +204,8 @@ public class OnboardingPage extends BasePage {
             driver.perform(java.util.Collections.singletonList(swipe1));
             System.out.println(String.format("[OnboardingPage] Performed coordinate scroll #1 to (%d,%d)", end1X, end1Y));
 
-            // brief pause to let UI settle
-            try {
-                Thread.sleep(250);
-            } catch (InterruptedException ignored) {
-            }
+            // let the fling finish before the second swipe
+            settleUi();
 
             // Second swipe: from (startX, startY) -> (end2X, end2Y)
             Sequence swipe2 = new Sequence(finger, 1);
@@ -182,11 +216,7 @@ public class OnboardingPage extends BasePage {
             driver.perform(java.util.Collections.singletonList(swipe2));
             System.out.println(String.format("[OnboardingPage] Performed coordinate scroll #2 to (%d,%d)", end2X, end2Y));
 
-            // tiny settle
-            try {
-                Thread.sleep(350);
-            } catch (InterruptedException ignored) {
-            }
+            settleUi(SWIPE_SETTLE);
 
         } catch (Exception e) {
             System.err.println("[OnboardingPage] Coordinate scroll failed: " + e.getMessage());
@@ -208,79 +238,107 @@ public class OnboardingPage extends BasePage {
     }
 
     public void completeVoterIdCaptureFlow() {
+        StepExecutor.Result result;
         try {
-            // assume permissions already handled at test level; this focuses on capture & document steps
-            // First capture attempt and crop
-            clickWhenClickable(AppLocators.Onboarding.CAMERA_CAPTURE_BUTTON, MEDIUM);
-            clickWhenClickable(AppLocators.Onboarding.CROP_BUTTON, MEDIUM);
-            // Cancel and recapture
-            clickWhenClickable(AppLocators.Onboarding.CAMERA_CANCEL_BUTTON, MEDIUM);
-            clickWhenClickable(AppLocators.Onboarding.CAMERA_CAPTURE_BUTTON, MEDIUM);
-            // Upload recent image
-            clickWhenClickable(AppLocators.Onboarding.UPLOAD_RECENT_IMAGE_TEXT, MEDIUM);
-            // Wait until third Compose button is enabled/visible
-            WebElement composeBtn = waitClickable(AppLocators.Onboarding.COMPOSE_THIRD_BUTTON, LONG);
-            composeBtn.click();
-            // Select document type
-            clickWhenClickable(AppLocators.Onboarding.SELECT_DOCUMENT_SPINNER, MEDIUM);
-            clickWhenClickable(AppLocators.Onboarding.DOCUMENT_FIRST_OPTION, MEDIUM);
-            // Choose "Capture Front image"
-            clickWhenClickable(AppLocators.Onboarding.CAPTURE_FRONT_IMAGE_TEXT, MEDIUM);
-            // Two generic Compose clicks
-            clickWhenClickable(AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, MEDIUM);
-            clickWhenClickable(AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, MEDIUM);
-            // Enter voter id
-            WebElement voterField = waitVisible(AppLocators.Onboarding.VOTER_ID_INPUT, LONG);
-            String voterId = buildRandomVoterId();
-            voterField.click();
-            voterField.clear();
-            voterField.sendKeys(voterId);
-            System.out.println("[OnboardingPage] Entered voter id: " + voterId);
-            clickWithLogging(AppLocators.Onboarding.SUBMIT_SECTION_BUTTON, "Voter details SUBMIT button", MEDIUM, false);
-            WebElement composeSecond = waitUntilEnabledWithLogging(AppLocators.Onboarding.COMPOSE_SECOND_BUTTON, LONG, "Compose button (index 2)");
-            if (composeSecond != null) {
-                clickElementWithLogging(composeSecond, "Compose button (index 2)");
-            }
-            tinySleep();
-
-            // Perform the two specific coordinate swipes you requested and then attempt to scroll-to-field
-            // Interpret the call as: end1=(472,705), end2=(467,893)
-            performCoordinateScroll(472, 705, 467, 893, Duration.ofMillis(450));
-            tinySleep();
-
-            boolean fatherFilled = enterTextWithLogging(AppLocators.Onboarding.SCROLL_EDITTEXT_FIVE, "Father name field", "darshan", false);
-            boolean motherFilled = enterTextWithLogging(AppLocators.Onboarding.SCROLL_EDITTEXT_SIX, "Mother name field", "saroja", false);
-            if (!fatherFilled) {
-                throw new IllegalStateException("Failed to populate father name field");
-            }
-            if (!motherFilled) {
-                throw new IllegalStateException("Failed to populate mother name field");
-            }
-
-            clickWithLogging(AppLocators.Onboarding.SCROLL_RADIO_BUTTON_THREE, "Radio option (view[3])", MEDIUM, true);
-            clickWithLogging(AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, "Compose submit button (1)", MEDIUM, false);
-            clickWithLogging(AppLocators.Onboarding.SCROLL_VIEW2_INNER, "Scroll view[2] inner", MEDIUM, true);
-            clickWithLogging(AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, "Compose submit button (2)", MEDIUM, false);
-            clickWithLogging(AppLocators.Onboarding.COMPOSE_SECOND_BUTTON, "Compose button (index 2) repeat", MEDIUM, false);
-            clickWithLogging(AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, "Compose submit button (3)", MEDIUM, false);
-            clickWithLogging(AppLocators.Onboarding.SCROLL_VIEW3_INNER, "Scroll view[3] inner", MEDIUM, true);
-            clickWithLogging(AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, "Compose submit button (4)", MEDIUM, false);
-            clickWithLogging(AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, "Compose submit button (5)", MEDIUM, false);
-            clickWithLogging(AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, "Compose submit button (6)", MEDIUM, false);
-            clickWithLogging(AppLocators.Onboarding.SCROLL_VIEW4_SECTION, "Scroll view[4] section", MEDIUM, true);
-            clickWithLogging(AppLocators.Onboarding.COMPOSE_NESTED_SECOND_BUTTON, "Compose nested button", MEDIUM, true);
-            clickWithLogging(AppLocators.Onboarding.SCROLL_VIEW7_BUTTON, "Scroll view[7] button", MEDIUM, true);
-
-            if (waitForOptionalVisibility(AppLocators.Onboarding.SUCCESSFULLY_CAPTURED_MESSAGE, Duration.ofSeconds(5))) {
-                System.out.println("[OnboardingPage] Successfully Captured message detected.");
-                clickWithLogging(AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, "Compose button after success message", MEDIUM, false);
-            } else {
-                System.out.println("[OnboardingPage] Successfully Captured message not shown; proceeding without extra click.");
-            }
+            result = steps.run(voterIdCaptureSteps());
         } catch (Exception e) {
             captureDebugArtifacts("voter_id_capture_flow_failure");
             throw new IllegalStateException("Failed during voter-id capture flow", e);
         }
+        if (!result.succeeded()) {
+            captureDebugArtifacts("voter_id_capture_flow_failure");
+            throw new IllegalStateException("Failed during voter-id capture flow at step '"
+                + result.getFailedStep().getName() + "'");
+        }
+    }
+
+    /**
+     * Capture, document and parent-details screens of the voter-id flow; permissions are assumed to be
+     * handled at test level. Taps the old flow only logged on failure are optional steps.
+     */
+    private StepGraph voterIdCaptureSteps() {
+        return StepGraph.named("onboarding.voterIdCapture")
+            // First capture attempt and crop, then cancel and recapture
+            .then(Step.of("cameraCapture", AppLocators.Onboarding.CAMERA_CAPTURE_BUTTON, this::clickStep))
+            .then(Step.of("crop", AppLocators.Onboarding.CROP_BUTTON, this::clickStep))
+            .then(Step.of("cameraCancel", AppLocators.Onboarding.CAMERA_CANCEL_BUTTON, this::clickStep))
+            .then(Step.of("cameraRecapture", AppLocators.Onboarding.CAMERA_CAPTURE_BUTTON, this::clickStep))
+            .then(Step.of("uploadRecentImage", AppLocators.Onboarding.UPLOAD_RECENT_IMAGE_TEXT, this::clickStep))
+            .then(Step.of("composeThird", AppLocators.Onboarding.COMPOSE_THIRD_BUTTON, this::clickStep).timeout(LONG))
+            // Document type, front image, two generic Compose clicks
+            .then(Step.of("documentSpinner", AppLocators.Onboarding.SELECT_DOCUMENT_SPINNER, this::clickStep))
+            .then(Step.of("documentFirstOption", AppLocators.Onboarding.DOCUMENT_FIRST_OPTION, this::clickStep))
+            .then(Step.of("captureFrontImage", AppLocators.Onboarding.CAPTURE_FRONT_IMAGE_TEXT, this::clickStep))
+            .then(Step.of("composeGeneric1", AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, this::clickStep))
+            .then(Step.of("composeGeneric2", AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, this::clickStep))
+            .then(Step.of("voterId", AppLocators.Onboarding.VOTER_ID_INPUT, this::enterVoterIdStep).timeout(LONG))
+            .then(Step.of("voterDetailsSubmit", AppLocators.Onboarding.SUBMIT_SECTION_BUTTON, tapStep(false)).optional())
+            .then(Step.of("composeSecond", AppLocators.Onboarding.COMPOSE_SECOND_BUTTON, this::clickWhenEnabledStep)
+                .timeout(LONG).optional().settle())
+            // The two coordinate swipes that bring the parent-name fields into view
+            .then(Step.of("scrollToParentNames", null, (step, timeout) -> {
+                performCoordinateScroll(472, 705, 467, 893, Duration.ofMillis(450));
+                return true;
+            }).settle())
+            .then(Step.of("fatherName", AppLocators.Onboarding.SCROLL_EDITTEXT_FIVE, typeStep("darshan")))
+            .then(Step.of("motherName", AppLocators.Onboarding.SCROLL_EDITTEXT_SIX, typeStep("saroja")))
+            .then(Step.of("radioOption3", AppLocators.Onboarding.SCROLL_RADIO_BUTTON_THREE, tapStep(true)).optional())
+            .then(Step.of("composeSubmit1", AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, tapStep(false)).optional())
+            .then(Step.of("scrollView2Inner", AppLocators.Onboarding.SCROLL_VIEW2_INNER, tapStep(true)).optional())
+            .then(Step.of("composeSubmit2", AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, tapStep(false)).optional())
+            .then(Step.of("composeSecondRepeat", AppLocators.Onboarding.COMPOSE_SECOND_BUTTON, tapStep(false)).optional())
+            .then(Step.of("composeSubmit3", AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, tapStep(false)).optional())
+            .then(Step.of("scrollView3Inner", AppLocators.Onboarding.SCROLL_VIEW3_INNER, tapStep(true)).optional())
+            .then(Step.of("composeSubmit4", AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, tapStep(false)).optional())
+            .then(Step.of("composeSubmit5", AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, tapStep(false)).optional())
+            .then(Step.of("composeSubmit6", AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, tapStep(false)).optional())
+            .then(Step.of("scrollView4Section", AppLocators.Onboarding.SCROLL_VIEW4_SECTION, tapStep(true)).optional())
+            .then(Step.of("composeNestedSecond", AppLocators.Onboarding.COMPOSE_NESTED_SECOND_BUTTON, tapStep(true)).optional())
+            .then(Step.of("scrollView7Button", AppLocators.Onboarding.SCROLL_VIEW7_BUTTON, tapStep(true)).optional())
+            .then(Step.of("continueAfterCaptured", AppLocators.Onboarding.COMPOSE_GENERIC_BUTTON, this::continueAfterCapturedStep)
+                .optional());
+    }
+
+    /*
+    -------------------------
+    Step actions
+    ------------------------- */
+    private boolean clickStep(Step step, Duration timeout) {
+        clickWhenClickable(step.getLocator(), timeout);
+        return true;
+    }
+
+    private Step.Action tapStep(boolean attemptScroll) {
+        return (step, timeout) -> clickWithLogging(step.getLocator(), step.getName(), timeout, attemptScroll);
+    }
+
+    private boolean clickWhenEnabledStep(Step step, Duration timeout) {
+        WebElement element = waitUntilEnabledWithLogging(step.getLocator(), timeout, step.getName());
+        return clickElementWithLogging(element, step.getName());
+    }
+
+    private Step.Action typeStep(String value) {
+        return (step, timeout) -> enterTextWithLogging(step.getLocator(), step.getName(), value, false);
+    }
+
+    private boolean enterVoterIdStep(Step step, Duration timeout) {
+        WebElement voterField = waitVisible(step.getLocator(), timeout);
+        String voterId = buildRandomVoterId();
+        voterField.click();
+        voterField.clear();
+        voterField.sendKeys(voterId);
+        lastVoterId = voterId;
+        System.out.println("[OnboardingPage] Entered voter id: " + voterId);
+        return true;
+    }
+
+    private boolean continueAfterCapturedStep(Step step, Duration timeout) {
+        if (!waitForOptionalVisibility(AppLocators.Onboarding.SUCCESSFULLY_CAPTURED_MESSAGE, Duration.ofSeconds(5))) {
+            System.out.println("[OnboardingPage] Successfully Captured message not shown; proceeding without extra click.");
+            return true;
+        }
+        System.out.println("[OnboardingPage] Successfully Captured message detected.");
+        return clickWithLogging(step.getLocator(), step.getName(), timeout, false);
     }
 
     @SuppressWarnings("deprecation")
@@ -295,7 +353,7 @@ public class OnboardingPage extends BasePage {
             input.sendKeys(mobile);
             ensureValueRetained(input);
             hideKeyboardIfVisible();
-            tinySleep();
+            settleUi(TINY);
             clickPrimaryButtonOrThrow();
             if (!clickRightArrowIfPresent()) {
                 System.out.println("[OnboardingPage] Right arrow not available after Validate Number; continuing.");
@@ -334,30 +392,18 @@ public class OnboardingPage extends BasePage {
 
     private WebElement locatePrimaryButton() {
         lastUsedLocator = null;
-        // 1) Try direct locators
-        for (By loc : PRIMARY_LOCATORS) {
-            try {
-                WebElement e = waitClickable(loc, MEDIUM);
-                if (e != null) {
-                    lastUsedLocator = loc;
-                    return e;
-                }
-            } catch (Exception ignored) {
-            }
+        // 1) Race all locators under one budget; generic entries are held back by the stagger
+        LocatorHit hit = raceClickable(PRIMARY_CHAIN, MEDIUM);
+        if (hit != null) {
+            return hit.getElement();
         }
 
         // 2) Try scrolling cues and re-check locators
         for (String cue : SCROLL_CUES) {
             if (scrollIntoView(cue)) {
-                for (By loc : PRIMARY_LOCATORS) {
-                    try {
-                        WebElement e = waitClickable(loc, SHORT);
-                        if (e != null) {
-                            lastUsedLocator = loc;
-                            return e;
-                        }
-                    } catch (Exception ignored) {
-                    }
+                hit = raceClickable(PRIMARY_CHAIN, SHORT);
+                if (hit != null) {
+                    return hit.getElement();
                 }
             }
         }
@@ -372,9 +418,26 @@ public class OnboardingPage extends BasePage {
         return null;
     }
 
+    private LocatorHit raceClickable(LocatorChain chain, Duration budget) {
+        List<By> candidates = chain.ordered();
+        try {
+            LocatorHit hit = new AnyLocatorWait(driver, budget)
+                    .pollingEvery(Duration.ofMillis(300))
+                    .staggeredBy(budget.dividedBy(candidates.size()))
+                    .untilClickable(candidates);
+            lastUsedLocator = hit.getLocator();
+            chain.recordHit(hit.getLocator(), candidates, hit.getElapsedMillis());
+            System.out.println("[OnboardingPage] Primary button located via " + hit);
+            return hit;
+        } catch (TimeoutException e) {
+            chain.recordMiss();
+            return null;
+        }
+    }
+
     public boolean clickRightArrowIfPresent() {
         hideKeyboardIfVisible();
-        tinySleep();
+        settleUi(TINY);
         WebElement arrow = locateRightArrowElement();
         if (arrow == null && scrollIntoView("Right Arrow")) {
             arrow = locateRightArrowElement();
@@ -383,7 +446,6 @@ public class OnboardingPage extends BasePage {
             return false;
         }
         if (clickWithFallbacks(arrow)) {
-            waitPostClick(arrow);
             return true;
         }
         System.err.println("[OnboardingPage] right-arrow click fallbacks failed");
@@ -391,27 +453,25 @@ public class OnboardingPage extends BasePage {
     }
 
     private WebElement locateRightArrowElement() {
-        Duration[] timeouts = {Duration.ofSeconds(7), Duration.ofSeconds(5), Duration.ofSeconds(3)};
-        for (int i = 0; i < RIGHT_ARROW_LOCATORS.length; i++) {
-            try {
-                WebElement element = waitClickable(RIGHT_ARROW_LOCATORS[i], timeouts[i]);
-                if (element != null) {
-                    lastUsedLocator = RIGHT_ARROW_LOCATORS[i];
-                    return element;
-                }
-            } catch (Exception ignored) {
-            }
+        List<By> candidates = RIGHT_ARROW_CHAIN.ordered();
+        try {
+            LocatorHit hit = new AnyLocatorWait(driver, Duration.ofSeconds(7))
+                    .pollingEvery(Duration.ofMillis(300))
+                    .untilClickable(candidates);
+            lastUsedLocator = hit.getLocator();
+            RIGHT_ARROW_CHAIN.recordHit(hit.getLocator(), candidates, hit.getElapsedMillis());
+            System.out.println("[OnboardingPage] Right arrow located via " + hit);
+            return hit.getElement();
+        } catch (TimeoutException ignored) {
+            RIGHT_ARROW_CHAIN.recordMiss();
+            return null;
         }
-        return null;
     }
 
     private boolean waitForOptionalVisibility(By locator, Duration timeout) {
         try {
-            new WebDriverWait(driver, timeout)
-                    .pollingEvery(Duration.ofMillis(300))
-                    .ignoring(NoSuchElementException.class)
-                    .until(ExpectedConditions.visibilityOfElementLocated(locator));
-            return true;
+            return waits.poll("onboarding.optionalVisible", timeout,
+                    ExpectedConditions.visibilityOfElementLocated(locator)) != null;
         } catch (Exception ignored) {
             return false;
         }
@@ -587,20 +647,20 @@ public class OnboardingPage extends BasePage {
     }
 
     private WebElement waitUntilEnabledWithLogging(By locator, Duration timeout, String label) {
-        long deadline = System.currentTimeMillis() + timeout.toMillis();
-        while (System.currentTimeMillis() < deadline) {
+        WebElement enabled = waits.poll("onboarding.enabled", timeout, d -> {
             try {
                 WebElement candidate = firstDisplayed(driver.findElements(locator));
-                if (candidate != null && candidate.isEnabled()) {
-                    System.out.println("[OnboardingPage] " + label + " enabled; proceeding.");
-                    return candidate;
-                }
+                return candidate != null && candidate.isEnabled() ? candidate : null;
             } catch (Exception ignored) {
+                return null;
             }
-            sleepMillis(300);
+        });
+        if (enabled != null) {
+            System.out.println("[OnboardingPage] " + label + " enabled; proceeding.");
+        } else {
+            System.err.println("[OnboardingPage] " + label + " did not enable within timeout.");
         }
-        System.err.println("[OnboardingPage] " + label + " did not enable within timeout.");
-        return null;
+        return enabled;
     }
 
     private boolean clickElementWithLogging(WebElement element, String label) {
@@ -650,13 +710,13 @@ public class OnboardingPage extends BasePage {
             boolean alreadyFocused = focusedAttr != null && focusedAttr.equalsIgnoreCase("true");
             if (!alreadyFocused) {
                 field.click();
-                tinySleep();
+                settleUi(TINY);
             }
 
             field.clear();
             field.sendKeys(value);
             hideKeyboardIfVisible();
-            tinySleep();
+            settleUi(TINY);
             System.out.println("[OnboardingPage] Entered '" + value + "' into " + label + ".");
             logActionResult(label + " text entry", true);
             return true;
@@ -715,7 +775,7 @@ public class OnboardingPage extends BasePage {
                     coordinateFallbackUsed = true;
                 }
             }
-            tinySleep();
+            settleUi(TINY);
         }
         return null;
     }
@@ -758,7 +818,7 @@ public class OnboardingPage extends BasePage {
         int coordinateAttempts = Math.max(1, Math.min(2, maxScrolls));
         for (int i = 0; i < coordinateAttempts; i++) {
             performCoordinateScroll(472, 705, 467, 893, Duration.ofMillis(450));
-            tinySleep();
+            settleUi(TINY);
             WebElement resolved = resolveEditTextCandidate(editLocator, label);
             if (resolved != null) {
                 return resolved;
@@ -812,7 +872,7 @@ public class OnboardingPage extends BasePage {
         tap.addAction(new Pause(finger, Duration.ofMillis(60)));
         tap.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
         driver.perform(java.util.Collections.singletonList(tap));
-        tinySleep();
+        settleUi(TINY);
     }
 
     private WebElement tryUiScrollableForText(String targetText, By editLocator) {
@@ -824,7 +884,7 @@ public class OnboardingPage extends BasePage {
                 "new UiScrollable(new UiSelector().scrollable(true)).scrollIntoView(new UiSelector().textContains(\"%s\"))",
                 targetText);
             driver.findElement(MobileBy.AndroidUIAutomator(ui));
-            tinySleep();
+            settleUi(TINY);
             return firstDisplayed(driver.findElements(editLocator));
         } catch (Exception e) {
             System.err.println("[OnboardingPage] UiScrollable scrollIntoView failed for '" + targetText + "': " + e.getMessage());
@@ -878,13 +938,6 @@ public class OnboardingPage extends BasePage {
         return null;
     }
 
-    private void sleepMillis(long millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException ignored) {
-        }
-    }
-
     private String describeElement(WebElement element) {
         try {
             return String.format("class=%s text='%s'\ndesc='%s' bounds=%s",
@@ -911,7 +964,7 @@ public class OnboardingPage extends BasePage {
     }
 
     private void ensureValueRetained(WebElement input) {
-        new WebDriverWait(driver, SHORT).until(d -> {
+        waits.until("onboarding.valueRetained", SHORT, d -> {
             String value = input.getText();
             return value != null && !value.isBlank();
         });
@@ -932,7 +985,7 @@ public class OnboardingPage extends BasePage {
         try {
             driver.findElement(MobileBy.AndroidUIAutomator(ui));
             // stabilize
-            tinySleep();
+            settleUi(TINY);
             // verify presence of any matching text node
             waitVisible(buildCaseInsensitiveTextLocator(text), SHORT);
             return true;
@@ -950,15 +1003,16 @@ public class OnboardingPage extends BasePage {
     ------------------------- */
     private boolean clickWithFallbacks(WebElement original) {
         hideKeyboardIfVisible();
-        tinySleep();
+        settleUi(TINY);
         // Attempt 1: standard click (try re-finding the element)
         try {
             WebElement current = refreshIfPossible(original);
             if (current == null)
                 current = original;
-            new WebDriverWait(driver, SHORT).until(ExpectedConditions.elementToBeClickable(current));
+            waits.until("onboarding.clickFallback", SHORT, ExpectedConditions.elementToBeClickable(current));
+            SettleDetector.Baseline before = settle.before(current);
             current.click();
-            waitPostClick(current);
+            waitPostClick(current, before);
             return true;
         } catch (Exception e) {
             System.err.println("standard click failed: " + e.getMessage());
@@ -969,8 +1023,9 @@ public class OnboardingPage extends BasePage {
             if (current == null)
                 return false;
             if (driver instanceof JavascriptExecutor) {
+                SettleDetector.Baseline before = settle.before(current);
                 ((JavascriptExecutor) driver).executeScript("arguments[0].click();", current);
-                waitPostClick(current);
+                waitPostClick(current, before);
                 return true;
             }
         } catch (Exception e) {
@@ -991,8 +1046,9 @@ public class OnboardingPage extends BasePage {
             tap.addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
             List<Sequence> actions = new ArrayList<>();
             actions.add(tap);
+            SettleDetector.Baseline before = settle.before(current);
             driver.perform(actions);
-            waitPostClick(current);
+            waitPostClick(current, before);
             return true;
         } catch (Exception e) {
             System.err.println("pointer tap failed: " + e.getMessage());
@@ -1000,16 +1056,12 @@ public class OnboardingPage extends BasePage {
         return false;
     }
 
-    private void waitPostClick(WebElement element) {
-        try {
-            new WebDriverWait(driver, SHORT)
-                    .until(ExpectedConditions.or(
-                            ExpectedConditions.invisibilityOf(element),
-                            ExpectedConditions.stalenessOf(element)
-                    ));
-        } catch (TimeoutException ignored) {
-            // not fatal — continue
-        }
+    /**
+     * Returns on the first sign the click landed (element gone, activity, toast or layout change)
+     * instead of always waiting for the element to vanish; SHORT is only the ceiling.
+     */
+    private void waitPostClick(WebElement element, SettleDetector.Baseline before) {
+        settle.awaitSettle(element, before, SHORT);
     }
 
     private By buildCaseInsensitiveTextLocator(String cue) {
@@ -1023,14 +1075,13 @@ public class OnboardingPage extends BasePage {
         try {
             driver.hideKeyboard();
             // try a brief wait for keyboard to go away
-            new WebDriverWait(driver, SHORT)
-                    .until(d -> {
-                        try {
-                            return !driver.isKeyboardShown();
-                        } catch (Exception ex) {
-                            return true;
-                        }
-                    });
+            waits.poll("onboarding.keyboardHidden", SHORT, d -> {
+                try {
+                    return !driver.isKeyboardShown();
+                } catch (Exception ex) {
+                    return true;
+                }
+            });
         } catch (Exception ignored) {
         }
     }
@@ -1046,7 +1097,9 @@ public class OnboardingPage extends BasePage {
             Path dir = Paths.get("target");
             Files.createDirectories(dir);
             String ps = prefix + "_pagesource_" + UUID.randomUUID() + ".xml";
-            Files.writeString(dir.resolve(ps), driver.getPageSource(), StandardCharsets.UTF_8);
+            String source = driver.getPageSource();
+            Files.writeString(dir.resolve(ps), source, StandardCharsets.UTF_8);
+            recordScreen(source);
             File screenshot = driver.getScreenshotAs(OutputType.FILE);
             String sc = prefix + "_screenshot_" + UUID.randomUUID() + ".png";
             Files.copy(screenshot.toPath(), dir.resolve(sc));
@@ -1,12 +1,17 @@
 package com.example.pages;
 
+import java.time.Duration;
 import java.util.List;
 
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 
 import io.appium.java_client.android.AndroidDriver;
 
 import com.example.locators.AppLocators;
+import com.example.locators.LocatorChain;
+import com.example.snapshot.SnapshotMatch;
+import com.example.snapshot.UiSnapshot;
 
 public class PermissionPage extends BasePage {
     public PermissionPage(AndroidDriver driver) {
@@ -14,6 +19,12 @@ public class PermissionPage extends BasePage {
     }
 
     private static final int MAX_PERMISSIONS = 6;
+    private static final Duration DIALOG_SETTLE = Duration.ofMillis(300);
+
+    // Ids, texts, then the resource-id fallback; reordered by which entry matched on earlier runs
+    private static final LocatorChain ALLOW_BUTTON_CHAIN =
+        LocatorChain.of("permissions.allow", AppLocators.Permissions.ALLOW_BUTTON_CHAIN)
+            .pinLast(AppLocators.Permissions.ALLOW_BUTTON_RESOURCE_CONTAINS);
 
     public void handlePermissions() {
         int dismissed = 0;
@@ -29,10 +40,7 @@ public class PermissionPage extends BasePage {
             try {
                 allowElement.click();
                 dismissed++;
-                Thread.sleep(300);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-                break;
+                settleUi(DIALOG_SETTLE);
             } catch (Exception e) {
                 System.err.println("[PermissionPage] Failed to click permission dialog: " + e.getMessage());
                 break;
@@ -45,22 +53,28 @@ public class PermissionPage extends BasePage {
     }
 
     private WebElement findAllowButton() {
-        for (String id : AppLocators.Permissions.ALLOW_BUTTON_IDS) {
-            WebElement candidate = firstDisplayed(driver.findElements(AppLocators.byId(id)));
-            if (candidate != null) {
-                return candidate;
+        List<By> candidates = ALLOW_BUTTON_CHAIN.ordered();
+        // One page-source fetch decides which locator (if any) matches; only the winner is queried on-device.
+        long snapshotStart = System.currentTimeMillis();
+        UiSnapshot snapshot = captureSnapshot();
+        if (snapshot != null) {
+            SnapshotMatch best = snapshot.firstMatch(candidates);
+            if (best == null) {
+                return null;
             }
+            ALLOW_BUTTON_CHAIN.recordHit(best.getLocator(), candidates, System.currentTimeMillis() - snapshotStart);
+            return firstDisplayed(driver.findElements(best.getLocator()));
         }
 
-        for (String text : AppLocators.Permissions.ALLOW_BUTTON_TEXTS) {
-            WebElement candidate = firstDisplayed(driver.findElements(AppLocators.permissionsButtonByText(text)));
-            if (candidate != null) {
-                return candidate;
+        for (By candidate : candidates) {
+            long start = System.currentTimeMillis();
+            WebElement element = firstDisplayed(driver.findElements(candidate));
+            if (element != null) {
+                ALLOW_BUTTON_CHAIN.recordHit(candidate, candidates, System.currentTimeMillis() - start);
+                return element;
             }
         }
-
-        WebElement fallback = firstDisplayed(driver.findElements(AppLocators.Permissions.ALLOW_BUTTON_RESOURCE_CONTAINS));
-        return fallback;
+        return null;
     }
 
     private WebElement firstDisplayed(List<WebElement> candidates) {
@@ -0,0 +1,486 @@
+package com.example.snapshot;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.openqa.selenium.Rectangle;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * Column-oriented copy of a UiAutomator2 hierarchy for keeping many screens in memory.
+ * Nodes are numbered in document order (the {@code hierarchy} root excluded); string attributes
+ * are ids into a {@link StringPool} (its own, or its {@link SnapshotHistory}'s), bounds live in
+ * four {@code int[]} columns, boolean attributes in one bit mask per node, and tree links are ordinals ({@code -1} for none).
+ * Built with a single StAX pass, without materialising a DOM.
+ */
+public final class CompactHierarchy {
+
+    public static final int CLICKABLE = 1;
+    public static final int ENABLED = 1 << 1;
+    public static final int DISPLAYED = 1 << 2;
+    public static final int FOCUSABLE = 1 << 3;
+    public static final int FOCUSED = 1 << 4;
+    public static final int CHECKABLE = 1 << 5;
+    public static final int CHECKED = 1 << 6;
+    public static final int SELECTED = 1 << 7;
+    public static final int SCROLLABLE = 1 << 8;
+    public static final int LONG_CLICKABLE = 1 << 9;
+    public static final int PASSWORD = 1 << 10;
+
+    private static final XMLInputFactory XML = newInputFactory();
+
+    private final StringPool pool;
+    private final int width;
+    private final int height;
+    private final long capturedAtMillis;
+    private final int size;
+
+    private final int[] parent;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] depth;
+    private final int[] tag;
+    private final int[] text;
+    private final int[] resourceId;
+    private final int[] contentDesc;
+    private final int[] className;
+    private final int[] packageName;
+    private final int[] hint;
+    private final int[] flags;
+    private final int[] left;
+    private final int[] top;
+    private final int[] right;
+    private final int[] bottom;
+
+    private CompactHierarchy(Builder b, int width, int height, long capturedAtMillis) {
+        this.pool = b.pool;
+        this.width = width;
+        this.height = height;
+        this.capturedAtMillis = capturedAtMillis;
+        this.size = b.size;
+        this.parent = Arrays.copyOf(b.parent, size);
+        this.firstChild = Arrays.copyOf(b.firstChild, size);
+        this.nextSibling = Arrays.copyOf(b.nextSibling, size);
+        this.depth = Arrays.copyOf(b.depth, size);
+        this.tag = Arrays.copyOf(b.tag, size);
+        this.text = Arrays.copyOf(b.text, size);
+        this.resourceId = Arrays.copyOf(b.resourceId, size);
+        this.contentDesc = Arrays.copyOf(b.contentDesc, size);
+        this.className = Arrays.copyOf(b.className, size);
+        this.packageName = Arrays.copyOf(b.packageName, size);
+        this.hint = Arrays.copyOf(b.hint, size);
+        this.flags = Arrays.copyOf(b.flags, size);
+        this.left = Arrays.copyOf(b.left, size);
+        this.top = Arrays.copyOf(b.top, size);
+        this.right = Arrays.copyOf(b.right, size);
+        this.bottom = Arrays.copyOf(b.bottom, size);
+    }
+
+    private CompactHierarchy(CompactHierarchy source, StringPool target) {
+        this.pool = target;
+        this.width = source.width;
+        this.height = source.height;
+        this.capturedAtMillis = source.capturedAtMillis;
+        this.size = source.size;
+        this.parent = source.parent;
+        this.firstChild = source.firstChild;
+        this.nextSibling = source.nextSibling;
+        this.depth = source.depth;
+        this.flags = source.flags;
+        this.left = source.left;
+        this.top = source.top;
+        this.right = source.right;
+        this.bottom = source.bottom;
+        this.tag = source.remap(source.tag, target);
+        this.text = source.remap(source.text, target);
+        this.resourceId = source.remap(source.resourceId, target);
+        this.contentDesc = source.remap(source.contentDesc, target);
+        this.className = source.remap(source.className, target);
+        this.packageName = source.remap(source.packageName, target);
+        this.hint = source.remap(source.hint, target);
+    }
+
+    /**
+     * Fetches the page source and converts it; the source string is dropped right after parsing.
+     */
+    public static CompactHierarchy capture(AndroidDriver driver) {
+        return parse(driver.getPageSource());
+    }
+
+    public static CompactHierarchy parse(String pageSource) {
+        if (pageSource == null || pageSource.isBlank()) {
+            throw new IllegalArgumentException("Page source is empty");
+        }
+        return parse(new StringReader(pageSource));
+    }
+
+    public static CompactHierarchy parse(Reader source) {
+        return parse(source, new StringPool());
+    }
+
+    static CompactHierarchy parse(Reader source, StringPool pool) {
+        Builder b = new Builder(pool);
+        int width = 0;
+        int height = 0;
+        int[] stack = new int[64];
+        int[] lastChild = new int[64];
+        int level = 0;
+        XMLStreamReader reader = null;
+        try {
+            reader = XML.createXMLStreamReader(source);
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if (level == 0 && "hierarchy".equals(reader.getLocalName())) {
+                        width = parseInt(reader.getAttributeValue(null, "width"));
+                        height = parseInt(reader.getAttributeValue(null, "height"));
+                        stack[0] = -1;
+                        lastChild[0] = -1;
+                        level = 1;
+                        continue;
+                    }
+                    if (level == 0) {
+                        stack[0] = -1;
+                        lastChild[0] = -1;
+                        level = 1;
+                    }
+                    int node = b.add(reader, stack[level - 1], level - 1);
+                    if (lastChild[level - 1] >= 0) {
+                        b.nextSibling[lastChild[level - 1]] = node;
+                    } else if (stack[level - 1] >= 0) {
+                        b.firstChild[stack[level - 1]] = node;
+                    }
+                    lastChild[level - 1] = node;
+                    if (level == stack.length) {
+                        stack = Arrays.copyOf(stack, level * 2);
+                        lastChild = Arrays.copyOf(lastChild, level * 2);
+                    }
+                    stack[level] = node;
+                    lastChild[level] = -1;
+                    level++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    level = Math.max(0, level - 1);
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Unable to parse page source: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // nothing left to release
+                }
+            }
+        }
+        return new CompactHierarchy(b, width, height, System.currentTimeMillis());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getCapturedAtMillis() {
+        return capturedAtMillis;
+    }
+
+    /**
+     * @return parent ordinal, or -1 for top-level nodes
+     */
+    public int parent(int node) {
+        return parent[node];
+    }
+
+    public int firstChild(int node) {
+        return firstChild[node];
+    }
+
+    public int nextSibling(int node) {
+        return nextSibling[node];
+    }
+
+    public int depth(int node) {
+        return depth[node];
+    }
+
+    public String tag(int node) {
+        return pool.get(tag[node]);
+    }
+
+    public String text(int node) {
+        return pool.get(text[node]);
+    }
+
+    public String resourceId(int node) {
+        return pool.get(resourceId[node]);
+    }
+
+    public String contentDesc(int node) {
+        return pool.get(contentDesc[node]);
+    }
+
+    public String className(int node) {
+        return pool.get(className[node]);
+    }
+
+    public String packageName(int node) {
+        return pool.get(packageName[node]);
+    }
+
+    public String hint(int node) {
+        return pool.get(hint[node]);
+    }
+
+    /**
+     * @param flag one of the bit constants, e.g. {@link #CLICKABLE}
+     */
+    public boolean is(int node, int flag) {
+        return (flags[node] & flag) != 0;
+    }
+
+    int flags(int node) {
+        return flags[node];
+    }
+
+    public Rectangle bounds(int node) {
+        return new Rectangle(left[node], top[node], bottom[node] - top[node], right[node] - left[node]);
+    }
+
+    /**
+     * Structure-and-content hash; equal hierarchies give equal fingerprints, whichever pool holds
+     * their strings.
+     */
+    public long fingerprint() {
+        long h = 1125899906842597L;
+        for (int i = 0; i < size; i++) {
+            h = 31 * h + depth[i];
+            h = 31 * h + pool.get(tag[i]).hashCode();
+            h = 31 * h + pool.get(text[i]).hashCode();
+            h = 31 * h + pool.get(resourceId[i]).hashCode();
+            h = 31 * h + pool.get(contentDesc[i]).hashCode();
+            h = 31 * h + flags[i];
+            h = 31 * h + left[i];
+            h = 31 * h + top[i];
+            h = 31 * h + right[i];
+            h = 31 * h + bottom[i];
+        }
+        return h;
+    }
+
+    /**
+     * Hash of structure, ids, state flags and bounds only. Text and descriptions are left out so a
+     * blinking cursor or ticking label does not keep a screen from counting as idle.
+     */
+    public long layoutFingerprint() {
+        long h = 1125899906842597L;
+        for (int i = 0; i < size; i++) {
+            h = 31 * h + depth[i];
+            h = 31 * h + pool.get(tag[i]).hashCode();
+            h = 31 * h + pool.get(resourceId[i]).hashCode();
+            h = 31 * h + flags[i];
+            h = 31 * h + left[i];
+            h = 31 * h + top[i];
+            h = 31 * h + right[i];
+            h = 31 * h + bottom[i];
+        }
+        return h;
+    }
+
+    /**
+     * Approximate heap footprint of this snapshot's own arrays (its string pool excluded).
+     */
+    public long estimatedBytes() {
+        return 16L * Integer.BYTES * size + 16 * 16;
+    }
+
+    /**
+     * This hierarchy with its strings interned in {@code target}; itself when it already uses it.
+     * Structural columns are shared with the original, which is immutable.
+     */
+    CompactHierarchy inPool(StringPool target) {
+        return target == pool ? this : new CompactHierarchy(this, target);
+    }
+
+    boolean sharesPool(CompactHierarchy other) {
+        return pool == other.pool;
+    }
+
+    private int[] remap(int[] column, StringPool target) {
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = target.intern(pool.get(column[i]));
+        }
+        return ids;
+    }
+
+    int textRef(int node) {
+        return text[node];
+    }
+
+    int contentDescRef(int node) {
+        return contentDesc[node];
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        return factory;
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return value == null ? 0 : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Growable columns filled during the StAX pass.
+     */
+    private static final class Builder {
+        private final StringPool pool;
+        private int size;
+        private int[] parent = new int[256];
+        private int[] firstChild = new int[256];
+        private int[] nextSibling = new int[256];
+        private int[] depth = new int[256];
+        private int[] tag = new int[256];
+        private int[] text = new int[256];
+        private int[] resourceId = new int[256];
+        private int[] contentDesc = new int[256];
+        private int[] className = new int[256];
+        private int[] packageName = new int[256];
+        private int[] hint = new int[256];
+        private int[] flags = new int[256];
+        private int[] left = new int[256];
+        private int[] top = new int[256];
+        private int[] right = new int[256];
+        private int[] bottom = new int[256];
+
+        private Builder(StringPool pool) {
+            this.pool = pool;
+        }
+
+        private int add(XMLStreamReader reader, int parentNode, int nodeDepth) {
+            if (size == parent.length) {
+                grow();
+            }
+            int n = size++;
+            parent[n] = parentNode;
+            firstChild[n] = -1;
+            nextSibling[n] = -1;
+            depth[n] = nodeDepth;
+            tag[n] = pool.intern(reader.getLocalName());
+            int mask = ENABLED | DISPLAYED;
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                String value = reader.getAttributeValue(i);
+                switch (reader.getAttributeLocalName(i)) {
+                    case "text":
+                        text[n] = pool.intern(value);
+                        break;
+                    case "resource-id":
+                        resourceId[n] = pool.intern(value);
+                        break;
+                    case "content-desc":
+                        contentDesc[n] = pool.intern(value);
+                        break;
+                    case "class":
+                        className[n] = pool.intern(value);
+                        break;
+                    case "package":
+                        packageName[n] = pool.intern(value);
+                        break;
+                    case "hint":
+                        hint[n] = pool.intern(value);
+                        break;
+                    case "bounds":
+                        Rectangle r = SnapshotMatch.parseBounds(value);
+                        left[n] = r.getX();
+                        top[n] = r.getY();
+                        right[n] = r.getX() + r.getWidth();
+                        bottom[n] = r.getY() + r.getHeight();
+                        break;
+                    case "clickable":
+                        mask = flag(mask, CLICKABLE, value);
+                        break;
+                    case "enabled":
+                        mask = flag(mask, ENABLED, value);
+                        break;
+                    case "displayed":
+                        mask = flag(mask, DISPLAYED, value);
+                        break;
+                    case "focusable":
+                        mask = flag(mask, FOCUSABLE, value);
+                        break;
+                    case "focused":
+                        mask = flag(mask, FOCUSED, value);
+                        break;
+                    case "checkable":
+                        mask = flag(mask, CHECKABLE, value);
+                        break;
+                    case "checked":
+                        mask = flag(mask, CHECKED, value);
+                        break;
+                    case "selected":
+                        mask = flag(mask, SELECTED, value);
+                        break;
+                    case "scrollable":
+                        mask = flag(mask, SCROLLABLE, value);
+                        break;
+                    case "long-clickable":
+                        mask = flag(mask, LONG_CLICKABLE, value);
+                        break;
+                    case "password":
+                        mask = flag(mask, PASSWORD, value);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            flags[n] = mask;
+            return n;
+        }
+
+        private static int flag(int mask, int bit, String value) {
+            return "true".equalsIgnoreCase(value) ? mask | bit : mask & ~bit;
+        }
+
+        private void grow() {
+            int capacity = parent.length * 2;
+            parent = Arrays.copyOf(parent, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            depth = Arrays.copyOf(depth, capacity);
+            tag = Arrays.copyOf(tag, capacity);
+            text = Arrays.copyOf(text, capacity);
+            resourceId = Arrays.copyOf(resourceId, capacity);
+            contentDesc = Arrays.copyOf(contentDesc, capacity);
+            className = Arrays.copyOf(className, capacity);
+            packageName = Arrays.copyOf(packageName, capacity);
+            hint = Arrays.copyOf(hint, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            left = Arrays.copyOf(left, capacity);
+            top = Arrays.copyOf(top, capacity);
+            right = Arrays.copyOf(right, capacity);
+            bottom = Arrays.copyOf(bottom, capacity);
+        }
+    }
+}
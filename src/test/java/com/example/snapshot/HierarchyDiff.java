@@ -0,0 +1,128 @@
+package com.example.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Node-level difference between two {@link CompactHierarchy} snapshots. Nodes are paired by their
+ * path of {@code class#resource-id} steps (with a per-parent occurrence counter), so a node that
+ * only changed text, bounds or state is reported as changed rather than removed and re-added.
+ */
+public final class HierarchyDiff {
+
+    private final List<String> added;
+    private final List<String> removed;
+    private final List<String> changed;
+
+    private HierarchyDiff(List<String> added, List<String> removed, List<String> changed) {
+        this.added = added;
+        this.removed = removed;
+        this.changed = changed;
+    }
+
+    public static HierarchyDiff between(CompactHierarchy before, CompactHierarchy after) {
+        Map<String, Integer> beforeKeys = keys(before);
+        Map<String, Integer> afterKeys = keys(after);
+        List<String> added = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : afterKeys.entrySet()) {
+            Integer old = beforeKeys.get(entry.getKey());
+            if (old == null) {
+                added.add(label(after, entry.getValue()));
+            } else if (differs(before, old, after, entry.getValue())) {
+                changed.add(label(after, entry.getValue()) + " " + describe(before, old) + " -> " + describe(after, entry.getValue()));
+            }
+        }
+        for (Map.Entry<String, Integer> entry : beforeKeys.entrySet()) {
+            if (!afterKeys.containsKey(entry.getKey())) {
+                removed.add(label(before, entry.getValue()));
+            }
+        }
+        return new HierarchyDiff(
+            Collections.unmodifiableList(added),
+            Collections.unmodifiableList(removed),
+            Collections.unmodifiableList(changed));
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    public List<String> getAdded() {
+        return added;
+    }
+
+    public List<String> getRemoved() {
+        return removed;
+    }
+
+    public List<String> getChanged() {
+        return changed;
+    }
+
+    /**
+     * Counts plus the first {@code limit} entries of each kind, for logs.
+     */
+    public String summary(int limit) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(added.size()).append(" added, ")
+            .append(removed.size()).append(" removed, ")
+            .append(changed.size()).append(" changed");
+        append(sb, "+ ", added, limit);
+        append(sb, "- ", removed, limit);
+        append(sb, "~ ", changed, limit);
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return summary(0);
+    }
+
+    private static void append(StringBuilder sb, String marker, List<String> entries, int limit) {
+        for (int i = 0; i < Math.min(limit, entries.size()); i++) {
+            sb.append(System.lineSeparator()).append("  ").append(marker).append(entries.get(i));
+        }
+    }
+
+    private static Map<String, Integer> keys(CompactHierarchy h) {
+        String[] paths = new String[h.size()];
+        Map<String, Integer> keys = new LinkedHashMap<>(h.size() * 2);
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (int i = 0; i < h.size(); i++) {
+            String step = h.className(i) + "#" + h.resourceId(i);
+            int p = h.parent(i);
+            String prefix = p < 0 ? "" : paths[p];
+            String base = prefix + "/" + step;
+            int n = occurrences.merge(base, 1, Integer::sum);
+            paths[i] = base + "[" + n + "]";
+            keys.put(paths[i], i);
+        }
+        return keys;
+    }
+
+    private static String label(CompactHierarchy h, int node) {
+        String id = h.resourceId(node);
+        String text = h.text(node);
+        return h.className(node) + (id.isEmpty() ? "" : "#" + id) + (text.isEmpty() ? "" : " '" + text + "'");
+    }
+
+    private static boolean differs(CompactHierarchy a, int i, CompactHierarchy b, int j) {
+        boolean sameStrings = a.sharesPool(b)
+            ? a.textRef(i) == b.textRef(j) && a.contentDescRef(i) == b.contentDescRef(j)
+            : a.text(i).equals(b.text(j)) && a.contentDesc(i).equals(b.contentDesc(j));
+        return !sameStrings
+            || a.flags(i) != b.flags(j)
+            || !a.bounds(i).equals(b.bounds(j));
+    }
+
+    private static String describe(CompactHierarchy h, int node) {
+        return "{text='" + h.text(node) + "', desc='" + h.contentDesc(node) + "', flags=" + h.flags(node)
+            + ", bounds=" + h.bounds(node).getX() + "," + h.bounds(node).getY() + "}";
+    }
+}
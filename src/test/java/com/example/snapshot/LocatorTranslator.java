@@ -0,0 +1,72 @@
+package com.example.snapshot;
+
+import org.openqa.selenium.By;
+
+/**
+ * Maps {@link By} strategies onto XPath expressions (or {@link UiSelectorQuery} for
+ * {@code -android uiautomator}) over the UiAutomator2 page source, following the same
+ * attribute mapping the server applies on-device.
+ */
+final class LocatorTranslator {
+
+    private LocatorTranslator() {
+    }
+
+    /**
+     * @return an XPath equivalent of the locator, or null when the strategy has no local equivalent
+     */
+    static String toXPath(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            return null;
+        }
+        By.Remotable.Parameters params = ((By.Remotable) locator).getRemoteParameters();
+        String value = String.valueOf(params.value());
+        switch (params.using()) {
+            case "xpath":
+                return value;
+            case "id":
+                return "//*[@resource-id=" + quote(value) + "]";
+            case "class name":
+                return "//*[@class=" + quote(value) + "]";
+            case "accessibility id":
+                return "//*[@content-desc=" + quote(value) + "]";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return a local evaluator for {@code -android uiautomator} locators, or null when not supported
+     */
+    static UiSelectorQuery toUiSelector(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            return null;
+        }
+        By.Remotable.Parameters params = ((By.Remotable) locator).getRemoteParameters();
+        if (!"-android uiautomator".equals(params.using())) {
+            return null;
+        }
+        return UiSelectorQuery.parse(String.valueOf(params.value()));
+    }
+
+    /**
+     * Quotes a literal for XPath 1.0, falling back to concat() when both quote styles are present.
+     */
+    static String quote(String value) {
+        if (value.indexOf('\'') < 0) {
+            return "'" + value + "'";
+        }
+        if (value.indexOf('"') < 0) {
+            return "\"" + value + "\"";
+        }
+        StringBuilder sb = new StringBuilder("concat(");
+        String[] parts = value.split("'", -1);
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                sb.append(", \"'\", ");
+            }
+            sb.append('\'').append(parts[i]).append('\'');
+        }
+        return sb.append(')').toString();
+    }
+}
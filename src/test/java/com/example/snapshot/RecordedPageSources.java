@@ -0,0 +1,54 @@
+package com.example.snapshot;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Page sources saved by {@code captureDebugArtifacts} as {@code *_pagesource_*.xml}, used for
+ * offline locator checks and benchmarks.
+ */
+public final class RecordedPageSources {
+
+    public static final String GLOB = "*_pagesource_*.xml";
+
+    private RecordedPageSources() {
+    }
+
+    /**
+     * Raw page sources keyed by file name; empty when the directory does not exist.
+     */
+    public static Map<String, String> load(Path dir) {
+        Map<String, String> sources = new LinkedHashMap<>();
+        if (!Files.isDirectory(dir)) {
+            return sources;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, GLOB)) {
+            for (Path file : files) {
+                sources.put(file.getFileName().toString(), Files.readString(file, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read recorded page sources from " + dir, e);
+        }
+        return sources;
+    }
+
+    /**
+     * Parsed snapshots keyed by file name; files that fail to parse are reported and skipped.
+     */
+    public static Map<String, UiSnapshot> parse(Path dir) {
+        Map<String, UiSnapshot> snapshots = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : load(dir).entrySet()) {
+            try {
+                snapshots.put(entry.getKey(), UiSnapshot.parse(entry.getValue()));
+            } catch (IllegalStateException e) {
+                System.err.println("[RecordedPageSources] Skipping " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+        return snapshots;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.snapshot;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * Last snapshot per driver. Each capture still fetches the page source, but when the hierarchy
+ * is unchanged the previous snapshot (with its already built {@link SnapshotIndex}) is returned
+ * instead of being parsed and indexed again. Any change to the source replaces it; with
+ * {@code -Dsnapshot.history.onCapture=true} the new screen is also appended to the driver's
+ * {@link SnapshotHistory} in compact form.
+ *
+ * <p>The cache refers to its driver only weakly, so an abandoned session can still be collected;
+ * {@link #release(AndroidDriver)} drops the entry when the session is quit.
+ */
+public final class SnapshotCache {
+
+    private static final Map<AndroidDriver, SnapshotCache> BY_DRIVER = new WeakHashMap<>();
+
+    private final WeakReference<AndroidDriver> driver;
+    private String lastSource;
+    private UiSnapshot lastSnapshot;
+
+    private SnapshotCache(AndroidDriver driver) {
+        this.driver = new WeakReference<>(driver);
+    }
+
+    public static synchronized SnapshotCache forDriver(AndroidDriver driver) {
+        return BY_DRIVER.computeIfAbsent(driver, SnapshotCache::new);
+    }
+
+    /**
+     * Drops the driver's cached snapshot and its {@link SnapshotHistory}; called when the session is quit.
+     */
+    public static void release(AndroidDriver driver) {
+        synchronized (SnapshotCache.class) {
+            BY_DRIVER.remove(driver);
+        }
+        SnapshotHistory.release(driver);
+    }
+
+    /**
+     * Fetches the page source and returns a snapshot of it, reusing the previous one when the
+     * source is identical. {@link UiSnapshot#getCapturedAtMillis()} therefore reports when the
+     * current screen content was first seen.
+     */
+    public UiSnapshot capture() {
+        AndroidDriver driver = this.driver.get();
+        if (driver == null) {
+            throw new IllegalStateException("Session of this snapshot cache is gone");
+        }
+        String source = driver.getPageSource();
+        synchronized (this) {
+            if (lastSnapshot != null && source != null && source.equals(lastSource)) {
+                return lastSnapshot;
+            }
+        }
+        UiSnapshot snapshot = UiSnapshot.parse(source);
+        if (SnapshotHistory.recordsCaptures()) {
+            SnapshotHistory history = SnapshotHistory.forDriver(driver);
+            if (history.isEnabled()) {
+                history.record(CompactHierarchy.parse(source));
+            }
+        }
+        synchronized (this) {
+            lastSource = source;
+            lastSnapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Last snapshot returned by {@link #capture()}, or null. Does not contact the device.
+     */
+    public synchronized UiSnapshot peek() {
+        return lastSnapshot;
+    }
+
+    public synchronized void invalidate() {
+        lastSource = null;
+        lastSnapshot = null;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.snapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * Bounded ring buffer of the most recent distinct screens seen by one driver, kept as
+ * {@link CompactHierarchy} so dozens of them cost less heap than a single page-source string.
+ * Capacity comes from {@code -Dsnapshot.history.size} (default 32; 0 disables recording).
+ * Screens are recorded where pages call {@link com.example.pages.BasePage}'s {@code recordScreen};
+ * {@code -Dsnapshot.history.onCapture=true} also records every new screen
+ * {@link SnapshotCache} captures, at the cost of a second parse per changed source.
+ *
+ * <p>Entries share one {@link StringPool}. Each time the ring has turned over, the pool is rebuilt
+ * from the entries still held, so strings of evicted screens are released.
+ */
+public final class SnapshotHistory {
+
+    private static final int CAPACITY = Integer.getInteger("snapshot.history.size", 32);
+    private static final boolean ON_CAPTURE = Boolean.getBoolean("snapshot.history.onCapture");
+    private static final Map<AndroidDriver, SnapshotHistory> BY_DRIVER = new WeakHashMap<>();
+
+    private final CompactHierarchy[] ring;
+    private StringPool pool = new StringPool();
+    private int next;
+    private int count;
+    private int evicted;
+
+    SnapshotHistory(int capacity) {
+        this.ring = new CompactHierarchy[Math.max(0, capacity)];
+    }
+
+    public static synchronized SnapshotHistory forDriver(AndroidDriver driver) {
+        return BY_DRIVER.computeIfAbsent(driver, d -> new SnapshotHistory(CAPACITY));
+    }
+
+    static synchronized void release(AndroidDriver driver) {
+        BY_DRIVER.remove(driver);
+    }
+
+    /**
+     * Appends the hierarchy unless it is identical to the latest entry.
+     */
+    public synchronized void record(CompactHierarchy hierarchy) {
+        if (ring.length == 0) {
+            return;
+        }
+        CompactHierarchy last = latest();
+        if (last != null && last.size() == hierarchy.size() && last.fingerprint() == hierarchy.fingerprint()) {
+            return;
+        }
+        if (count == ring.length) {
+            evicted++;
+        }
+        ring[next] = hierarchy.inPool(pool);
+        next = (next + 1) % ring.length;
+        count = Math.min(count + 1, ring.length);
+        if (evicted >= ring.length) {
+            rebuildPool();
+        }
+    }
+
+    /**
+     * Whether {@link SnapshotCache} should record every screen it captures.
+     */
+    static boolean recordsCaptures() {
+        return ON_CAPTURE;
+    }
+
+    private void rebuildPool() {
+        StringPool fresh = new StringPool();
+        for (int i = 0; i < ring.length; i++) {
+            if (ring[i] != null) {
+                ring[i] = ring[i].inPool(fresh);
+            }
+        }
+        pool = fresh;
+        evicted = 0;
+    }
+
+    public synchronized CompactHierarchy latest() {
+        return count == 0 ? null : ring[(next - 1 + ring.length) % ring.length];
+    }
+
+    /**
+     * Entries oldest first.
+     */
+    public synchronized List<CompactHierarchy> entries() {
+        List<CompactHierarchy> list = new ArrayList<>(count);
+        for (int i = count; i > 0; i--) {
+            list.add(ring[(next - i + ring.length) % ring.length]);
+        }
+        return list;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public boolean isEnabled() {
+        return ring.length > 0;
+    }
+
+    /**
+     * Difference between the latest recorded screen and the given one, or null when nothing is recorded yet.
+     */
+    public synchronized HierarchyDiff diffFromLatest(CompactHierarchy current) {
+        CompactHierarchy last = latest();
+        return last == null ? null : HierarchyDiff.between(last, current);
+    }
+
+    public synchronized long estimatedBytes() {
+        long total = 0;
+        for (CompactHierarchy h : entries()) {
+            total += h.estimatedBytes();
+        }
+        return total;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(ring, null);
+        pool = new StringPool();
+        next = 0;
+        count = 0;
+        evicted = 0;
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.snapshot;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.Rectangle;
+import org.w3c.dom.Element;
+
+/**
+ * Attribute index over the nodes of one {@link UiSnapshot}. Every structure is built on first use
+ * and lives as long as the snapshot, so repeated lookups against an unchanged screen skip the DOM walk:
+ * <ul>
+ *   <li>exact matches: attribute value → node set, one hash map per queried attribute;</li>
+ *   <li>{@code contains}: case-folded trigram postings per attribute, candidates verified on the raw value;</li>
+ *   <li>bounds: nodes bucketed by the screen rows they span, for point and rectangle queries.</li>
+ * </ul>
+ * Node sets are {@link BitSet}s over document order, so unions and intersections keep that order.
+ */
+final class SnapshotIndex {
+
+    private static final int ROW_BUCKET_PX = 64;
+
+    private static final Pattern SIMPLE_XPATH = Pattern.compile("^//(\\*|[A-Za-z_][\\w.$]*)(?:\\[(.+)\\])?$");
+    private static final Pattern TERM = Pattern.compile(
+        "\\s*(?:@([\\w-]+)\\s*=\\s*(?:'([^']*)'|\"([^\"]*)\")"
+            + "|contains\\(\\s*@([\\w-]+)\\s*,\\s*(?:'([^']*)'|\"([^\"]*)\")\\s*\\))\\s*");
+    private static final Map<String, Optional<Query>> COMPILED = new ConcurrentHashMap<>();
+
+    private final List<Element> nodes;
+    private final Map<String, Map<String, BitSet>> exact = new HashMap<>();
+    private final Map<String, Map<String, BitSet>> trigrams = new HashMap<>();
+    private Rectangle[] bounds;
+    private List<BitSet> rows;
+
+    SnapshotIndex(List<Element> nodes) {
+        this.nodes = nodes;
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    Element node(int ordinal) {
+        return nodes.get(ordinal);
+    }
+
+    /**
+     * Nodes whose attribute equals the value exactly.
+     */
+    synchronized BitSet equalTo(String attribute, String value) {
+        Map<String, BitSet> byValue = exact.computeIfAbsent(attribute, this::buildExact);
+        BitSet hits = byValue.get(value);
+        return hits == null ? new BitSet() : (BitSet) hits.clone();
+    }
+
+    /**
+     * Nodes whose attribute contains the fragment; case-sensitive unless {@code ignoreCase}.
+     */
+    synchronized BitSet containing(String attribute, String fragment, boolean ignoreCase) {
+        BitSet candidates;
+        String folded = fragment.toLowerCase(Locale.ROOT);
+        if (folded.length() < 3) {
+            candidates = new BitSet(nodes.size());
+            candidates.set(0, nodes.size());
+        } else {
+            Map<String, BitSet> postings = trigrams.computeIfAbsent(attribute, this::buildTrigrams);
+            candidates = null;
+            for (int i = 0; i + 3 <= folded.length(); i++) {
+                BitSet posting = postings.get(folded.substring(i, i + 3));
+                if (posting == null) {
+                    return new BitSet();
+                }
+                if (candidates == null) {
+                    candidates = (BitSet) posting.clone();
+                } else {
+                    candidates.and(posting);
+                }
+            }
+        }
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            String value = nodes.get(i).getAttribute(attribute);
+            boolean hit = ignoreCase
+                ? value.toLowerCase(Locale.ROOT).contains(folded)
+                : value.contains(fragment);
+            if (!hit) {
+                candidates.clear(i);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Nodes whose bounds contain the point, outermost first.
+     */
+    synchronized BitSet at(int x, int y) {
+        buildBounds();
+        BitSet hits = new BitSet();
+        int row = y / ROW_BUCKET_PX;
+        if (y < 0 || row >= rows.size()) {
+            return hits;
+        }
+        BitSet bucket = rows.get(row);
+        for (int i = bucket.nextSetBit(0); i >= 0; i = bucket.nextSetBit(i + 1)) {
+            Rectangle r = bounds[i];
+            if (x >= r.getX() && x < r.getX() + r.getWidth() && y >= r.getY() && y < r.getY() + r.getHeight()) {
+                hits.set(i);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Nodes whose bounds lie entirely inside the area.
+     */
+    synchronized BitSet within(Rectangle area) {
+        buildBounds();
+        BitSet hits = new BitSet();
+        int bottom = area.getY() + area.getHeight();
+        int right = area.getX() + area.getWidth();
+        for (int row = Math.max(0, area.getY()) / ROW_BUCKET_PX; row < rows.size() && row * ROW_BUCKET_PX < bottom; row++) {
+            hits.or(rows.get(row));
+        }
+        for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+            Rectangle r = bounds[i];
+            if (r.getX() < area.getX() || r.getY() < area.getY()
+                || r.getX() + r.getWidth() > right || r.getY() + r.getHeight() > bottom) {
+                hits.clear(i);
+            }
+        }
+        return hits;
+    }
+
+    Rectangle bounds(int ordinal) {
+        synchronized (this) {
+            buildBounds();
+        }
+        return bounds[ordinal];
+    }
+
+    /**
+     * Compiles the simple XPath shapes the index can answer, e.g. {@code //*[@resource-id='x']},
+     * {@code //android.widget.TextView[@text='SUBMIT' or @text='Submit']} or
+     * {@code //android.widget.Button[contains(@content-desc,'Next') and @clickable='true']}.
+     * Mixed {@code and}/{@code or}, empty literals, axes and functions other than contains()
+     * return null and are left to the XPath engine.
+     */
+    static Query compile(String xpath) {
+        return COMPILED.computeIfAbsent(xpath, key -> Optional.ofNullable(parse(key))).orElse(null);
+    }
+
+    private static Query parse(String xpath) {
+        Matcher m = SIMPLE_XPATH.matcher(xpath.trim());
+        if (!m.matches()) {
+            return null;
+        }
+        String tag = "*".equals(m.group(1)) ? null : m.group(1);
+        String predicate = m.group(2);
+        List<Term> terms = new ArrayList<>();
+        Boolean conjunction = null;
+        if (predicate != null) {
+            Matcher t = TERM.matcher(predicate);
+            int pos = 0;
+            while (true) {
+                t.region(pos, predicate.length());
+                if (!t.lookingAt()) {
+                    return null;
+                }
+                Term term = t.group(1) != null
+                    ? new Term(t.group(1), t.group(2) != null ? t.group(2) : t.group(3), false)
+                    : new Term(t.group(4), t.group(5) != null ? t.group(5) : t.group(6), true);
+                if (term.value.isEmpty()) {
+                    return null;
+                }
+                terms.add(term);
+                pos = t.end();
+                if (pos == predicate.length()) {
+                    break;
+                }
+                boolean and = predicate.startsWith("and ", pos);
+                boolean or = predicate.startsWith("or ", pos);
+                if (!and && !or || conjunction != null && conjunction != and) {
+                    return null;
+                }
+                conjunction = and;
+                pos += and ? 4 : 3;
+            }
+        }
+        return new Query(tag, terms, conjunction == null || conjunction);
+    }
+
+    private Map<String, BitSet> buildExact(String attribute) {
+        Map<String, BitSet> byValue = new HashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            Element node = nodes.get(i);
+            if (node.hasAttribute(attribute)) {
+                byValue.computeIfAbsent(node.getAttribute(attribute), k -> new BitSet()).set(i);
+            }
+        }
+        return byValue;
+    }
+
+    private Map<String, BitSet> buildTrigrams(String attribute) {
+        Map<String, BitSet> postings = new HashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            String folded = nodes.get(i).getAttribute(attribute).toLowerCase(Locale.ROOT);
+            for (int j = 0; j + 3 <= folded.length(); j++) {
+                postings.computeIfAbsent(folded.substring(j, j + 3), k -> new BitSet()).set(i);
+            }
+        }
+        return postings;
+    }
+
+    private void buildBounds() {
+        if (bounds != null) {
+            return;
+        }
+        Rectangle[] parsed = new Rectangle[nodes.size()];
+        List<BitSet> buckets = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            Rectangle r = SnapshotMatch.parseBounds(nodes.get(i).getAttribute("bounds"));
+            parsed[i] = r;
+            if (r.getWidth() <= 0 || r.getHeight() <= 0) {
+                continue;
+            }
+            int first = Math.max(0, r.getY()) / ROW_BUCKET_PX;
+            int last = (r.getY() + r.getHeight() - 1) / ROW_BUCKET_PX;
+            while (buckets.size() <= last) {
+                buckets.add(new BitSet());
+            }
+            for (int row = first; row <= last; row++) {
+                buckets.get(row).set(i);
+            }
+        }
+        rows = Collections.unmodifiableList(buckets);
+        bounds = parsed;
+    }
+
+    /**
+     * Tag test plus a flat all-{@code and} or all-{@code or} list of attribute terms.
+     */
+    static final class Query {
+        private final String tag;
+        private final List<Term> terms;
+        private final boolean conjunction;
+
+        private Query(String tag, List<Term> terms, boolean conjunction) {
+            this.tag = tag;
+            this.terms = terms;
+            this.conjunction = conjunction;
+        }
+
+        BitSet select(SnapshotIndex index) {
+            BitSet result = null;
+            for (Term term : terms) {
+                BitSet hits = term.contains
+                    ? index.containing(term.attribute, term.value, false)
+                    : index.equalTo(term.attribute, term.value);
+                if (result == null) {
+                    result = hits;
+                } else if (conjunction) {
+                    result.and(hits);
+                } else {
+                    result.or(hits);
+                }
+            }
+            if (result == null) {
+                result = new BitSet(index.size());
+                result.set(0, index.size());
+            }
+            if (tag != null) {
+                for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+                    if (!tag.equals(index.node(i).getTagName())) {
+                        result.clear(i);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class Term {
+        private final String attribute;
+        private final String value;
+        private final boolean contains;
+
+        private Term(String attribute, String value, boolean contains) {
+            this.attribute = attribute;
+            this.value = value;
+            this.contains = contains;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.snapshot;
+
+import java.util.List;
+
+/**
+ * Locator that is resolved by inspecting a {@link UiSnapshot} rather than by a server-side strategy.
+ * {@link UiSnapshot#findAll(org.openqa.selenium.By)} delegates to it, so such locators work in
+ * snapshot batches and waits like any other.
+ */
+public interface SnapshotLocator {
+
+    /**
+     * Matching nodes, best candidate first.
+     */
+    List<SnapshotMatch> select(UiSnapshot snapshot);
+}
@@ -0,0 +1,111 @@
+package com.example.snapshot;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.w3c.dom.Element;
+
+/**
+ * One node matched by a locator inside a {@link UiSnapshot}, together with the rank of the
+ * locator that produced it and the node's on-screen bounds.
+ */
+public final class SnapshotMatch {
+
+    private static final Pattern BOUNDS = Pattern.compile("\\[(-?\\d+),(-?\\d+)\\]\\[(-?\\d+),(-?\\d+)\\]");
+
+    private final By locator;
+    private final int rank;
+    private final Element node;
+    private final Rectangle bounds;
+
+    SnapshotMatch(By locator, int rank, Element node) {
+        this.locator = locator;
+        this.rank = rank;
+        this.node = node;
+        this.bounds = parseBounds(node.getAttribute("bounds"));
+    }
+
+    /**
+     * Null for matches returned by bounds queries such as {@link UiSnapshot#findAt(int, int)}.
+     */
+    public By getLocator() {
+        return locator;
+    }
+
+    /**
+     * Position of the producing locator in the evaluated batch; lower is preferred.
+     */
+    public int getRank() {
+        return rank;
+    }
+
+    public String attribute(String name) {
+        return node.getAttribute(name);
+    }
+
+    public String getClassName() {
+        return node.getAttribute("class");
+    }
+
+    public String getText() {
+        return node.getAttribute("text");
+    }
+
+    public String getResourceId() {
+        return node.getAttribute("resource-id");
+    }
+
+    public String getContentDesc() {
+        return node.getAttribute("content-desc");
+    }
+
+    public boolean isClickable() {
+        return "true".equalsIgnoreCase(node.getAttribute("clickable"));
+    }
+
+    public boolean isEnabled() {
+        return !"false".equalsIgnoreCase(node.getAttribute("enabled"));
+    }
+
+    /**
+     * Older UiAutomator2 servers omit the attribute; treat absence as displayed.
+     */
+    public boolean isDisplayed() {
+        return !"false".equalsIgnoreCase(node.getAttribute("displayed"));
+    }
+
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+    public Point getCenter() {
+        return new Point(bounds.getX() + bounds.getWidth() / 2, bounds.getY() + bounds.getHeight() / 2);
+    }
+
+    Element getNode() {
+        return node;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s class=%s text='%s' desc='%s' bounds=%s",
+            rank, locator, getClassName(), getText(), getContentDesc(), node.getAttribute("bounds"));
+    }
+
+    static Rectangle parseBounds(String raw) {
+        if (raw != null) {
+            Matcher m = BOUNDS.matcher(raw);
+            if (m.matches()) {
+                int left = Integer.parseInt(m.group(1));
+                int top = Integer.parseInt(m.group(2));
+                int right = Integer.parseInt(m.group(3));
+                int bottom = Integer.parseInt(m.group(4));
+                return new Rectangle(left, top, bottom - top, right - left);
+            }
+        }
+        return new Rectangle(0, 0, 0, 0);
+    }
+}
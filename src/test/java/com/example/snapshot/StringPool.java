@@ -0,0 +1,47 @@
+package com.example.snapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only string table for the {@link CompactHierarchy} snapshots that share it. Class names,
+ * packages, resource ids and most texts repeat across nodes and across snapshots of the same
+ * screen, so each distinct value is stored once and nodes refer to it by id. Id 0 is the empty
+ * string.
+ *
+ * <p>A pool lives as long as its owner: a one-off parse gets its own pool, and a
+ * {@link SnapshotHistory} replaces its pool as ring entries are evicted, so texts of screens no
+ * longer held (OTPs, timers, toasts) are not kept for the whole run.
+ */
+final class StringPool {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    StringPool() {
+        intern("");
+    }
+
+    synchronized int intern(String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            values.add(value);
+            ids.put(value, id);
+        }
+        return id;
+    }
+
+    synchronized String get(int id) {
+        return values.get(id);
+    }
+
+    synchronized int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.w3c.dom.Element;
+
+/**
+ * Local evaluator for {@code -android uiautomator} locators built from plain {@code UiSelector}
+ * chains, e.g. {@code new UiSelector().className("android.widget.EditText").textMatches("(?is).*OTP.*")}.
+ * Several selectors may be separated by {@code ;}; their results are merged in document order.
+ * {@code UiScrollable} and child/parent selectors have no local equivalent and are rejected.
+ */
+final class UiSelectorQuery {
+
+    private static final Pattern CALL = Pattern.compile(
+        "\\.\\s*(\\w+)\\s*\\(\\s*(\"((?:[^\"\\\\]|\\\\.)*)\"|true|false)\\s*\\)");
+
+    private final List<Predicate<Element>> selectors;
+
+    private UiSelectorQuery(List<Predicate<Element>> selectors) {
+        this.selectors = selectors;
+    }
+
+    /**
+     * @return the parsed query, or null when the expression uses anything outside the supported subset
+     */
+    static UiSelectorQuery parse(String expression) {
+        List<Predicate<Element>> selectors = new ArrayList<>();
+        for (String statement : expression.split(";")) {
+            String trimmed = statement.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            Predicate<Element> selector = parseSelector(trimmed);
+            if (selector == null) {
+                return null;
+            }
+            selectors.add(selector);
+        }
+        return selectors.isEmpty() ? null : new UiSelectorQuery(selectors);
+    }
+
+    /**
+     * Elements matched by any selector, in the order they appear in {@code nodes}.
+     */
+    List<Element> select(List<Element> nodes) {
+        List<Element> matched = new ArrayList<>();
+        for (Element node : nodes) {
+            for (Predicate<Element> selector : selectors) {
+                if (selector.test(node)) {
+                    matched.add(node);
+                    break;
+                }
+            }
+        }
+        return matched.isEmpty() ? Collections.emptyList() : matched;
+    }
+
+    private static Predicate<Element> parseSelector(String statement) {
+        String prefix = "new UiSelector()";
+        if (!statement.startsWith(prefix)) {
+            return null;
+        }
+        String rest = statement.substring(prefix.length());
+        Predicate<Element> combined = node -> true;
+        Matcher m = CALL.matcher(rest);
+        int consumed = 0;
+        while (m.find()) {
+            if (!rest.substring(consumed, m.start()).isBlank()) {
+                return null;
+            }
+            String method = m.group(1);
+            String literal = m.group(3);
+            String arg = literal != null ? unescape(literal) : m.group(2);
+            Predicate<Element> clause = clause(method, arg);
+            if (clause == null) {
+                return null;
+            }
+            combined = combined.and(clause);
+            consumed = m.end();
+        }
+        return rest.substring(consumed).isBlank() ? combined : null;
+    }
+
+    private static Predicate<Element> clause(String method, String arg) {
+        switch (method) {
+            case "text":
+                return equalsAttr("text", arg);
+            case "textContains":
+                return node -> node.getAttribute("text").contains(arg);
+            case "textStartsWith":
+                return node -> node.getAttribute("text").startsWith(arg);
+            case "textMatches":
+                return matchesAttr("text", arg);
+            case "description":
+                return equalsAttr("content-desc", arg);
+            case "descriptionContains":
+                return node -> node.getAttribute("content-desc").contains(arg);
+            case "descriptionStartsWith":
+                return node -> node.getAttribute("content-desc").startsWith(arg);
+            case "descriptionMatches":
+                return matchesAttr("content-desc", arg);
+            case "resourceId":
+                return equalsAttr("resource-id", arg);
+            case "resourceIdMatches":
+                return matchesAttr("resource-id", arg);
+            case "className":
+                return equalsAttr("class", arg);
+            case "classNameMatches":
+                return matchesAttr("class", arg);
+            case "packageName":
+                return equalsAttr("package", arg);
+            case "clickable":
+                return booleanAttr("clickable", arg);
+            case "enabled":
+                return booleanAttr("enabled", arg);
+            case "checked":
+                return booleanAttr("checked", arg);
+            case "checkable":
+                return booleanAttr("checkable", arg);
+            case "focusable":
+                return booleanAttr("focusable", arg);
+            case "focused":
+                return booleanAttr("focused", arg);
+            case "scrollable":
+                return booleanAttr("scrollable", arg);
+            case "selected":
+                return booleanAttr("selected", arg);
+            case "longClickable":
+                return booleanAttr("long-clickable", arg);
+            default:
+                return null;
+        }
+    }
+
+    private static Predicate<Element> equalsAttr(String attr, String value) {
+        return node -> node.getAttribute(attr).equals(value);
+    }
+
+    private static Predicate<Element> matchesAttr(String attr, String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        return node -> pattern.matcher(node.getAttribute(attr)).matches();
+    }
+
+    private static Predicate<Element> booleanAttr(String attr, String value) {
+        if (!"true".equals(value) && !"false".equals(value)) {
+            return null;
+        }
+        boolean expected = Boolean.parseBoolean(value);
+        return node -> Boolean.parseBoolean(node.getAttribute(attr)) == expected;
+    }
+
+    private static String unescape(String literal) {
+        StringBuilder sb = new StringBuilder(literal.length());
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c == '\\' && i + 1 < literal.length()) {
+                c = literal.charAt(++i);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.snapshot;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.openqa.selenium.By;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import io.appium.java_client.AppiumBy;
+
+/**
+ * {@link UiSelectorQuery} against its XPath equivalents on page-source fixtures, and the
+ * expressions it refuses to evaluate locally.
+ */
+public class UiSelectorQueryTest {
+
+    private UiSnapshot otp;
+    private UiSnapshot l1Details;
+
+    @BeforeClass
+    public void loadFixtures() throws IOException {
+        otp = fixture("otp");
+        l1Details = fixture("l1_details");
+    }
+
+    @DataProvider
+    public Object[][] equivalents() {
+        return new Object[][] {
+            {"new UiSelector().text(\"SUBMIT\")", "//*[@text='SUBMIT']"},
+            {"new UiSelector().textContains(\"verification\")", "//*[contains(@text,'verification')]"},
+            {"new UiSelector().textStartsWith(\"Resend\")", "//*[starts-with(@text,'Resend')]"},
+            {"new UiSelector().textMatches(\"(?s)(?i:.*otp.*)\")", "//*[contains(translate(@text,'otp','OTP'),'OTP')]"},
+            {"new UiSelector().className(\"android.widget.Button\")", "//android.widget.Button"},
+            {"new UiSelector().classNameMatches(\".*EditText\")", "//android.widget.EditText"},
+            {"new UiSelector().resourceId(\"mifix.io.qa:id/et_otp\")", "//*[@resource-id='mifix.io.qa:id/et_otp']"},
+            {"new UiSelector().resourceIdMatches(\".*btn_.*\")", "//*[contains(@resource-id,'btn_')]"},
+            {"new UiSelector().description(\"OTP input\")", "//*[@content-desc='OTP input']"},
+            {"new UiSelector().descriptionContains(\"OTP\")", "//*[contains(@content-desc,'OTP')]"},
+            {"new UiSelector().className(\"android.widget.Button\").clickable(true)", "//android.widget.Button[@clickable='true']"},
+            {"new UiSelector().className(\"android.widget.TextView\").clickable(false)", "//android.widget.TextView[@clickable='false']"},
+            {"new UiSelector().resourceIdMatches(\".*validate.*\"); new UiSelector().text(\"SUBMIT\")",
+                "//*[contains(@resource-id,'validate') or @text='SUBMIT']"},
+        };
+    }
+
+    @Test(dataProvider = "equivalents")
+    public void selectsTheSameNodesAsXPath(String selector, String xpath) {
+        By uiSelector = AppiumBy.androidUIAutomator(selector);
+        assertFalse(otp.findAll(uiSelector).isEmpty(), selector + " matches nothing in the fixture");
+        assertTrue(otp.matchesSameNodes(uiSelector, By.xpath(xpath)), selector + " vs " + xpath);
+    }
+
+    @Test
+    public void mergesSelectorsInDocumentOrderWithoutDuplicates() {
+        By spinners = AppiumBy.androidUIAutomator("new UiSelector().text(\"Select Ownership Proof\");"
+            + " new UiSelector().className(\"android.widget.Spinner\")");
+        List<SnapshotMatch> matches = l1Details.findAll(spinners);
+        assertEquals(matches.size(), 4);
+        assertEquals(matches.get(0).getText(), "Select Religion");
+        assertEquals(matches.get(3).getText(), "Select Ownership Proof");
+    }
+
+    @DataProvider
+    public Object[][] unsupported() {
+        return new Object[][] {
+            {"new UiScrollable(new UiSelector().scrollable(true)).scrollIntoView(new UiSelector().text(\"Yes\"))"},
+            {"new UiSelector().className(\"android.widget.ScrollView\").childSelector(new UiSelector().text(\"Yes\"))"},
+            {"new UiSelector().instance(2)"},
+            {"new UiSelector().clickable(maybe)"},
+            {"UiSelector().text(\"Yes\")"},
+        };
+    }
+
+    @Test(dataProvider = "unsupported")
+    public void refusesExpressionsOutsideTheSubset(String expression) {
+        assertNull(UiSelectorQuery.parse(expression), expression);
+        assertFalse(UiSnapshot.supports(AppiumBy.androidUIAutomator(expression)), expression);
+    }
+
+    @Test
+    public void parsesEscapedQuotes() {
+        assertNotNull(UiSelectorQuery.parse("new UiSelector().text(\"Say \\\"hi\\\"\")"));
+    }
+
+    private static UiSnapshot fixture(String screen) throws IOException {
+        return UiSnapshot.parse(Files.readString(
+            Paths.get("src/test/resources/pagesources", screen + "_pagesource_fixture.xml"), StandardCharsets.UTF_8));
+    }
+}
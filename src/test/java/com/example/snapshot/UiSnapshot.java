@@ -0,0 +1,325 @@
+package com.example.snapshot;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Rectangle;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * Parsed copy of a single {@code getPageSource()} response.
+ * Locators are evaluated locally against the in-memory tree, so a whole batch of
+ * fallback locators costs one UiAutomator2 round-trip instead of one per locator.
+ * Id, class, accessibility-id and simple attribute XPaths are answered from a lazily built
+ * {@link SnapshotIndex}; everything else goes through the XPath engine.
+ */
+public final class UiSnapshot {
+
+    private static final ThreadLocal<XPath> XPATH = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+    private static final ThreadLocal<Map<String, XPathExpression>> COMPILED = ThreadLocal.withInitial(HashMap::new);
+
+    private final Document document;
+    private final int width;
+    private final int height;
+    private final long capturedAtMillis;
+    private List<Element> elements;
+    private SnapshotIndex index;
+    private Long layoutFingerprint;
+
+    private UiSnapshot(Document document, long capturedAtMillis) {
+        this.document = document;
+        this.capturedAtMillis = capturedAtMillis;
+        Element root = document.getDocumentElement();
+        this.width = parseInt(root.getAttribute("width"));
+        this.height = parseInt(root.getAttribute("height"));
+    }
+
+    /**
+     * Fetches the page source once and parses it.
+     */
+    public static UiSnapshot capture(AndroidDriver driver) {
+        return parse(driver.getPageSource());
+    }
+
+    /**
+     * Parses a page source previously returned by the driver (or saved under {@code target/}).
+     */
+    public static UiSnapshot parse(String pageSource) {
+        if (pageSource == null || pageSource.isBlank()) {
+            throw new IllegalArgumentException("Page source is empty");
+        }
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setNamespaceAware(false);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document doc = builder.parse(new InputSource(new StringReader(pageSource)));
+            return new UiSnapshot(doc, System.currentTimeMillis());
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to parse page source: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns true when the locator strategy can be evaluated locally.
+     */
+    public static boolean supports(By locator) {
+        return locator instanceof SnapshotLocator
+            || LocatorTranslator.toXPath(locator) != null
+            || LocatorTranslator.toUiSelector(locator) != null;
+    }
+
+    /**
+     * All nodes matched by the locator, in document order ({@link SnapshotLocator}s choose their
+     * own order). Unsupported strategies yield an empty list.
+     */
+    public List<SnapshotMatch> findAll(By locator) {
+        return findAll(locator, 0);
+    }
+
+    public boolean isPresent(By locator) {
+        return !findAll(locator).isEmpty();
+    }
+
+    /**
+     * Evaluates every locator of the batch against this snapshot.
+     * Matches are ranked by the locator's position in the batch, then by document order.
+     */
+    public List<SnapshotMatch> evaluate(List<By> locators) {
+        List<SnapshotMatch> ranked = new ArrayList<>();
+        for (int rank = 0; rank < locators.size(); rank++) {
+            ranked.addAll(findAll(locators.get(rank), rank));
+        }
+        return ranked;
+    }
+
+    /**
+     * Highest-ranked match of the batch, or null when nothing matches.
+     */
+    public SnapshotMatch firstMatch(List<By> locators) {
+        for (int rank = 0; rank < locators.size(); rank++) {
+            List<SnapshotMatch> matches = findAll(locators.get(rank), rank);
+            if (!matches.isEmpty()) {
+                return matches.get(0);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Highest-ranked match that is displayed and enabled, mirroring {@code elementToBeClickable}.
+     */
+    public SnapshotMatch firstInteractable(List<By> locators) {
+        for (int rank = 0; rank < locators.size(); rank++) {
+            for (SnapshotMatch match : findAll(locators.get(rank), rank)) {
+                if (match.isDisplayed() && match.isEnabled()) {
+                    return match;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * True when both locators select exactly the same set of nodes in this snapshot.
+     */
+    public boolean matchesSameNodes(By first, By second) {
+        Set<Element> a = new HashSet<>();
+        for (SnapshotMatch match : findAll(first)) {
+            a.add(match.getNode());
+        }
+        Set<Element> b = new HashSet<>();
+        for (SnapshotMatch match : findAll(second)) {
+            b.add(match.getNode());
+        }
+        return a.equals(b);
+    }
+
+    /**
+     * Nodes whose bounds contain the point, in document order (outermost first, innermost last).
+     */
+    public List<SnapshotMatch> findAt(int x, int y) {
+        return toMatches(null, 0, index().at(x, y));
+    }
+
+    /**
+     * Nodes lying entirely inside the area, in document order.
+     */
+    public List<SnapshotMatch> findWithin(Rectangle area) {
+        return toMatches(null, 0, index().within(area));
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getCapturedAtMillis() {
+        return capturedAtMillis;
+    }
+
+    /**
+     * Hash of node order, classes, ids, state flags and bounds; like
+     * {@link CompactHierarchy#layoutFingerprint()} it leaves out text, so a blinking cursor or a
+     * ticking clock does not count as a different screen.
+     */
+    public synchronized long layoutFingerprint() {
+        if (layoutFingerprint == null) {
+            long h = 1125899906842597L;
+            for (Element node : elements()) {
+                h = 31 * h + node.getTagName().hashCode();
+                h = 31 * h + node.getAttribute("class").hashCode();
+                h = 31 * h + node.getAttribute("resource-id").hashCode();
+                h = 31 * h + node.getAttribute("bounds").hashCode();
+                h = 31 * h + node.getAttribute("enabled").hashCode();
+                h = 31 * h + node.getAttribute("clickable").hashCode();
+                h = 31 * h + node.getAttribute("checked").hashCode();
+                h = 31 * h + node.getAttribute("selected").hashCode();
+                h = 31 * h + node.getAttribute("displayed").hashCode();
+            }
+            layoutFingerprint = h;
+        }
+        return layoutFingerprint;
+    }
+
+    Document getDocument() {
+        return document;
+    }
+
+    private List<SnapshotMatch> findAll(By locator, int rank) {
+        if (locator instanceof SnapshotLocator) {
+            List<SnapshotMatch> matches = new ArrayList<>();
+            for (SnapshotMatch match : ((SnapshotLocator) locator).select(this)) {
+                matches.add(new SnapshotMatch(locator, rank, match.getNode()));
+            }
+            return matches;
+        }
+        BitSet indexed = lookup(locator);
+        if (indexed != null) {
+            return toMatches(locator, rank, indexed);
+        }
+        String xpath = LocatorTranslator.toXPath(locator);
+        if (xpath == null) {
+            UiSelectorQuery query = LocatorTranslator.toUiSelector(locator);
+            if (query == null) {
+                return Collections.emptyList();
+            }
+            List<SnapshotMatch> matches = new ArrayList<>();
+            for (Element node : query.select(elements())) {
+                matches.add(new SnapshotMatch(locator, rank, node));
+            }
+            return matches;
+        }
+        try {
+            XPathExpression expression = COMPILED.get().get(xpath);
+            if (expression == null) {
+                expression = XPATH.get().compile(xpath);
+                COMPILED.get().put(xpath, expression);
+            }
+            NodeList nodes = (NodeList) expression.evaluate(document, XPathConstants.NODESET);
+            List<SnapshotMatch> matches = new ArrayList<>(nodes.getLength());
+            for (int i = 0; i < nodes.getLength(); i++) {
+                Node node = nodes.item(i);
+                if (node instanceof Element && node != document.getDocumentElement()) {
+                    matches.add(new SnapshotMatch(locator, rank, (Element) node));
+                }
+            }
+            return matches;
+        } catch (XPathExpressionException e) {
+            System.err.println("[UiSnapshot] Unable to evaluate " + locator + ": " + e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * @return the matching node set from the index, or null when the locator needs the XPath engine
+     */
+    private BitSet lookup(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            return null;
+        }
+        By.Remotable.Parameters params = ((By.Remotable) locator).getRemoteParameters();
+        String value = String.valueOf(params.value());
+        switch (params.using()) {
+            case "id":
+                return value.isEmpty() ? null : index().equalTo("resource-id", value);
+            case "class name":
+                return value.isEmpty() ? null : index().equalTo("class", value);
+            case "accessibility id":
+                return value.isEmpty() ? null : index().equalTo("content-desc", value);
+            case "xpath":
+                SnapshotIndex.Query query = SnapshotIndex.compile(value);
+                return query == null ? null : query.select(index());
+            default:
+                return null;
+        }
+    }
+
+    private List<SnapshotMatch> toMatches(By locator, int rank, BitSet ordinals) {
+        if (ordinals.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<SnapshotMatch> matches = new ArrayList<>(ordinals.cardinality());
+        for (int i = ordinals.nextSetBit(0); i >= 0; i = ordinals.nextSetBit(i + 1)) {
+            matches.add(new SnapshotMatch(locator, rank, elements().get(i)));
+        }
+        return matches;
+    }
+
+    private synchronized SnapshotIndex index() {
+        if (index == null) {
+            index = new SnapshotIndex(elements());
+        }
+        return index;
+    }
+
+    /**
+     * Every UI node (the synthetic {@code hierarchy} root excluded) in document order.
+     */
+    private synchronized List<Element> elements() {
+        if (elements == null) {
+            NodeList all = document.getDocumentElement().getElementsByTagName("*");
+            List<Element> list = new ArrayList<>(all.getLength());
+            for (int i = 0; i < all.getLength(); i++) {
+                list.add((Element) all.item(i));
+            }
+            elements = list;
+        }
+        return elements;
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -24,6 +24,10 @@ public final class TestConfig {
     // Appium Server Configuration
     // ===========================================
     public static String APPIUM_SERVER_URL;
+    // Start one local server per device instead of using APPIUM_SERVER_URL (see AppiumServerManager)
+    public static boolean APPIUM_SERVER_EMBEDDED;
+    public static String APPIUM_SERVER_JS;
+    public static int APPIUM_SERVER_START_TIMEOUT;
 
     // ===========================================
     // Device Configuration
@@ -31,6 +35,14 @@ public final class TestConfig {
     public static String DEVICE_NAME;
     public static String DEVICE_UDID;
 
+    // Device pool for parallel runs: comma-separated udid|systemPort|mjpegServerPort|serverUrl (see DevicePool)
+    public static String DEVICES;
+    // Lease a device per test class ("class") or per test method ("method")
+    public static String DEVICE_LEASE_SCOPE;
+    public static int DEVICE_LEASE_TIMEOUT;
+    // Previous run's results, used by ShardPlanner to order and place tests by duration
+    public static String SHARD_HISTORY_FILE;
+
     // ===========================================
     // App Configuration
     // ===========================================
@@ -43,6 +55,45 @@ public final class TestConfig {
     public static int TIMEOUT_COMMAND;
     public static int TIMEOUT_IMPLICIT;
 
+    // Flow budgets (seconds): worst-case time before a flow gives up
+    public static int FLOW_BUDGET_LOGIN;
+    public static int FLOW_BUDGET_ONBOARDING;
+    public static int FLOW_BUDGET_L2_DETAILS;
+    public static int FLOW_BUDGET_TEST;
+    // Retries of a failed checkpointed flow test; each retry resumes from the last checkpoint
+    public static int FLOW_RETRY_MAX;
+
+    // Adaptive step timeouts derived from recorded durations (see TimeoutProfileStore)
+    public static boolean TIMEOUT_PROFILE_ENABLED;
+    public static int TIMEOUT_PROFILE_MIN_SAMPLES;
+    public static int TIMEOUT_PROFILE_PERCENTILE;
+    public static double TIMEOUT_PROFILE_MULTIPLIER;
+    public static long TIMEOUT_PROFILE_MIN_MS;
+    public static long TIMEOUT_PROFILE_MAX_MS;
+    public static String TIMEOUT_PROFILE_KEEP_CODED;
+
+    // Session pool: reuse sessions across test classes, resetting the app in between ("clear", "restart" or "none")
+    public static boolean SESSION_POOL_ENABLED;
+    public static String SESSION_POOL_RESET;
+    // Pooled sessions unused this long (seconds) are quit by SessionLifecycleManager's reaper
+    public static int SESSION_IDLE_TIMEOUT_SECONDS;
+    // Log in once per device per suite and reuse the logged-in app (AuthenticatedSessionFixture)
+    public static boolean LOGIN_SHARED;
+    // Background producers of onboarded customers for L2 tests (CustomerFixtureFactory); 0 = off
+    public static int FIXTURES_PRODUCERS;
+    public static int FIXTURES_QUEUE_CAPACITY;
+    public static int FIXTURES_WAIT_SECONDS;
+    public static int FIXTURES_MAX_PARKED_SECONDS;
+
+    // Wait backend: "poll" (fixed cadence) or "logcat" (re-check on device UI change events)
+    public static String WAIT_BACKEND;
+    public static long WAIT_EVENTS_RECHECK_MS;
+    public static String WAIT_EVENTS_LOGCAT_FILTER;
+    // Settle after clicks, swipes and dialogs: "pause" (fixed sleep) or "idle" (hierarchy stops changing)
+    public static String UI_SETTLE;
+    // Consecutive unchanged page sources that count as idle with ui.settle=idle
+    public static int UI_IDLE_STABLE_POLLS;
+
     // ===========================================
     // Test Data - Bank Details
     // ===========================================
@@ -95,18 +146,51 @@ public final class TestConfig {
 
         // Appium Server
         APPIUM_SERVER_URL = getEnvOrProperty("APPIUM_URL", "appium.server.url", "http://127.0.0.1:4723");
+        APPIUM_SERVER_EMBEDDED = getEnvOrPropertyBoolean("APPIUM_SERVER_EMBEDDED", "appium.server.embedded", false);
+        APPIUM_SERVER_JS = getEnvOrProperty("APPIUM_SERVER_JS", "appium.server.js", "");
+        APPIUM_SERVER_START_TIMEOUT = getEnvOrPropertyInt("APPIUM_SERVER_START_TIMEOUT", "appium.server.startTimeoutSeconds", 60);
 
         // Device
         DEVICE_NAME = getEnvOrProperty("DEVICE_NAME", "device.name", "emulator-5554");
         DEVICE_UDID = getEnvOrProperty("DEVICE_UDID", "device.udid", "");
+        DEVICES = getEnvOrProperty("DEVICES", "devices", "");
+        DEVICE_LEASE_SCOPE = getEnvOrProperty("DEVICE_LEASE_SCOPE", "device.lease.scope", "class");
+        DEVICE_LEASE_TIMEOUT = getEnvOrPropertyInt("DEVICE_LEASE_TIMEOUT", "device.lease.timeoutSeconds", 1800);
+        SHARD_HISTORY_FILE = getEnvOrProperty("SHARD_HISTORY_FILE", "shard.history.file", "target/surefire-reports/testng-results.xml");
 
         // App
         APP_PACKAGE = getEnvOrProperty("APP_PACKAGE", "app.package", "com.nst.profile.qa");
         APP_ACTIVITY = getEnvOrProperty("APP_ACTIVITY", "app.activity", "com.nst.profile.feature_splash.ui.SplashScreenActivity");
 
         // Timeouts
-        TIMEOUT_COMMAND = getEnvOrPropertyInt("TIMEOUT_COMMAND", "timeout.command", 60000);
+        TIMEOUT_COMMAND = getEnvOrPropertyInt("TIMEOUT_COMMAND", "timeout.command", 600);
         TIMEOUT_IMPLICIT = getEnvOrPropertyInt("TIMEOUT_IMPLICIT", "timeout.implicit", 10);
+        FLOW_BUDGET_LOGIN = getEnvOrPropertyInt("FLOW_BUDGET_LOGIN", "flow.budget.login", 90);
+        FLOW_BUDGET_ONBOARDING = getEnvOrPropertyInt("FLOW_BUDGET_ONBOARDING", "flow.budget.onboarding", 300);
+        FLOW_BUDGET_L2_DETAILS = getEnvOrPropertyInt("FLOW_BUDGET_L2_DETAILS", "flow.budget.l2details", 420);
+        FLOW_BUDGET_TEST = getEnvOrPropertyInt("FLOW_BUDGET_TEST", "flow.budget.test", 900);
+        FLOW_RETRY_MAX = getEnvOrPropertyInt("FLOW_RETRY_MAX", "flow.retry.max", 1);
+        TIMEOUT_PROFILE_ENABLED = getEnvOrPropertyBoolean("TIMEOUT_PROFILE_ENABLED", "timeout.profile.enabled", false);
+        TIMEOUT_PROFILE_MIN_SAMPLES = getEnvOrPropertyInt("TIMEOUT_PROFILE_MIN_SAMPLES", "timeout.profile.minSamples", 5);
+        TIMEOUT_PROFILE_PERCENTILE = getEnvOrPropertyInt("TIMEOUT_PROFILE_PERCENTILE", "timeout.profile.percentile", 95);
+        TIMEOUT_PROFILE_MULTIPLIER = getEnvOrPropertyDouble("TIMEOUT_PROFILE_MULTIPLIER", "timeout.profile.multiplier", 2.0);
+        TIMEOUT_PROFILE_MIN_MS = getEnvOrPropertyInt("TIMEOUT_PROFILE_MIN_MS", "timeout.profile.minMs", 1500);
+        TIMEOUT_PROFILE_MAX_MS = getEnvOrPropertyInt("TIMEOUT_PROFILE_MAX_MS", "timeout.profile.maxMs", 60000);
+        TIMEOUT_PROFILE_KEEP_CODED = getEnvOrProperty("TIMEOUT_PROFILE_KEEP_CODED", "timeout.profile.keepCoded", "");
+        SESSION_POOL_ENABLED = getEnvOrPropertyBoolean("SESSION_POOL_ENABLED", "session.pool.enabled", true);
+        SESSION_POOL_RESET = getEnvOrProperty("SESSION_POOL_RESET", "session.pool.reset", "clear");
+        SESSION_IDLE_TIMEOUT_SECONDS = getEnvOrPropertyInt("SESSION_IDLE_TIMEOUT", "session.idle.timeoutSeconds", 300);
+        LOGIN_SHARED = getEnvOrPropertyBoolean("LOGIN_SHARED", "login.shared", true);
+        FIXTURES_PRODUCERS = getEnvOrPropertyInt("FIXTURES_PRODUCERS", "fixtures.producers", 0);
+        FIXTURES_QUEUE_CAPACITY = getEnvOrPropertyInt("FIXTURES_QUEUE_CAPACITY", "fixtures.queue.capacity", 2);
+        FIXTURES_WAIT_SECONDS = getEnvOrPropertyInt("FIXTURES_WAIT_SECONDS", "fixtures.waitSeconds", 300);
+        FIXTURES_MAX_PARKED_SECONDS = getEnvOrPropertyInt("FIXTURES_MAX_PARKED_SECONDS", "fixtures.maxParkedSeconds", 600);
+        WAIT_BACKEND = getEnvOrProperty("WAIT_BACKEND", "wait.backend", "poll");
+        WAIT_EVENTS_RECHECK_MS = getEnvOrPropertyInt("WAIT_EVENTS_RECHECK_MS", "wait.events.recheckMs", 300);
+        WAIT_EVENTS_LOGCAT_FILTER = getEnvOrProperty("WAIT_EVENTS_LOGCAT_FILTER", "wait.events.logcat.filter",
+            "ActivityTaskManager:I ActivityManager:I WindowManager:I ViewRootImpl:I InputMethodManager:I Toast:I *:S");
+        UI_SETTLE = getEnvOrProperty("UI_SETTLE", "ui.settle", "idle");
+        UI_IDLE_STABLE_POLLS = Math.max(1, getEnvOrPropertyInt("UI_IDLE_STABLE_POLLS", "ui.idle.stablePolls", 2));
 
         // Bank Details
         BANK_ACCOUNT_NUMBER = getEnvOrProperty("BANK_ACCOUNT_NUMBER", "bank.account.number", "10990200087021");
@@ -145,6 +229,18 @@ public final class TestConfig {
         }
     }
 
+    /**
+     * Gets double value from environment variable first, then properties file, then default.
+     */
+    private static double getEnvOrPropertyDouble(String envKey, String propKey, double defaultValue) {
+        String value = getEnvOrProperty(envKey, propKey, String.valueOf(defaultValue));
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
     /**
      * Gets boolean value from environment variable first, then properties file, then default.
      */
@@ -168,13 +264,31 @@ public final class TestConfig {
         System.out.println("=== Test Configuration ===");
         System.out.println("USERNAME: " + USERNAME);
         System.out.println("PASSWORD: ****");
-        System.out.println("APPIUM_SERVER_URL: " + APPIUM_SERVER_URL);
+        System.out.println("APPIUM_SERVER_URL: " + (APPIUM_SERVER_EMBEDDED ? "(embedded server per device)" : APPIUM_SERVER_URL));
         System.out.println("DEVICE_NAME: " + DEVICE_NAME);
         System.out.println("DEVICE_UDID: " + (DEVICE_UDID.isEmpty() ? "(not set)" : DEVICE_UDID));
+        System.out.println("DEVICES: " + (DEVICES.isBlank() ? "(single device)" : DEVICES) + ", lease per " + DEVICE_LEASE_SCOPE);
         System.out.println("APP_PACKAGE: " + APP_PACKAGE);
         System.out.println("APP_ACTIVITY: " + APP_ACTIVITY);
         System.out.println("BANK_ACCOUNT_NUMBER: " + BANK_ACCOUNT_NUMBER);
         System.out.println("BANK_IFSC: " + BANK_IFSC);
+        System.out.println("FLOW_BUDGETS (s): login=" + FLOW_BUDGET_LOGIN + ", onboarding=" + FLOW_BUDGET_ONBOARDING
+            + ", l2Details=" + FLOW_BUDGET_L2_DETAILS + ", test=" + FLOW_BUDGET_TEST);
+        System.out.println("TIMEOUT_PROFILE: " + (TIMEOUT_PROFILE_ENABLED
+            ? "p" + TIMEOUT_PROFILE_PERCENTILE + " x" + TIMEOUT_PROFILE_MULTIPLIER + " in [" + TIMEOUT_PROFILE_MIN_MS
+                + ".." + TIMEOUT_PROFILE_MAX_MS + "] ms after " + TIMEOUT_PROFILE_MIN_SAMPLES + " samples"
+                + (TIMEOUT_PROFILE_KEEP_CODED.isBlank() ? "" : ", never below coded for " + TIMEOUT_PROFILE_KEEP_CODED)
+            : "disabled") + ", default step timeout " + TIMEOUT_IMPLICIT + " s");
+        System.out.println("SESSION_POOL: " + (SESSION_POOL_ENABLED ? "enabled, reset=" + SESSION_POOL_RESET : "disabled")
+            + ", idle sessions quit after " + SESSION_IDLE_TIMEOUT_SECONDS + " s, newCommandTimeout " + TIMEOUT_COMMAND + " s");
+        System.out.println("LOGIN_SHARED: " + LOGIN_SHARED);
+        System.out.println("FIXTURES: " + (FIXTURES_PRODUCERS > 0 ? FIXTURES_PRODUCERS + " producer(s), queue "
+            + FIXTURES_QUEUE_CAPACITY + ", consumers wait " + FIXTURES_WAIT_SECONDS + " s, parked at most "
+            + FIXTURES_MAX_PARKED_SECONDS + " s" : "disabled"));
+        System.out.println("WAIT_BACKEND: " + WAIT_BACKEND
+            + ("logcat".equalsIgnoreCase(WAIT_BACKEND) ? " (re-check every " + WAIT_EVENTS_RECHECK_MS + " ms without events)" : ""));
+        System.out.println("UI_SETTLE: " + UI_SETTLE
+            + ("idle".equalsIgnoreCase(UI_SETTLE) ? " (" + UI_IDLE_STABLE_POLLS + " stable polls)" : ""));
         System.out.println("DEBUG_LOGS_ENABLED: " + DEBUG_LOGS_ENABLED);
         System.out.println("==========================");
     }
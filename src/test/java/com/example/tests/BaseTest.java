@@ -1,34 +1,167 @@
 package com.example.tests;
 
+import java.lang.reflect.Method;
 import java.net.URL;
 import java.time.Duration;
 
 import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
 
+import com.example.locators.LocatorStats;
+import com.example.managers.AppiumServerManager;
+import com.example.managers.AuthenticatedSessionFixture;
+import com.example.managers.CustomerFixtureFactory;
+import com.example.managers.Device;
+import com.example.managers.DevicePool;
+import com.example.managers.DriverRegistry;
+import com.example.managers.DriverSessionPool;
+import com.example.managers.PageObjectManager;
+import com.example.managers.PreparedCustomer;
+import com.example.managers.SessionLifecycleManager;
+import com.example.managers.ShardPlanner;
 import com.example.testdata.TestConfig;
+import com.example.waits.TimeoutProfileStore;
+import com.example.waits.WaitLedger;
 
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.options.UiAutomator2Options;
 import io.appium.java_client.remote.AutomationName;
 
 public class BaseTest {
+    // Set for class-scoped leases; with device.lease.scope=method use getDriver()
     protected AndroidDriver driver;
+    private Device device;
+    private final ThreadLocal<PageObjectManager> pages = new ThreadLocal<>();
 
     public BaseTest() {
     }
 
+    /**
+     * Driver for the running test: the current thread's when devices are leased per method,
+     * otherwise the class's.
+     */
+    protected AndroidDriver getDriver() {
+        AndroidDriver threadDriver = DriverRegistry.getDriver();
+        return threadDriver != null ? threadDriver : driver;
+    }
+
+    /**
+     * Name of the device the running test leased.
+     */
+    protected String deviceName() {
+        Device threadDevice = DriverRegistry.getDevice();
+        Device current = threadDevice != null ? threadDevice : device;
+        return current != null ? current.getName() : TestConfig.DEVICE_NAME;
+    }
+
+    /**
+     * Page objects bound to {@link #getDriver()}; rebuilt when the thread's driver changes.
+     */
+    protected PageObjectManager pages() {
+        AndroidDriver current = getDriver();
+        PageObjectManager manager = pages.get();
+        if (manager == null || manager.getDriver() != current) {
+            manager = new PageObjectManager(current);
+            pages.set(manager);
+        }
+        return manager;
+    }
+
+    /**
+     * Permissions granted, logged in and on the JLG home; logs in only when the app is logged out.
+     */
+    protected void openJlgHome() {
+        AuthenticatedSessionFixture.getInstance().openJlgHome(getDriver(), pages(), deviceName());
+    }
+
+    /**
+     * A customer onboarded ahead of time by {@link CustomerFixtureFactory}, or null when fixtures are
+     * off or none was ready within {@code fixtures.waitSeconds}. The test moves onto the customer's
+     * device and session (parked on the L1 details form); its own go back to the pools for the
+     * producers.
+     */
+    protected PreparedCustomer takePreparedCustomer() {
+        PreparedCustomer customer = CustomerFixtureFactory.getInstance()
+            .take(Duration.ofSeconds(TestConfig.FIXTURES_WAIT_SECONDS));
+        if (customer == null) {
+            return null;
+        }
+        AndroidDriver ownDriver = getDriver();
+        Device ownDevice = DevicePool.leasesPerMethod() ? DriverRegistry.getDevice() : device;
+        if (DevicePool.leasesPerMethod()) {
+            DriverRegistry.bind(customer.getDriver(), customer.getDevice());
+        } else {
+            driver = customer.getDriver();
+            device = customer.getDevice();
+        }
+        pages.remove();
+        SessionLifecycleManager.getInstance().leased(customer.getDriver(), getClass().getName());
+        try {
+            closeSession(ownDriver);
+        } finally {
+            DevicePool.getInstance().release(ownDevice);
+        }
+        return customer;
+    }
+
+    @BeforeSuite(alwaysRun = true)
+    public void startCustomerFixtures() {
+        CustomerFixtureFactory.getInstance().start(target -> openSession(target, CustomerFixtureFactory.class.getSimpleName()));
+    }
+
     @BeforeClass
     public void setUp() {
+        // Print loaded configuration
+        TestConfig.printConfig();
+        if (!DevicePool.leasesPerMethod()) {
+            // Recorded before the session opens so tearDown releases the device even if it fails
+            device = leaseDevice(ShardPlanner.plannedDevice(getClass().getName(), null));
+            driver = openSession(device, getClass().getName());
+        }
+    }
+
+    @BeforeMethod(alwaysRun = true)
+    public void leaseDeviceForMethod(Method method) {
+        if (DevicePool.leasesPerMethod()) {
+            Device leased = leaseDevice(ShardPlanner.plannedDevice(getClass().getName(), method.getName()));
+            // As in setUp: releaseDeviceForMethod releases the device even if the session fails to open
+            DriverRegistry.bind(null, leased);
+            DriverRegistry.bind(openSession(leased, getClass().getName()), leased);
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void releaseDeviceForMethod() {
+        if (DevicePool.leasesPerMethod()) {
+            Device leased = DriverRegistry.getDevice();
+            try {
+                closeSession(DriverRegistry.getDriver());
+            } finally {
+                DriverRegistry.unbind();
+                pages.remove();
+                DevicePool.getInstance().release(leased);
+            }
+        }
+    }
+
+    /**
+     * The device the shard plan chose when it is free, otherwise whichever frees up first.
+     */
+    private Device leaseDevice(String planned) {
+        return DevicePool.getInstance().lease(planned, Duration.ofSeconds(TestConfig.DEVICE_LEASE_TIMEOUT));
+    }
+
+    private AndroidDriver openSession(Device target, String owner) {
         try {
             // Initialize UiAutomator2Options with required capabilities
-            // Print loaded configuration
-            TestConfig.printConfig();
-
             UiAutomator2Options options = new UiAutomator2Options()
                 .setPlatformName("Android")
                 .setAutomationName(AutomationName.ANDROID_UIAUTOMATOR2)
-                .setDeviceName(TestConfig.DEVICE_NAME)
+                .setDeviceName(target.getName())
                 .setAppPackage(TestConfig.APP_PACKAGE)
                 .setAppActivity(TestConfig.APP_ACTIVITY)
                 .setNewCommandTimeout(Duration.ofSeconds(TestConfig.TIMEOUT_COMMAND))
@@ -37,41 +170,82 @@ public class BaseTest {
                 .setFullReset(false);
 
             // Set UDID if configured
-            if (TestConfig.DEVICE_UDID != null && !TestConfig.DEVICE_UDID.isEmpty()) {
-                options.setUdid(TestConfig.DEVICE_UDID);
+            if (!target.getUdid().isEmpty()) {
+                options.setUdid(target.getUdid());
+            }
+            // Per-device ports so several UiAutomator2 servers can run side by side
+            String serverUrl = target.getServerUrl();
+            int systemPort = target.getSystemPort();
+            if (TestConfig.APPIUM_SERVER_EMBEDDED) {
+                AppiumServerManager.Server server = AppiumServerManager.getInstance().serverFor(target, systemPort);
+                serverUrl = server.getUrl().toString();
+                systemPort = server.getSystemPort();
+                options.setChromedriverPort(server.getChromedriverPort());
+            }
+            if (systemPort > 0) {
+                options.setSystemPort(systemPort);
+            }
+            if (target.getMjpegServerPort() > 0) {
+                options.setMjpegServerPort(target.getMjpegServerPort());
             }
 
             // Initialize driver with options
-            String serverUrl = TestConfig.APPIUM_SERVER_URL;
-            System.out.println("Connecting to Appium server at: " + serverUrl);
-            
-            driver = new AndroidDriver(new URL(serverUrl), options);
+            System.out.println("Connecting to Appium server at: " + serverUrl + " for " + target);
+
+            // Warm session from an earlier class when one matches; otherwise a new one
+            AndroidDriver session = DriverSessionPool.getInstance().acquire(new URL(serverUrl), options, owner);
             System.out.println("Appium session started successfully");
-            
+
             // Set implicit wait
           //  driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-            
-            
+            return session;
+
         } catch (Exception e) {
+            // The caller leased the device and releases it
             System.err.println("Error initializing Appium driver: " + e.getMessage());
             e.printStackTrace();
             throw new RuntimeException("Failed to initialize Appium driver: " + e.getMessage(), e);
         }
     }
 
+    private void closeSession(AndroidDriver session) {
+        if (session == null) {
+            return;
+        }
+        try {
+            System.out.println("Returning Appium session to the pool...");
+            DriverSessionPool.getInstance().release(session);
+            System.out.println("Appium session released successfully");
+        } catch (Exception e) {
+            System.err.println("Error while closing the driver: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     @AfterClass(alwaysRun = true)
     public void tearDown() {
-        if (driver != null) {
-            try {
-                System.out.println("Closing Appium session...");
-              //  driver.close();
-                System.out.println("Appium session closed successfully");
-            } catch (Exception e) {
-                System.err.println("Error while closing the driver: " + e.getMessage());
-                e.printStackTrace();
-            } finally {
-                driver = null;
-            }
+        WaitLedger.getInstance().save();
+        TimeoutProfileStore.getInstance().save();
+        LocatorStats.getInstance().save();
+        try {
+            closeSession(driver);
+        } finally {
+            driver = null;
+            DevicePool.getInstance().release(device);
+            device = null;
+        }
+        // Anything this class still holds is a leak; quit it now rather than at suite end
+        SessionLifecycleManager.getInstance().endOfClass(getClass().getName());
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void shutdownSessions() {
+        CustomerFixtureFactory.getInstance().shutdown();
+        System.out.println(AuthenticatedSessionFixture.getInstance().report());
+        DriverSessionPool.getInstance().shutdown();
+        SessionLifecycleManager.getInstance().endOfSuite();
+        if (TestConfig.APPIUM_SERVER_EMBEDDED) {
+            AppiumServerManager.getInstance().stopAll();
         }
     }
-}
\ No newline at end of file
+}
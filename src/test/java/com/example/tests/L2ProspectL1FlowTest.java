@@ -1,53 +1,75 @@
 package com.example.tests;
 
-import org.testng.annotations.BeforeMethod;
+import java.time.Duration;
+
+import org.testng.SkipException;
 import org.testng.annotations.Test;
 
-import com.example.managers.PageObjectManager;
+import com.example.managers.PreparedCustomer;
 import com.example.pages.L2InfoActions;
 import com.example.testdata.TestConfig;
+import com.example.waits.FlowDeadline;
 
 public class L2ProspectL1FlowTest   extends BaseTest {
 
     // Credentials loaded from TestConfig (testdata/config.properties)
 
-    private PageObjectManager pageObjectManager;
-
-    @BeforeMethod
-    public void initializePageObjects() {
-        pageObjectManager = new PageObjectManager(driver);
-    }
-
     @Test(groups = "l2Info")
     public void runL2ProspectL1DetailsFlow() throws Exception {
-        var permissionPage = pageObjectManager.getPermissionPage();
-        var homePage = pageObjectManager.getHomePage();
-        var onboardingPage = pageObjectManager.getOnboardingPage();
-
-        permissionPage.handlePermissions();
-
-        if (!homePage.waitForLoginScreenReady()) {
-            System.err.println("Login screen did not become ready within wait; proceeding with attempts for debugging.");
+        // Waiting for a prepared customer is not part of the test's own budget
+        PreparedCustomer prepared = takePreparedCustomer();
+
+        // One budget for the whole test gives a predictable worst case per device slot
+        FlowDeadline testBudget = FlowDeadline.start("runL2ProspectL1DetailsFlow", Duration.ofSeconds(TestConfig.FLOW_BUDGET_TEST));
+        try (FlowDeadline.Scope ignored = testBudget.enter("test")) {
+            L2InfoActions l2Actions = new L2InfoActions(getDriver());
+            if (prepared != null) {
+                System.out.println("[L2ProspectL1FlowTest] Using prepared customer " + prepared);
+            } else {
+                onboardAndSelectCustomer(l2Actions);
+            }
+
+            boolean flowOk = l2Actions.fillL2ProspectL1DetailsFlow();
+            if (!flowOk) {
+                throw new IllegalStateException("L2 Prospect L1 details flow did not complete successfully.");
+            }
+        } finally {
+            System.out.println("[L2ProspectL1FlowTest] " + testBudget.report());
         }
+    }
 
-        homePage.enterUserId(TestConfig.USERNAME);
-        homePage.enterPassword(TestConfig.PASSWORD);
-        homePage.clickSignInButton();
+    @Test(groups = "l2Info")
+    public void runBankDetailsOnly() {
+        PreparedCustomer prepared = takePreparedCustomer();
+        L2InfoActions l2Actions = new L2InfoActions(getDriver());
+        if (prepared != null) {
+            // The bank account form follows the L1 details of the prepared customer
+            System.out.println("[L2ProspectL1FlowTest] Using prepared customer " + prepared);
+            L2InfoActions.L1Outcome outcome = l2Actions.fillL2ProspectL1DetailsOnly(
+                FlowDeadline.start("l2.prospectL1Details", Duration.ofSeconds(TestConfig.FLOW_BUDGET_L2_DETAILS)));
+            if (!outcome.succeeded()) {
+                throw new IllegalStateException("L1 details for the prepared customer did not complete successfully.");
+            }
+            if (outcome == L2InfoActions.L1Outcome.PREFILLED) {
+                throw new SkipException("Prepared customer's L1 form was already filled; no bank details screen follows.");
+            }
+        }
+        boolean bankFlowOk = l2Actions.fillBankDetailsAndCaptureProof();
+        if (!bankFlowOk) {
+            throw new IllegalStateException("Bank details workflow did not complete successfully .");
+        }
+    }
 
-        homePage.waitForJLGVisible();
-        homePage.clickJLG();
+    /**
+     * Onboarding through voter id on this test's own device, then the first selectable L2 customer.
+     */
+    private void onboardAndSelectCustomer(L2InfoActions l2Actions) {
+        openJlgHome();
 
-        boolean onboardingLaunched = onboardingPage.openCustomerDetailsScreen();
-        if (!onboardingLaunched) {
-            throw new IllegalStateException("Onboarding APK did not launch within timeout.");
-        }
-        onboardingPage.clickCaptureCustomerConsent();
-        String submittedMobile = onboardingPage.enterMobileNumberAndSubmit();
+        String submittedMobile = pages().getOnboardingPage().completeOnboardingThroughVoterId(
+            FlowDeadline.start("onboarding", Duration.ofSeconds(TestConfig.FLOW_BUDGET_ONBOARDING)));
         System.out.println("Submitted onboarding mobile number: " + submittedMobile);
 
-        onboardingPage.completeVoterIdCaptureFlow();
-
-        L2InfoActions l2Actions = new L2InfoActions(driver);
         boolean clicked = l2Actions.clickContinuationDirectly();
         if (!clicked) {
             throw new IllegalStateException("Failed to click the L2 post-success continuation control.");
@@ -55,20 +77,5 @@ public class L2ProspectL1FlowTest   extends BaseTest {
 
         String chosenCustomer = l2Actions.selectFirstCustomerSkippingAlerts();
         System.out.println("[L2ProspectL1FlowTest] Selected customer: " + chosenCustomer);
-
-        boolean flowOk = l2Actions.fillL2ProspectL1DetailsFlow();
-        if (!flowOk) {
-            throw new IllegalStateException("L2 Prospect L1 details flow did not complete successfully.");
-        }
-    }
-
-    @Test(groups = "l2Info")
-    public void runBankDetailsOnly() {
-        L2InfoActions l2Actions = new L2InfoActions(driver);
-        boolean bankFlowOk = l2Actions.fillBankDetailsAndCaptureProof();
-        if (!bankFlowOk) {
-            throw new IllegalStateException("Bank details workflow did not complete successfully .");
-        }
     }
 }
-
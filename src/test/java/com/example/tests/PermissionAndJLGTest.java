@@ -1,215 +1,180 @@
 package com.example.tests;
 
-import java.util.Locale;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 import org.testng.annotations.Test;
 
-import com.example.managers.PageObjectManager;
+import com.example.flow.CheckpointedFlow;
+import com.example.flow.FlowContext;
+import com.example.flow.FlowRetryAnalyzer;
+import com.example.flow.FlowStage;
+import com.example.flow.StepCondition;
+import com.example.locators.AppLocators;
+import com.example.locators.L2_Info_Locators;
 import com.example.pages.L2InfoActions;
+import com.example.pages.OnboardingPage;
+import com.example.snapshot.SnapshotCache;
 import com.example.testdata.TestConfig;
+import com.example.waits.FlowDeadline;
 
 public class PermissionAndJLGTest extends BaseTest {
 
     // Credentials and settings loaded from TestConfig (testdata/config.properties)
 
-    private PageObjectManager pageObjectManager;
-    
-    @BeforeMethod
-    public void initializePageObjects() {
-        pageObjectManager = new PageObjectManager(driver);
-    }
-    
-   @Parameters({"resumeFrom"})
-    @Test
-    public void openAppHandlePermissionsAndOpenJLG(@Optional("FRESH") String resumeFromValue) throws Exception {
-        ResumePoint resumePoint = ResumePoint.from(resumeFromValue);
-        System.out.println("[PermissionAndJLGTest] resumeFrom=" + resumePoint.name());
-
-        var permissionPage = pageObjectManager.getPermissionPage();
-        var homePage = pageObjectManager.getHomePage();
-        var onboardingPage = pageObjectManager.getOnboardingPage();
-
-        if (resumePoint.shouldRunPermissions()) {
-            permissionPage.handlePermissions();
-        } else {
-            logSkippedStage("Permission dialogs", resumePoint);
-        }
-
-        if (TestConfig.DEBUG_LOGS_ENABLED) {
-            System.out.println("Contexts: " + driver.getContextHandles());
-            System.out.println("Current context: " + driver.getContext());
-            System.out.println("Current activity: " + driver.currentActivity());
-            System.out.println("Current package: " + driver.getCurrentPackage());
-        }
-
-        boolean onboardingReady = true;
-
-        if (resumePoint.shouldRunLogin()) {
-            if (!homePage.waitForLoginScreenReady()) {
-                System.err.println("Login screen did not become ready within wait; proceeding with attempts for debugging.");
-            }
-
-            homePage.enterUserId(TestConfig.USERNAME);
-            homePage.enterPassword(TestConfig.PASSWORD);
-            homePage.clickSignInButton();
+    // Screens the stages start on; a resumed flow whose next stage's screen is not showing starts over
+    private static final StepCondition AT_JLG_HOME = StepCondition.displayed(AppLocators.Onboarding.CUSTOMER_DETAILS_TEXT);
+    private static final StepCondition AT_MOBILE_ENTRY = StepCondition.displayed(AppLocators.Onboarding.MOBILE_INPUT_BY_LABEL);
+    private static final StepCondition AT_VOTER_ID_CAMERA = StepCondition.displayed(AppLocators.Onboarding.CAMERA_CAPTURE_BUTTON);
+    private static final StepCondition AT_CAPTURE_SUCCESS = StepCondition.displayed(L2_Info_Locators.SUCCESS_MESSAGE);
+    private static final StepCondition AT_PROSPECT_DETAILS = StepCondition.displayed(L2_Info_Locators.PROSPECT_L1_DETAILS_CARD);
+    private static final StepCondition AT_BANK_DETAILS = StepCondition.anyOf(
+        StepCondition.displayed(L2_Info_Locators.ADD_BANK_ACCOUNT_BUTTON),
+        StepCondition.displayed(L2_Info_Locators.BANK_ACCOUNT_DETAILS_CARD));
 
-            homePage.waitForJLGVisible();
-            homePage.clickJLG();
-        } else {
-            logSkippedStage("Login & JLG navigation", resumePoint);
-        }
-
-        if (resumePoint.shouldRunOnboardingPrep()) {
-            boolean onboardingLaunched = onboardingPage.openCustomerDetailsScreen();
-            if (!onboardingLaunched) {
-                System.err.println("Onboarding APK did not launch within timeout.");
-                onboardingReady = false;
-            } else {
+    @Parameters({"resumeFrom"})
+    @Test(retryAnalyzer = FlowRetryAnalyzer.class)
+    public void openAppHandlePermissionsAndOpenJLG(@Optional("FRESH") String resumeFromValue) throws Exception {
+        var onboardingPage = pages().getOnboardingPage();
+        AtomicReference<FlowDeadline> l2Budget = new AtomicReference<>();
+
+        // Problems after login are reported and end the flow without failing the test, as before
+        CheckpointedFlow.named("openAppHandlePermissionsAndOpenJLG", deviceName())
+            .checkingEntryWith(() -> SnapshotCache.forDriver(getDriver()).capture())
+            .stage(FlowStage.JLG, ctx -> {
+                openJlgHome();
+                logDriverState();
+            })
+            .stage(FlowStage.CONSENT, AT_JLG_HOME, ctx -> {
+                if (!onboardingPage.openCustomerDetailsScreen()) {
+                    ctx.stop("Onboarding APK did not launch within timeout.");
+                    return;
+                }
                 onboardingPage.clickCaptureCustomerConsent();
-                String submittedMobile = onboardingPage.enterMobileNumberAndSubmit();
-                System.out.println("Submitted onboarding mobile number: " + submittedMobile);
-            }
-        } else {
-            logSkippedStage("Onboarding launch & mobile submission", resumePoint);
-        }
-
-        if (resumePoint.shouldRunDocumentFlow()) {
-            if (!onboardingReady) {
-                System.err.println("[PermissionAndJLGTest] Skipping voter-id capture because onboarding screen was unavailable.");
-            } else {
+            })
+            .stage(FlowStage.MOBILE_SUBMIT, AT_MOBILE_ENTRY, ctx -> submitMobile(onboardingPage, ctx))
+            .stage(FlowStage.VOTER_ID_CAPTURE, AT_VOTER_ID_CAMERA, ctx -> {
                 System.out.println("[PermissionAndJLGTest] Starting voter-id capture flow.");
                 onboardingPage.completeVoterIdCaptureFlow();
-                L2InfoActions l2Actions = new L2InfoActions(driver);
-                boolean l2Clicked = l2Actions.clickContinuationAfterSuccess();
-                if (!l2Clicked) {
-                    System.err.println("[PermissionAndJLGTest] L2 post-success continuation control not available after document flow.");
-                } else {
-                    try {
-                        String chosenCustomer = l2Actions.selectFirstCustomerSkippingAlerts();
-                        System.out.println("[PermissionAndJLGTest] Selected L2 customer: " + chosenCustomer);
-                        boolean flowOk = l2Actions.fillL2ProspectL1DetailsFlow();
-                        if (!flowOk) {
-                            System.err.println("[PermissionAndJLGTest] L2 Prospect L1 details flow did not complete successfully.");
-                        }
-                    } catch (Exception selectionError) {
-                        System.err.println("[PermissionAndJLGTest] Unable to select L2 customer: " + selectionError.getMessage());
+            })
+            .stage(FlowStage.L2_SELECTION, AT_CAPTURE_SUCCESS, ctx -> {
+                L2InfoActions l2Actions = new L2InfoActions(getDriver());
+                if (!l2Actions.clickContinuationAfterSuccess()) {
+                    ctx.stop("L2 post-success continuation control not available after document flow.");
+                    return;
+                }
+                try {
+                    selectCustomer(l2Actions, ctx);
+                } catch (Exception selectionError) {
+                    ctx.stop("Unable to select L2 customer: " + selectionError.getMessage());
+                }
+            })
+            .stage(FlowStage.L1_DETAILS, AT_PROSPECT_DETAILS, ctx -> {
+                try {
+                    L2InfoActions.L1Outcome outcome = new L2InfoActions(getDriver()).fillL2ProspectL1DetailsOnly(l2Budget(l2Budget));
+                    if (!outcome.succeeded()) {
+                        ctx.stop("L2 Prospect L1 details flow did not complete successfully.");
+                    } else {
+                        markBankDetailsIfPrefilled(outcome, ctx);
                     }
+                } catch (Exception e) {
+                    ctx.stop("L2 Prospect L1 details flow failed: " + e.getMessage());
                 }
-            }
-        } else {
-            logSkippedStage("Voter-id capture flow", resumePoint);
-        }
+            })
+            .stage(FlowStage.BANK_DETAILS, AT_BANK_DETAILS, ctx -> {
+                try {
+                    if (!new L2InfoActions(getDriver()).fillBankDetailsAndCaptureProof(l2Budget(l2Budget))) {
+                        ctx.stop("Bank details workflow did not complete successfully.");
+                    }
+                } catch (Exception e) {
+                    ctx.stop("Bank details workflow failed: " + e.getMessage());
+                }
+            })
+            .run(resumeFromValue);
     }
 
     @Parameters({"resumeFrom"})
-    @Test(groups = "l2Info")
+    @Test(groups = "l2Info", retryAnalyzer = FlowRetryAnalyzer.class)
     public void runL2InfoContinuationOnly(@Optional("AFTER_MOBILE_SUBMIT") String resumeFromValue) throws Exception {
-        ResumePoint resumePoint = ResumePoint.from(resumeFromValue);
-        System.out.println("[PermissionAndJLGTest] (L2 only) resumeFrom=" + resumePoint.name());
-
-        var permissionPage = pageObjectManager.getPermissionPage();
-        var homePage = pageObjectManager.getHomePage();
-        var onboardingPage = pageObjectManager.getOnboardingPage();
-
-        permissionPage.handlePermissions();
-
-        boolean onboardingReady = true;
-
-        if (!homePage.waitForLoginScreenReady()) {
-            System.err.println("Login screen did not become ready within wait; proceeding with attempts for debugging.");
-        }
-
-        homePage.enterUserId(TestConfig.USERNAME);
-        homePage.enterPassword(TestConfig.PASSWORD);
-        homePage.clickSignInButton();
-
-        homePage.waitForJLGVisible();
-        homePage.clickJLG();
-
-        boolean onboardingLaunched = onboardingPage.openCustomerDetailsScreen();
-        if (!onboardingLaunched) {
-            System.err.println("Onboarding APK did not launch within timeout.");
-            onboardingReady = false;
-        } else {
-            onboardingPage.clickCaptureCustomerConsent();
-            String submittedMobile = onboardingPage.enterMobileNumberAndSubmit();
-            System.out.println("Submitted onboarding mobile number: " + submittedMobile);
-        }
+        System.out.println("[PermissionAndJLGTest] (L2 only) resumeFrom=" + resumeFromValue);
+
+        var onboardingPage = pages().getOnboardingPage();
+        AtomicReference<FlowDeadline> l2Budget = new AtomicReference<>();
+
+        CheckpointedFlow.named("runL2InfoContinuationOnly", deviceName())
+            .checkingEntryWith(() -> SnapshotCache.forDriver(getDriver()).capture())
+            .stage(FlowStage.JLG, ctx -> openJlgHome())
+            .stage(FlowStage.CONSENT, AT_JLG_HOME, ctx -> {
+                if (!onboardingPage.openCustomerDetailsScreen()) {
+                    System.err.println("Onboarding APK did not launch within timeout.");
+                    throw new IllegalStateException("Cannot run L2 continuation because onboarding screen was unavailable.");
+                }
+                onboardingPage.clickCaptureCustomerConsent();
+            })
+            .stage(FlowStage.MOBILE_SUBMIT, AT_MOBILE_ENTRY, ctx -> submitMobile(onboardingPage, ctx))
+            .stage(FlowStage.VOTER_ID_CAPTURE, AT_VOTER_ID_CAMERA, ctx -> {
+                System.out.println("[PermissionAndJLGTest] Preparing L2 continuation by executing voter-id capture flow.");
+                onboardingPage.completeVoterIdCaptureFlow();
+            })
+            .stage(FlowStage.L2_SELECTION, AT_CAPTURE_SUCCESS, ctx -> {
+                L2InfoActions l2Actions = new L2InfoActions(getDriver());
+                if (!l2Actions.clickContinuationDirectly()) {
+                    throw new IllegalStateException("Failed to click the L2 post-success continuation control.");
+                }
+                selectCustomer(l2Actions, ctx);
+            })
+            .stage(FlowStage.L1_DETAILS, AT_PROSPECT_DETAILS, ctx -> {
+                L2InfoActions.L1Outcome outcome = new L2InfoActions(getDriver()).fillL2ProspectL1DetailsOnly(l2Budget(l2Budget));
+                if (!outcome.succeeded()) {
+                    throw new IllegalStateException("L2 Prospect L1 details flow did not complete successfully.");
+                }
+                markBankDetailsIfPrefilled(outcome, ctx);
+            })
+            .stage(FlowStage.BANK_DETAILS, AT_BANK_DETAILS, ctx -> {
+                if (!new L2InfoActions(getDriver()).fillBankDetailsAndCaptureProof(l2Budget(l2Budget))) {
+                    throw new IllegalStateException("L2 Prospect L1 details flow did not complete successfully.");
+                }
+            })
+            .run(resumeFromValue);
+    }
 
-        if (!onboardingReady) {
-            throw new IllegalStateException("Cannot run L2 continuation because onboarding screen was unavailable.");
+    /**
+     * A prefilled L1 form ends at the final SUBMIT; the bank details screen does not follow.
+     */
+    private static void markBankDetailsIfPrefilled(L2InfoActions.L1Outcome outcome, FlowContext ctx) {
+        if (outcome == L2InfoActions.L1Outcome.PREFILLED) {
+            ctx.notApplicable(FlowStage.BANK_DETAILS, "L1 form was already filled; only the final SUBMIT ran");
         }
-        System.out.println("[PermissionAndJLGTest] Preparing L2 continuation by executing voter-id capture flow.");
-        onboardingPage.completeVoterIdCaptureFlow();
+    }
 
-        L2InfoActions l2Actions = new L2InfoActions(driver);
-        boolean clicked = l2Actions.clickContinuationDirectly();
-        if (!clicked) {
-            throw new IllegalStateException("Failed to click the L2 post-success continuation control.");
-        }
+    private static void submitMobile(OnboardingPage onboardingPage, FlowContext ctx) {
+        String submittedMobile = onboardingPage.enterMobileNumberAndSubmit();
+        System.out.println("Submitted onboarding mobile number: " + submittedMobile);
+        ctx.put(FlowContext.MOBILE, submittedMobile);
+    }
 
+    private static void selectCustomer(L2InfoActions l2Actions, FlowContext ctx) {
         String chosenCustomer = l2Actions.selectFirstCustomerSkippingAlerts();
-        System.out.println("[PermissionAndJLGTest] (L2 only) Selected customer: " + chosenCustomer);
-        boolean flowOk = l2Actions.fillL2ProspectL1DetailsFlow();
-        if (!flowOk) {
-            throw new IllegalStateException("L2 Prospect L1 details flow did not complete successfully.");
-        }
+        System.out.println("[PermissionAndJLGTest] Selected L2 customer: " + chosenCustomer);
+        ctx.put(FlowContext.CUSTOMER, chosenCustomer);
     }
 
-    private void logSkippedStage(String stage, ResumePoint resumePoint) {
-        System.out.println("[PermissionAndJLGTest] Skipping " + stage + " due to resumeFrom=" + resumePoint.name());
+    /**
+     * L1 details and bank details share one budget, started when the first of them runs.
+     */
+    private static FlowDeadline l2Budget(AtomicReference<FlowDeadline> holder) {
+        return holder.updateAndGet(d -> d != null ? d
+            : FlowDeadline.start("l2.prospectL1Details", Duration.ofSeconds(TestConfig.FLOW_BUDGET_L2_DETAILS)));
     }
 
-    private enum ResumePoint {
-        FRESH(true, true, true, true),
-        AFTER_PERMISSIONS(false, true, true, true),
-        AFTER_LOGIN(false, false, true, true),
-       
-        AFTER_MOBILE_SUBMIT(false, false, false, true);
-
-        private final boolean runPermissions;
-        private final boolean runLogin;
-        private final boolean runOnboardingPrep;
-        private final boolean runDocumentFlow;
-
-        ResumePoint(boolean runPermissions, boolean runLogin, boolean runOnboardingPrep, boolean runDocumentFlow) {
-            this.runPermissions = runPermissions;
-            this.runLogin = runLogin;
-            this.runOnboardingPrep = runOnboardingPrep;
-            this.runDocumentFlow = runDocumentFlow;
-        }
-
-        boolean shouldRunPermissions() {
-            return runPermissions;
-        }
-
-        boolean shouldRunLogin() {
-            return runLogin;
-        }
-
-        boolean shouldRunOnboardingPrep() {
-            return runOnboardingPrep;
-        }
-
-        boolean shouldRunDocumentFlow() {
-            return runDocumentFlow;
-        }
-
-        static ResumePoint from(String value) {
-            if (value == null) {
-                return FRESH;
-            }
-            String normalized = value.trim().toUpperCase(Locale.ROOT);
-            for (ResumePoint point : values()) {
-                if (point.name().equals(normalized)) {
-                    return point;
-                }
-            }
-            System.err.println("[PermissionAndJLGTest] Unknown resumeFrom='" + value + "'. Defaulting to FRESH.");
-            return FRESH;
+    private void logDriverState() {
+        if (TestConfig.DEBUG_LOGS_ENABLED) {
+            System.out.println("Contexts: " + getDriver().getContextHandles());
+            System.out.println("Current context: " + getDriver().getContext());
+            System.out.println("Current activity: " + getDriver().currentActivity());
+            System.out.println("Current package: " + getDriver().getCurrentPackage());
         }
     }
-}
\ No newline at end of file
+}
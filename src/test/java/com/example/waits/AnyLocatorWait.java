@@ -0,0 +1,160 @@
+package com.example.waits;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebElement;
+
+import com.example.snapshot.SnapshotCache;
+import com.example.snapshot.SnapshotMatch;
+import com.example.snapshot.UiSnapshot;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * Waits for the first of several fallback locators under one shared deadline.
+ * Every round checks all candidates (from a single page-source snapshot when possible) and
+ * returns the highest-priority hit, so the worst case is one timeout instead of the sum of them.
+ *
+ * <p>Generic catch-all candidates at the end of a chain can be held back with
+ * {@link #staggeredBy(Duration)}: candidate {@code k} is only accepted once {@code k * stagger}
+ * has elapsed, giving the specific locators a head start without a separate timeout each.
+ */
+public final class AnyLocatorWait {
+
+    public enum Readiness {
+        PRESENT,
+        VISIBLE,
+        CLICKABLE
+    }
+
+    private final AndroidDriver driver;
+    private final Duration timeout;
+    private Duration pollInterval = Duration.ofMillis(300);
+    private Duration stagger = Duration.ZERO;
+
+    public AnyLocatorWait(AndroidDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    public AnyLocatorWait pollingEvery(Duration interval) {
+        this.pollInterval = interval;
+        return this;
+    }
+
+    public AnyLocatorWait staggeredBy(Duration perCandidate) {
+        this.stagger = perCandidate;
+        return this;
+    }
+
+    public LocatorHit untilClickable(List<By> candidates) {
+        return until(candidates, Readiness.CLICKABLE);
+    }
+
+    public LocatorHit untilVisible(List<By> candidates) {
+        return until(candidates, Readiness.VISIBLE);
+    }
+
+    /**
+     * @throws TimeoutException when no candidate reaches the readiness state before the deadline
+     */
+    public LocatorHit until(List<By> candidates, Readiness readiness) {
+        FlowDeadline spent = FlowDeadline.firstExpired();
+        if (spent != null) {
+            throw new FlowDeadlineExceededException(spent, "any of " + candidates.size() + " candidate locators");
+        }
+        long start = System.currentTimeMillis();
+        // Never outlive an enclosing WaitEngine wait on this thread
+        long deadline = start + Math.min(timeout.toMillis(), WaitEngine.remainingMillis());
+        int rounds = 0;
+        while (true) {
+            rounds++;
+            long now = System.currentTimeMillis();
+            boolean lastRound = now + pollInterval.toMillis() >= deadline;
+            long elapsed = now - start;
+
+            UiSnapshot snapshot = tryCapture();
+            for (int i = 0; i < candidates.size(); i++) {
+                if (!lastRound && elapsed < stagger.toMillis() * i) {
+                    break;
+                }
+                By candidate = candidates.get(i);
+                if (snapshot != null && UiSnapshot.supports(candidate) && !matches(snapshot, candidate, readiness)) {
+                    continue;
+                }
+                WebElement element = resolve(candidate, readiness);
+                if (element != null) {
+                    return new LocatorHit(candidate, i, element, System.currentTimeMillis() - start, rounds);
+                }
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new TimeoutException("None of " + candidates.size() + " candidate locators became "
+                    + readiness.name().toLowerCase() + " within " + timeout.toMillis() + " ms (" + rounds + " rounds)");
+            }
+            sleep(Math.min(pollInterval.toMillis(), remaining));
+        }
+    }
+
+    private UiSnapshot tryCapture() {
+        try {
+            return SnapshotCache.forDriver(driver).capture();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private boolean matches(UiSnapshot snapshot, By candidate, Readiness readiness) {
+        for (SnapshotMatch match : snapshot.findAll(candidate)) {
+            switch (readiness) {
+                case CLICKABLE:
+                    if (match.isDisplayed() && match.isEnabled()) {
+                        return true;
+                    }
+                    break;
+                case VISIBLE:
+                    if (match.isDisplayed()) {
+                        return true;
+                    }
+                    break;
+                default:
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private WebElement resolve(By candidate, Readiness readiness) {
+        try {
+            for (WebElement element : driver.findElements(candidate)) {
+                if (element == null) {
+                    continue;
+                }
+                if (readiness == Readiness.PRESENT) {
+                    return element;
+                }
+                if (!element.isDisplayed()) {
+                    continue;
+                }
+                if (readiness == Readiness.VISIBLE || element.isEnabled()) {
+                    return element;
+                }
+            }
+        } catch (Exception ignored) {
+        }
+        return null;
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for candidate locators", ie);
+        }
+    }
+}
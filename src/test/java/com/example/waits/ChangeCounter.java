@@ -0,0 +1,46 @@
+package com.example.waits;
+
+/**
+ * Version counter and monitor shared by the {@link UiChangeSource} implementations.
+ */
+final class ChangeCounter {
+
+    private long version;
+    private boolean ended;
+
+    synchronized long version() {
+        return version;
+    }
+
+    synchronized void bump() {
+        version++;
+        notifyAll();
+    }
+
+    /**
+     * Returns true when a change arrived; false on timeout or once the stream has {@linkplain #end() ended}.
+     */
+    synchronized boolean awaitChange(long seenVersion, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        while (version <= seenVersion && !ended) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return false;
+            }
+            wait(left / 1_000_000L, (int) (left % 1_000_000L));
+        }
+        return version > seenVersion;
+    }
+
+    synchronized boolean isEnded() {
+        return ended;
+    }
+
+    /**
+     * Marks the stream finished and releases anyone waiting on it, so they fall back to polling at once.
+     */
+    synchronized void end() {
+        ended = true;
+        notifyAll();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.waits;
+
+import java.time.Duration;
+
+import org.openqa.selenium.By;
+
+import com.example.snapshot.SnapshotCache;
+import com.example.snapshot.SnapshotMatch;
+import com.example.snapshot.UiSnapshot;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * Replaces fixed "let the backend finish" sleeps after a submit. Each poll takes one page-source
+ * snapshot and checks every completion signal on it; the first signal seen ends the wait, and the
+ * old sleep length is only a ceiling.
+ *
+ * <p>Signals are compared with the screen captured when waiting started: a success label or toast
+ * already showing then only counts once it has gone and come back, and the next-step button is
+ * only trusted once the layout ({@link UiSnapshot#layoutFingerprint()}, text left out) differs and
+ * no progress indicator is showing, so leftovers from the submitting screen do not count as
+ * completion.
+ */
+public final class CompletionDetector {
+
+    public enum Signal {
+        /** A success label appeared that was not showing when the wait started. */
+        SUCCESS_MESSAGE,
+        /** A toast appeared that was not showing when the wait started. */
+        TOAST,
+        /** A progress indicator was seen and has gone again. */
+        PROGRESS_GONE,
+        /** The next step's control is clickable on a changed, idle screen. */
+        NEXT_CLICKABLE,
+        /** Nothing fired before the ceiling (or the flow budget) ran out. */
+        CEILING
+    }
+
+    private final AndroidDriver driver;
+    private final WaitEngine waits;
+    private final By progress;
+    private final By toast;
+    private final By success;
+
+    public CompletionDetector(AndroidDriver driver, WaitEngine waits, By progress, By toast, By success) {
+        this.driver = driver;
+        this.waits = waits;
+        this.progress = progress;
+        this.toast = toast;
+        this.success = success;
+    }
+
+    /**
+     * Waits until the screen has settled after {@code step}, or until {@code ceiling}.
+     *
+     * @param next control the flow clicks next; null when only the other signals apply
+     */
+    public Signal awaitCompletion(String step, By next, Duration ceiling) {
+        long start = System.currentTimeMillis();
+        SnapshotCache cache = SnapshotCache.forDriver(driver);
+        UiSnapshot baseline = tryCapture(cache);
+        boolean[] progressSeen = {baseline != null && visible(baseline, progress)};
+        // A signal already showing at the start is armed only once it has disappeared
+        boolean[] successArmed = {baseline == null || !visible(baseline, success)};
+        boolean[] toastArmed = {baseline == null || !visible(baseline, toast)};
+        Long baselineLayout = baseline == null ? null : baseline.layoutFingerprint();
+
+        Signal signal = waits.poll("completion." + step, ceiling, d -> {
+            UiSnapshot snapshot = tryCapture(cache);
+            if (snapshot == null) {
+                return null;
+            }
+            if (visible(snapshot, success)) {
+                if (successArmed[0]) {
+                    return Signal.SUCCESS_MESSAGE;
+                }
+            } else {
+                successArmed[0] = true;
+            }
+            if (visible(snapshot, toast)) {
+                if (toastArmed[0]) {
+                    return Signal.TOAST;
+                }
+            } else {
+                toastArmed[0] = true;
+            }
+            boolean busy = visible(snapshot, progress);
+            if (busy) {
+                progressSeen[0] = true;
+                return null;
+            }
+            if (progressSeen[0]) {
+                return Signal.PROGRESS_GONE;
+            }
+            boolean changed = baselineLayout == null || snapshot.layoutFingerprint() != baselineLayout;
+            if (next != null && changed && clickable(snapshot, next)) {
+                return Signal.NEXT_CLICKABLE;
+            }
+            return null;
+        });
+        if (signal == null) {
+            signal = Signal.CEILING;
+        }
+        System.out.println("[CompletionDetector] " + step + " settled via " + signal + " after "
+            + (System.currentTimeMillis() - start) + " ms (ceiling " + ceiling.toMillis() + " ms)");
+        return signal;
+    }
+
+    private UiSnapshot tryCapture(SnapshotCache cache) {
+        try {
+            return cache.capture();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static boolean visible(UiSnapshot snapshot, By locator) {
+        if (locator == null) {
+            return false;
+        }
+        for (SnapshotMatch match : snapshot.findAll(locator)) {
+            if (match.isDisplayed()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean clickable(UiSnapshot snapshot, By locator) {
+        for (SnapshotMatch match : snapshot.findAll(locator)) {
+            if (match.isDisplayed() && match.isEnabled() && match.isClickable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.waits;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time budget for a whole flow (login, voter-id capture, L2 details, or a complete test). While a
+ * flow is {@linkplain #enter(String) entered} on a thread, every {@link WaitEngine} wait and
+ * {@link AnyLocatorWait} gets {@code min(its own timeout, remaining flow budget)}; once the budget
+ * is spent, further waits fail at once with {@link FlowDeadlineExceededException} instead of each
+ * running its full timeout.
+ *
+ * <p>Time is attributed to the stage that was entered and to the labels of the waits that ran, so
+ * {@link #report()} shows where the budget went.
+ */
+public final class FlowDeadline {
+
+    private static final ThreadLocal<Deque<FlowDeadline>> ACTIVE = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final String name;
+    private final long budgetMillis;
+    private final long startNanos;
+    private final long deadlineNanos;
+    private final Map<String, long[]> waits = new LinkedHashMap<>();
+    private final List<String> stages = new ArrayList<>();
+
+    private FlowDeadline(String name, Duration budget) {
+        this.name = name;
+        this.budgetMillis = budget.toMillis();
+        this.startNanos = System.nanoTime();
+        this.deadlineNanos = startNanos + budget.toNanos();
+    }
+
+    /**
+     * Starts the clock; nothing is bounded until the deadline is {@linkplain #enter(String) entered}.
+     */
+    public static FlowDeadline start(String name, Duration budget) {
+        return new FlowDeadline(name, budget);
+    }
+
+    /**
+     * Innermost flow entered on this thread, or null.
+     */
+    public static FlowDeadline current() {
+        return ACTIVE.get().peek();
+    }
+
+    /**
+     * The first flow entered on this thread whose budget is spent, or null. Outer flows count too:
+     * a test-level budget stops a stage that still has time of its own.
+     */
+    static FlowDeadline firstExpired() {
+        for (FlowDeadline flow : ACTIVE.get()) {
+            if (flow.isExpired()) {
+                return flow;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Charges a finished wait to every distinct flow entered on this thread.
+     */
+    static void chargeWait(String label, long elapsedMillis, boolean timedOut) {
+        Deque<FlowDeadline> active = ACTIVE.get();
+        int index = 0;
+        for (FlowDeadline flow : active) {
+            if (firstIndexOf(active, flow) == index++) {
+                flow.noteWait(label, elapsedMillis, timedOut);
+            }
+        }
+    }
+
+    private static int firstIndexOf(Deque<FlowDeadline> active, FlowDeadline target) {
+        int index = 0;
+        for (FlowDeadline flow : active) {
+            if (flow == target) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000L);
+    }
+
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() >= deadlineNanos;
+    }
+
+    /**
+     * {@code timeout} cut down to what is left of the budget.
+     */
+    public Duration clamp(Duration timeout) {
+        return Duration.ofMillis(Math.min(timeout.toMillis(), remainingMillis()));
+    }
+
+    /**
+     * Bounds all waits on this thread by the budget until the returned scope is closed. Scopes nest,
+     * so a method can enter the deadline it was handed even when its caller already did.
+     *
+     * @throws FlowDeadlineExceededException when the budget is already spent
+     */
+    public Scope enter(String stage) {
+        failIfExpired(stage);
+        ACTIVE.get().push(this);
+        WaitEngine.pushDeadline(deadlineNanos);
+        return new Scope(stage, System.nanoTime());
+    }
+
+    /**
+     * @throws FlowDeadlineExceededException when the budget is spent, naming {@code step} as where it ran out
+     */
+    public void failIfExpired(String step) {
+        if (isExpired()) {
+            throw new FlowDeadlineExceededException(this, step);
+        }
+    }
+
+    /**
+     * Budget, elapsed time, time per stage and the waits that used the most of it.
+     */
+    public synchronized String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("flow '").append(name).append("' used ").append(elapsedMillis())
+            .append(" of ").append(budgetMillis).append(" ms");
+        for (String stage : stages) {
+            sb.append(System.lineSeparator()).append("  stage ").append(stage);
+        }
+        waits.entrySet().stream()
+            .sorted((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]))
+            .limit(8)
+            .forEach(e -> sb.append(System.lineSeparator()).append("  wait ").append(e.getKey())
+                .append(": ").append(e.getValue()[1]).append(" ms over ").append(e.getValue()[0])
+                .append(e.getValue()[2] > 0 ? " (" + e.getValue()[2] + " timed out)" : ""));
+        return sb.toString();
+    }
+
+    private synchronized void noteWait(String label, long elapsedMillis, boolean timedOut) {
+        long[] e = waits.computeIfAbsent(label, k -> new long[3]);
+        e[0]++;
+        e[1] += elapsedMillis;
+        e[2] += timedOut ? 1 : 0;
+    }
+
+    private synchronized void noteStage(String stage, long elapsedMillis, boolean failed) {
+        stages.add(stage + ": " + elapsedMillis + " ms" + (failed ? " (budget exhausted)" : ""));
+    }
+
+    @Override
+    public String toString() {
+        return "FlowDeadline[" + name + ", " + remainingMillis() + " of " + budgetMillis + " ms left]";
+    }
+
+    /**
+     * Active section of a flow; closing it restores the previous bound and records the stage time.
+     */
+    public final class Scope implements AutoCloseable {
+        private final String stage;
+        private final long enteredNanos;
+        private boolean closed;
+
+        private Scope(String stage, long enteredNanos) {
+            this.stage = stage;
+            this.enteredNanos = enteredNanos;
+        }
+
+        public FlowDeadline deadline() {
+            return FlowDeadline.this;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            WaitEngine.popDeadline();
+            ACTIVE.get().pop();
+            long elapsed = (System.nanoTime() - enteredNanos) / 1_000_000L;
+            noteStage(stage, elapsed, isExpired());
+            FlowDeadline outer = current();
+            if (outer != null && outer != FlowDeadline.this) {
+                outer.noteStage(name.equals(stage) ? stage : name + "/" + stage, elapsed, isExpired());
+            }
+        }
+    }
+}
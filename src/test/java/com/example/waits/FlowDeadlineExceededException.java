@@ -0,0 +1,23 @@
+package com.example.waits;
+
+import org.openqa.selenium.TimeoutException;
+
+/**
+ * Thrown instead of waiting when a {@link FlowDeadline} is already spent. Carries the flow's
+ * budget report so the failure shows where the time went.
+ */
+public class FlowDeadlineExceededException extends TimeoutException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient FlowDeadline deadline;
+
+    public FlowDeadlineExceededException(FlowDeadline deadline, String step) {
+        super("Flow budget exhausted before '" + step + "'; " + deadline.report());
+        this.deadline = deadline;
+    }
+
+    public FlowDeadline getDeadline() {
+        return deadline;
+    }
+}
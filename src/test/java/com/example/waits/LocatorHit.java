@@ -0,0 +1,52 @@
+package com.example.waits;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Result of a first-of-any wait: the element found and which candidate produced it.
+ */
+public final class LocatorHit {
+
+    private final By locator;
+    private final int index;
+    private final WebElement element;
+    private final long elapsedMillis;
+    private final int rounds;
+
+    LocatorHit(By locator, int index, WebElement element, long elapsedMillis, int rounds) {
+        this.locator = locator;
+        this.index = index;
+        this.element = element;
+        this.elapsedMillis = elapsedMillis;
+        this.rounds = rounds;
+    }
+
+    public By getLocator() {
+        return locator;
+    }
+
+    /**
+     * Position of the winning locator in the candidate list.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public WebElement getElement() {
+        return element;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    @Override
+    public String toString() {
+        return "candidate #" + index + " " + locator + " after " + elapsedMillis + " ms / " + rounds + " round(s)";
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.waits;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link UiChangeSource} fed by {@code adb logcat} on the host. Every line that passes the logcat
+ * filter (by default activity starts, window focus, view-root input and IME/toast tags) counts as a
+ * change. Logcat does not report plain content updates such as a list being filled, which is why
+ * the engine still re-checks on an idle interval.
+ *
+ * <p>If adb cannot be started or the stream ends, the source goes {@linkplain #isLive() dead} and
+ * waits fall back to polling.
+ */
+public final class LogcatChangeSource implements UiChangeSource {
+
+    private final ChangeCounter counter = new ChangeCounter();
+    private final String serial;
+    private final Process process;
+
+    private LogcatChangeSource(String serial, Process process) {
+        this.serial = serial;
+        this.process = process;
+    }
+
+    /**
+     * Starts streaming from the device with adb serial {@code serial} (null or empty for the only
+     * connected device) using a logcat filter spec such as {@code "ActivityTaskManager:I *:S"}.
+     */
+    public static LogcatChangeSource start(String serial, String filterSpec) {
+        List<String> command = new ArrayList<>();
+        command.add(adbExecutable());
+        if (serial != null && !serial.isEmpty()) {
+            command.add("-s");
+            command.add(serial);
+        }
+        // -T 1: start at the newest line instead of replaying the whole buffer
+        command.addAll(Arrays.asList("logcat", "-v", "brief", "-T", "1"));
+        command.addAll(Arrays.asList(filterSpec.trim().split("\\s+")));
+        Process process;
+        try {
+            process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        } catch (IOException e) {
+            System.err.println("[LogcatChangeSource] Unable to start " + String.join(" ", command)
+                + ": " + e.getMessage() + "; waits will poll");
+            LogcatChangeSource dead = new LogcatChangeSource(serial, null);
+            dead.counter.end();
+            return dead;
+        }
+        LogcatChangeSource source = new LogcatChangeSource(serial, process);
+        Thread reader = new Thread(source::pump, "logcat-ui-changes-" + serial);
+        reader.setDaemon(true);
+        reader.start();
+        System.out.println("[LogcatChangeSource] Streaming UI changes: " + String.join(" ", command));
+        return source;
+    }
+
+    private void pump() {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isEmpty() && !line.startsWith("---------")) {
+                    counter.bump();
+                }
+            }
+        } catch (IOException e) {
+            // Stream closed underneath us; treated like end of stream
+        }
+        if (!counter.isEnded()) {
+            System.err.println("[LogcatChangeSource] logcat stream for " + serial + " ended after "
+                + counter.version() + " changes; waits will poll");
+            counter.end();
+        }
+    }
+
+    @Override
+    public long version() {
+        return counter.version();
+    }
+
+    @Override
+    public boolean awaitChange(long seenVersion, long timeoutMillis) throws InterruptedException {
+        return counter.awaitChange(seenVersion, timeoutMillis);
+    }
+
+    @Override
+    public boolean isLive() {
+        return !counter.isEnded();
+    }
+
+    @Override
+    public void close() {
+        if (counter.isEnded()) {
+            return;
+        }
+        counter.end();
+        if (process != null) {
+            process.destroy();
+        }
+        System.out.println("[LogcatChangeSource] Closed " + serial + " after " + counter.version() + " changes");
+    }
+
+    private static String adbExecutable() {
+        for (String env : new String[] {"ANDROID_HOME", "ANDROID_SDK_ROOT"}) {
+            String home = System.getenv(env);
+            if (home != null && !home.isEmpty()) {
+                Path adb = Paths.get(home, "platform-tools", "adb");
+                if (Files.isExecutable(adb)) {
+                    return adb.toString();
+                }
+            }
+        }
+        return "adb";
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.waits;
+
+import java.time.Duration;
+
+/**
+ * Delay between condition checks of a {@link WaitEngine} wait. Implementations are stateless and
+ * shared, so choosing a strategy never allocates anything per wait.
+ */
+@FunctionalInterface
+public interface PollStrategy {
+
+    /**
+     * Milliseconds to sleep before re-check number {@code attempt} (1 for the first re-check),
+     * given how long the wait has been running.
+     */
+    long delayMillis(int attempt, long elapsedMillis);
+
+    /**
+     * Same interval every time; what {@code WebDriverWait.pollingEvery} used to give.
+     */
+    static PollStrategy fixed(Duration interval) {
+        long millis = Math.max(1, interval.toMillis());
+        return (attempt, elapsed) -> millis;
+    }
+
+    /**
+     * {@code initial * factor^(attempt-1)}, capped at {@code max}. Suits conditions that are
+     * usually true at once but can take seconds when they are not.
+     */
+    static PollStrategy exponential(Duration initial, double factor, Duration max) {
+        long first = Math.max(1, initial.toMillis());
+        long cap = Math.max(first, max.toMillis());
+        return (attempt, elapsed) -> (long) Math.min(cap, first * Math.pow(factor, Math.max(0, attempt - 1)));
+    }
+
+    /**
+     * Polls every {@code fast} during the first {@code fastPhase}, then every {@code slow}. Catches
+     * the common quick transition without hammering the server during long ones.
+     */
+    static PollStrategy fastStartThenSlow(Duration fast, Duration fastPhase, Duration slow) {
+        long fastMillis = Math.max(1, fast.toMillis());
+        long phaseMillis = fastPhase.toMillis();
+        long slowMillis = Math.max(1, slow.toMillis());
+        return (attempt, elapsed) -> elapsed < phaseMillis ? fastMillis : slowMillis;
+    }
+}
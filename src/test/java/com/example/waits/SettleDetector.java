@@ -0,0 +1,176 @@
+package com.example.waits;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+import com.example.snapshot.SnapshotCache;
+import com.example.snapshot.SnapshotMatch;
+import com.example.snapshot.UiSnapshot;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * Decides when a click has taken effect. Waiting for the clicked element to disappear only works
+ * for controls that navigate away; toggles, spinners and buttons that stay on screen used to burn
+ * the whole timeout. This returns on the first of several signals and reports which one fired, per
+ * control type, under {@code settle.<control>.<signal>} in the {@link WaitLedger}.
+ *
+ * <p>Take a {@link Baseline} before clicking, then call {@link #awaitSettle}. Both go through the
+ * driver's {@link SnapshotCache}, so an unchanged screen is not parsed again; the cost of the
+ * baseline is recorded under {@code settle.baseline} so it can be weighed against the settle time
+ * saved.
+ */
+public final class SettleDetector {
+
+    private static final By TOAST = By.className("android.widget.Toast");
+
+    public enum Signal {
+        /** The clicked element went stale or invisible. */
+        GONE,
+        /** The foreground activity changed. */
+        ACTIVITY_CHANGED,
+        /** A toast appeared that was not showing before the click. */
+        TOAST,
+        /** The layout (ids, bounds, state) changed on the same activity. */
+        HIERARCHY_CHANGED,
+        /** Nothing observable happened within the budget. */
+        NONE
+    }
+
+    /**
+     * State before the click: control type, activity, layout fingerprint and the toasts already showing.
+     */
+    public static final class Baseline {
+        private final String control;
+        private final String activity;
+        private final Long fingerprint;
+        private final Set<String> toasts;
+
+        private Baseline(String control, String activity, Long fingerprint, Set<String> toasts) {
+            this.control = control;
+            this.activity = activity;
+            this.fingerprint = fingerprint;
+            this.toasts = toasts;
+        }
+
+        public String getControl() {
+            return control;
+        }
+    }
+
+    private final AndroidDriver driver;
+    private final WaitEngine waits;
+    private final WaitLedger ledger = WaitLedger.getInstance();
+
+    public SettleDetector(AndroidDriver driver, WaitEngine waits) {
+        this.driver = driver;
+        this.waits = waits;
+    }
+
+    /**
+     * Captures the pre-click state. Parts that cannot be read are left out and their signal is not used.
+     */
+    public Baseline before(WebElement element) {
+        String control;
+        try {
+            String tag = element.getTagName();
+            control = tag == null || tag.isEmpty() ? "unknown" : tag.substring(tag.lastIndexOf('.') + 1);
+        } catch (Exception e) {
+            control = "unknown";
+        }
+        String activity;
+        try {
+            activity = driver.currentActivity();
+        } catch (Exception e) {
+            activity = null;
+        }
+        long start = System.currentTimeMillis();
+        Long fingerprint = null;
+        Set<String> toasts = Collections.emptySet();
+        UiSnapshot snapshot = tryCapture();
+        if (snapshot != null) {
+            fingerprint = snapshot.layoutFingerprint();
+            toasts = toastTexts(snapshot);
+        }
+        ledger.record("settle.baseline", 0, System.currentTimeMillis() - start, false, false);
+        return new Baseline(control, activity, fingerprint, toasts);
+    }
+
+    /**
+     * Waits for the first settle signal after clicking {@code element}.
+     */
+    public Signal awaitSettle(WebElement element, Baseline before, Duration budget) {
+        long start = System.currentTimeMillis();
+        Signal signal = waits.poll("settle." + before.control, budget, d -> {
+            if (isGone(element)) {
+                return Signal.GONE;
+            }
+            UiSnapshot now = tryCapture();
+            if (now == null) {
+                return null;
+            }
+            // A toast left over from the previous action does not count
+            if (!before.toasts.containsAll(toastTexts(now))) {
+                return Signal.TOAST;
+            }
+            if (before.fingerprint == null || now.layoutFingerprint() == before.fingerprint) {
+                return null;
+            }
+            // Only ask for the activity once something changed; it separates navigation from in-place updates
+            return activityChanged(before) ? Signal.ACTIVITY_CHANGED : Signal.HIERARCHY_CHANGED;
+        });
+        if (signal == null) {
+            signal = Signal.NONE;
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        ledger.record("settle." + before.control + "." + signal.name().toLowerCase(Locale.ROOT),
+            budget.toMillis(), elapsed, signal == Signal.NONE, false);
+        System.out.println("[SettleDetector] " + before.control + " click settled via " + signal + " after " + elapsed + " ms");
+        return signal;
+    }
+
+    private static boolean isGone(WebElement element) {
+        try {
+            return !element.isDisplayed();
+        } catch (StaleElementReferenceException e) {
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private UiSnapshot tryCapture() {
+        try {
+            return SnapshotCache.forDriver(driver).capture();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Set<String> toastTexts(UiSnapshot snapshot) {
+        Set<String> texts = new HashSet<>();
+        for (SnapshotMatch match : snapshot.findAll(TOAST)) {
+            texts.add(match.getText());
+        }
+        return texts;
+    }
+
+    private boolean activityChanged(Baseline before) {
+        if (before.activity == null) {
+            return false;
+        }
+        try {
+            return !Objects.equals(before.activity, driver.currentActivity());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
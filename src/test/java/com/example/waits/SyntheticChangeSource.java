@@ -0,0 +1,65 @@
+package com.example.waits;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a device change stream: changes are emitted by the caller, once after a delay
+ * or on a fixed period. Lets the event-driven {@link WaitEngine} path be exercised without a device
+ * (pass it to {@link WaitEngine#WaitEngine(io.appium.java_client.android.AndroidDriver, PollStrategy, UiChangeSource)}).
+ */
+public final class SyntheticChangeSource implements UiChangeSource {
+
+    private final ChangeCounter counter = new ChangeCounter();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "synthetic-ui-changes");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Reports one change now.
+     */
+    public void emit() {
+        counter.bump();
+    }
+
+    public void emitAfter(Duration delay) {
+        timer.schedule(this::emit, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void emitEvery(Duration period) {
+        long millis = Math.max(1, period.toMillis());
+        timer.scheduleAtFixedRate(this::emit, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ends the stream after {@code delay}, as if the device connection dropped.
+     */
+    public void endAfter(Duration delay) {
+        timer.schedule(counter::end, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long version() {
+        return counter.version();
+    }
+
+    @Override
+    public boolean awaitChange(long seenVersion, long timeoutMillis) throws InterruptedException {
+        return counter.awaitChange(seenVersion, timeoutMillis);
+    }
+
+    @Override
+    public boolean isLive() {
+        return !counter.isEnded();
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        counter.end();
+    }
+}
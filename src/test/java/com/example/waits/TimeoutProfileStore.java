@@ -0,0 +1,205 @@
+package com.example.waits;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import com.example.testdata.TestConfig;
+
+/**
+ * Observed durations of named wait steps per device model, persisted to
+ * {@code target/timeout-profiles.properties}. Steps are profiled per call site's coded timeout
+ * ({@link #profileName(String, Duration)}). Once a profile has enough samples on a device its
+ * timeout becomes the configured percentile times a safety multiplier, clamped to
+ * {@code [timeout.profile.minMs, timeout.profile.maxMs]}: history can shorten a wait on a fast
+ * device as well as lengthen it on a slow one. A wait coded below {@code minMs} is not raised to
+ * it, and steps listed in {@code timeout.profile.keepCoded} never go below their coded timeout.
+ * Until then, and with {@code timeout.profile.enabled=false}, the coded timeout applies; samples
+ * are recorded either way.
+ *
+ * <p>Successes are recorded as their duration. Timeouts are censored samples ("took at least this
+ * long", stored with a trailing {@code +}) and rank above every success, so a step that often times
+ * out has no percentile and keeps its coded timeout. The most recent {@link #MAX_SAMPLES} per key
+ * are kept.
+ */
+public final class TimeoutProfileStore {
+
+    private static final Path PROFILE_FILE = Paths.get("target", "timeout-profiles.properties");
+    private static final TimeoutProfileStore INSTANCE = new TimeoutProfileStore(PROFILE_FILE);
+    private static final int MAX_SAMPLES = 50;
+    private static final String CENSORED = "+";
+
+    private final Path file;
+    private final Properties props = new Properties();
+    private boolean dirty;
+
+    private TimeoutProfileStore(Path file) {
+        this.file = file;
+        load();
+    }
+
+    public static TimeoutProfileStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Profile name of {@code step} waited on with the coded timeout {@code coded}.
+     */
+    public static String profileName(String step, Duration coded) {
+        return step + "@" + coded.toMillis() + "ms";
+    }
+
+    /**
+     * Timeout for {@code profile} on {@code device}: derived from history when at least
+     * {@code timeout.profile.minSamples} samples exist and the percentile falls on a success,
+     * otherwise {@code coded}.
+     */
+    public synchronized Duration timeoutFor(String device, String profile, Duration coded) {
+        if (!TestConfig.TIMEOUT_PROFILE_ENABLED) {
+            return coded;
+        }
+        String[] samples = samples(key(device, profile));
+        if (samples.length < TestConfig.TIMEOUT_PROFILE_MIN_SAMPLES) {
+            return coded;
+        }
+        long observed = percentile(samples, TestConfig.TIMEOUT_PROFILE_PERCENTILE);
+        if (observed < 0) {
+            return coded;
+        }
+        long derived = Math.round(observed * TestConfig.TIMEOUT_PROFILE_MULTIPLIER);
+        long floor = keepsCoded(profile)
+            ? Math.max(coded.toMillis(), TestConfig.TIMEOUT_PROFILE_MIN_MS)
+            : Math.min(coded.toMillis(), TestConfig.TIMEOUT_PROFILE_MIN_MS);
+        long ceiling = Math.max(floor, TestConfig.TIMEOUT_PROFILE_MAX_MS);
+        return Duration.ofMillis(Math.max(floor, Math.min(ceiling, derived)));
+    }
+
+    /**
+     * Whether the step of {@code profile} is listed in {@code timeout.profile.keepCoded}.
+     */
+    static boolean keepsCoded(String profile) {
+        String step = profile.substring(0, Math.max(0, profile.lastIndexOf('@')));
+        for (String prefix : TestConfig.TIMEOUT_PROFILE_KEEP_CODED.split(",")) {
+            String p = prefix.trim();
+            if (!p.isEmpty() && step.startsWith(p)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A wait that succeeded after {@code elapsedMillis}.
+     */
+    public synchronized void record(String device, String profile, long elapsedMillis) {
+        append(key(device, profile), Long.toString(Math.max(0, elapsedMillis)));
+    }
+
+    /**
+     * A wait that timed out after {@code elapsedMillis}: the step takes at least that long.
+     */
+    public synchronized void recordTimeout(String device, String profile, long elapsedMillis) {
+        append(key(device, profile), Math.max(0, elapsedMillis) + CENSORED);
+    }
+
+    /**
+     * Number of recorded samples, successes and timeouts, for the profile on the device.
+     */
+    public synchronized int sampleCount(String device, String profile) {
+        return samples(key(device, profile)).length;
+    }
+
+    /**
+     * Writes the profiles if anything was recorded; failures are logged and otherwise ignored.
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream out = Files.newOutputStream(file)) {
+                props.store(out, "Wait durations in ms (most recent " + MAX_SAMPLES + ", timeouts marked "
+                    + CENSORED + ") per device and step@codedTimeout");
+            }
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("[TimeoutProfileStore] Unable to save " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Nearest-rank percentile with timeouts ranked above every success; -1 when the rank falls on a
+     * timeout, i.e. the percentile is longer than anything that succeeded.
+     */
+    static long percentile(String[] samples, int percentile) {
+        long[] successes = new long[samples.length];
+        int n = 0;
+        for (String sample : samples) {
+            if (!sample.endsWith(CENSORED)) {
+                successes[n++] = Long.parseLong(sample);
+            }
+        }
+        Arrays.sort(successes, 0, n);
+        int rank = Math.max(1, (int) Math.ceil(percentile / 100.0 * samples.length));
+        return rank <= n ? successes[rank - 1] : -1;
+    }
+
+    private void append(String key, String sample) {
+        String[] old = samples(key);
+        int keep = Math.min(old.length, MAX_SAMPLES - 1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = old.length - keep; i < old.length; i++) {
+            sb.append(old[i]).append(',');
+        }
+        sb.append(sample);
+        props.setProperty(key, sb.toString());
+        dirty = true;
+    }
+
+    private String[] samples(String key) {
+        String raw = props.getProperty(key);
+        if (raw == null || raw.isEmpty()) {
+            return new String[0];
+        }
+        List<String> valid = new ArrayList<>();
+        for (String part : raw.split(",")) {
+            String sample = part.trim();
+            try {
+                Long.parseLong(sample.endsWith(CENSORED) ? sample.substring(0, sample.length() - 1) : sample);
+                valid.add(sample);
+            } catch (NumberFormatException e) {
+                // skip malformed entries
+            }
+        }
+        return valid.toArray(new String[0]);
+    }
+
+    private static String key(String device, String step) {
+        return sanitize(device) + "." + step;
+    }
+
+    private static String sanitize(String device) {
+        return device == null || device.isBlank() ? "unknown" : device.trim().replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+            System.out.println("[TimeoutProfileStore] Loaded timeout profiles from " + file);
+        } catch (IOException e) {
+            System.err.println("[TimeoutProfileStore] Unable to load " + file + ": " + e.getMessage());
+        }
+    }
+}
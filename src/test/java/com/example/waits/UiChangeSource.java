@@ -0,0 +1,33 @@
+package com.example.waits;
+
+/**
+ * Stream of "the screen may have changed" notifications. With one attached, {@link WaitEngine}
+ * re-evaluates a condition when a change arrives instead of on a fixed polling interval; between
+ * changes it only re-checks every {@code wait.events.recheckMs} in case a change went unreported.
+ *
+ * <p>Changes are counted, not described: callers read {@link #version()} before evaluating a
+ * condition and then wait for the count to move past it, so a change that lands while the
+ * condition is being evaluated is not lost.
+ */
+public interface UiChangeSource extends AutoCloseable {
+
+    /**
+     * Number of changes seen so far; only ever increases.
+     */
+    long version();
+
+    /**
+     * Blocks until {@link #version()} exceeds {@code seenVersion} or {@code timeoutMillis} passes.
+     *
+     * @return true when a change arrived, false on timeout
+     */
+    boolean awaitChange(long seenVersion, long timeoutMillis) throws InterruptedException;
+
+    /**
+     * False once the stream has ended or failed; waits then fall back to polling.
+     */
+    boolean isLive();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,53 @@
+package com.example.waits;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.example.testdata.TestConfig;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * One {@link UiChangeSource} per driver, chosen by {@code wait.backend}: {@code poll} (default)
+ * attaches none, {@code logcat} streams from the session's device via {@link LogcatChangeSource}.
+ */
+public final class UiChangeSources {
+
+    private static final Map<AndroidDriver, UiChangeSource> BY_DRIVER = new WeakHashMap<>();
+
+    private UiChangeSources() {
+    }
+
+    /**
+     * The driver's change source, started on first use; null when the configured backend polls.
+     */
+    public static synchronized UiChangeSource forDriver(AndroidDriver driver) {
+        if (driver == null || !"logcat".equalsIgnoreCase(TestConfig.WAIT_BACKEND)) {
+            return null;
+        }
+        return BY_DRIVER.computeIfAbsent(driver,
+            d -> LogcatChangeSource.start(serialOf(d), TestConfig.WAIT_EVENTS_LOGCAT_FILTER));
+    }
+
+    /**
+     * Stops the driver's change source, if one was started.
+     */
+    public static synchronized void release(AndroidDriver driver) {
+        UiChangeSource source = BY_DRIVER.remove(driver);
+        if (source != null) {
+            source.close();
+        }
+    }
+
+    private static String serialOf(AndroidDriver driver) {
+        Object udid = null;
+        try {
+            udid = driver.getCapabilities().getCapability("udid");
+        } catch (Exception ignored) {
+        }
+        if (udid != null && !String.valueOf(udid).isBlank()) {
+            return String.valueOf(udid);
+        }
+        return TestConfig.DEVICE_UDID.isEmpty() ? TestConfig.DEVICE_NAME : TestConfig.DEVICE_UDID;
+    }
+}
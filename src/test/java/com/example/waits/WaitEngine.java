@@ -0,0 +1,279 @@
+package com.example.waits;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import com.example.testdata.TestConfig;
+
+import io.appium.java_client.android.AndroidDriver;
+
+/**
+ * One polling loop shared by every wait of a page object, replacing a {@code WebDriverWait} per call.
+ * Conditions have {@code WebDriverWait} semantics (done on a non-null, non-{@code false} result;
+ * not-found and stale-element exceptions count as "not yet"), so {@code ExpectedConditions} plug in as-is.
+ *
+ * <p>Deadlines are kept per thread on a stack: a wait started inside another wait's condition gets
+ * at most the time the outer wait has left, instead of a fresh timer that can outlive it. Every wait
+ * is recorded in the {@link WaitLedger} with its label, budget and actual duration, and charged to
+ * the active {@link FlowDeadline} if there is one.
+ *
+ * <p>With a {@link UiChangeSource} attached ({@code wait.backend=logcat}), waits on the default poll
+ * strategy re-evaluate when the device reports a change rather than every few hundred milliseconds,
+ * re-checking every {@code wait.events.recheckMs} when nothing is reported. Content-only changes are
+ * not reported, so those waits are only as quick as the recheck. Waits given an explicit
+ * {@link PollStrategy} (stability checks, for instance) keep their own cadence.
+ */
+public final class WaitEngine {
+
+    /** 100 ms for the first second (most transitions finish there), 300 ms afterwards. */
+    public static final PollStrategy DEFAULT_POLL =
+        PollStrategy.fastStartThenSlow(Duration.ofMillis(100), Duration.ofSeconds(1), Duration.ofMillis(300));
+
+    private static final ThreadLocal<Deadlines> DEADLINES = ThreadLocal.withInitial(Deadlines::new);
+
+    private final AndroidDriver driver;
+    private final WaitLedger ledger = WaitLedger.getInstance();
+    private final TimeoutProfileStore profiles = TimeoutProfileStore.getInstance();
+    private String deviceModel;
+    private final PollStrategy defaultPoll;
+    private final UiChangeSource changes;
+
+    public WaitEngine(AndroidDriver driver) {
+        this(driver, DEFAULT_POLL);
+    }
+
+    public WaitEngine(AndroidDriver driver, PollStrategy defaultPoll) {
+        this(driver, defaultPoll, UiChangeSources.forDriver(driver));
+    }
+
+    /**
+     * @param changes change stream that drives default-strategy waits; null to always poll
+     */
+    public WaitEngine(AndroidDriver driver, PollStrategy defaultPoll, UiChangeSource changes) {
+        this.driver = driver;
+        this.defaultPoll = defaultPoll;
+        this.changes = changes;
+    }
+
+    /**
+     * @throws TimeoutException when the condition is not met within the budget (or the enclosing wait's or flow's remainder)
+     */
+    public <T> T until(String label, Duration budget, Function<? super WebDriver, T> condition) {
+        return run(label, budget, defaultPoll, condition, true, null, null);
+    }
+
+    public <T> T until(String label, Duration budget, PollStrategy poll, Function<? super WebDriver, T> condition) {
+        return run(label, budget, poll, condition, true, null, null);
+    }
+
+    /**
+     * A named step whose timeout comes from its recorded history on this device model
+     * ({@link TimeoutProfileStore}); {@code fallback}, the coded timeout, applies until there is
+     * enough history, after which the timeout can shrink or grow within the profile bounds. A
+     * timeout at a shrunk value is recorded too, which pulls the step back towards its coded
+     * timeout. History is kept per step and coded timeout, so call sites that wait on the same
+     * locator with different timeouts learn separately.
+     *
+     * @throws TimeoutException as {@link #until}
+     */
+    public <T> T untilStep(String step, Duration fallback, Function<? super WebDriver, T> condition) {
+        String device = deviceModel();
+        String profile = TimeoutProfileStore.profileName(step, fallback);
+        return run(step, profiles.timeoutFor(device, profile, fallback), defaultPoll, condition, true, device, profile);
+    }
+
+    /**
+     * {@link #untilStep(String, Duration, Function)} with {@code timeout.implicit} as the fallback.
+     */
+    public <T> T untilStep(String step, Function<? super WebDriver, T> condition) {
+        return untilStep(step, Duration.ofSeconds(TestConfig.TIMEOUT_IMPLICIT), condition);
+    }
+
+    /**
+     * Like {@link #until} but returns null instead of throwing on timeout.
+     */
+    public <T> T poll(String label, Duration budget, Function<? super WebDriver, T> condition) {
+        return run(label, budget, defaultPoll, condition, false, null, null);
+    }
+
+    public <T> T poll(String label, Duration budget, PollStrategy poll, Function<? super WebDriver, T> condition) {
+        return run(label, budget, poll, condition, false, null, null);
+    }
+
+    /**
+     * Convenience for boolean checks: true when the condition held within the budget.
+     */
+    public boolean holds(String label, Duration budget, Function<? super WebDriver, Boolean> condition) {
+        return Boolean.TRUE.equals(run(label, budget, defaultPoll, condition, false, null, null));
+    }
+
+    public boolean holds(String label, Duration budget, PollStrategy poll, Function<? super WebDriver, Boolean> condition) {
+        return Boolean.TRUE.equals(run(label, budget, poll, condition, false, null, null));
+    }
+
+    /**
+     * Milliseconds left to the innermost active wait on this thread, or {@link Long#MAX_VALUE} outside any wait.
+     */
+    public static long remainingMillis() {
+        long deadline = DEADLINES.get().current();
+        if (deadline == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, (deadline - System.nanoTime()) / 1_000_000L);
+    }
+
+    private <T> T run(String label, Duration budget, PollStrategy poll, Function<? super WebDriver, T> condition,
+                      boolean throwOnTimeout, String profiledDevice, String profile) {
+        Deadlines deadlines = DEADLINES.get();
+        long start = System.nanoTime();
+        long budgetMillis = budget.toMillis();
+        FlowDeadline spent = FlowDeadline.firstExpired();
+        if (spent != null) {
+            // Fail fast: a spent flow budget means no wait gets even one poll
+            ledger.record(label, budgetMillis, 0, true, true);
+            FlowDeadline.chargeWait(label, 0, true);
+            if (throwOnTimeout) {
+                throw new FlowDeadlineExceededException(spent, label);
+            }
+            return null;
+        }
+        long own = start + budget.toNanos();
+        long outer = deadlines.current();
+        boolean clamped = outer < own;
+        long deadline = clamped ? outer : own;
+
+        deadlines.push(deadline);
+        boolean eventDriven = changes != null && poll == defaultPoll;
+        int attempt = 0;
+        RuntimeException lastIgnored = null;
+        try {
+            while (true) {
+                // Read before evaluating so a change during the evaluation still wakes the next wait
+                long seen = eventDriven ? changes.version() : 0;
+                try {
+                    T value = condition.apply(driver);
+                    if (value != null && !Boolean.FALSE.equals(value)) {
+                        long elapsed = (System.nanoTime() - start) / 1_000_000L;
+                        ledger.record(label, budgetMillis, elapsed, false, clamped);
+                        FlowDeadline.chargeWait(label, elapsed, false);
+                        if (profiledDevice != null) {
+                            profiles.record(profiledDevice, profile, elapsed);
+                        }
+                        return value;
+                    }
+                } catch (NotFoundException | StaleElementReferenceException e) {
+                    lastIgnored = e;
+                }
+
+                long now = System.nanoTime();
+                long remaining = (deadline - now) / 1_000_000L;
+                if (remaining <= 0) {
+                    long elapsed = (now - start) / 1_000_000L;
+                    ledger.record(label, budgetMillis, elapsed, true, clamped);
+                    FlowDeadline.chargeWait(label, elapsed, true);
+                    if (profiledDevice != null && !clamped) {
+                        // Took at least this long; a wait cut short by an enclosing deadline says nothing
+                        profiles.recordTimeout(profiledDevice, profile, elapsed);
+                    }
+                    if (!throwOnTimeout) {
+                        return null;
+                    }
+                    spent = FlowDeadline.firstExpired();
+                    if (spent != null) {
+                        throw new FlowDeadlineExceededException(spent, label);
+                    }
+                    String what = condition instanceof ExpectedCondition ? label + " [" + condition + "]" : label;
+                    throw new TimeoutException("Expected condition failed: " + what + " (tried for " + elapsed
+                        + " ms of " + budgetMillis + " ms budget" + (clamped ? ", clamped by enclosing deadline" : "")
+                        + ", " + (attempt + 1) + " checks)", lastIgnored);
+                }
+                attempt++;
+                if (eventDriven && changes.isLive()) {
+                    awaitChange(seen, Math.min(TestConfig.WAIT_EVENTS_RECHECK_MS, remaining));
+                } else {
+                    sleep(Math.min(poll.delayMillis(attempt, (now - start) / 1_000_000L), remaining));
+                }
+            }
+        } finally {
+            deadlines.pop();
+        }
+    }
+
+    /**
+     * Device model reported by the session (falls back to the configured device name); profiles are kept per model.
+     */
+    public String deviceModel() {
+        if (deviceModel == null) {
+            Object model = null;
+            try {
+                model = driver.getCapabilities().getCapability("deviceModel");
+            } catch (Exception ignored) {
+            }
+            deviceModel = model != null && !String.valueOf(model).isBlank() ? String.valueOf(model) : TestConfig.DEVICE_NAME;
+        }
+        return deviceModel;
+    }
+
+    /**
+     * Bounds every wait on this thread by {@code deadlineNanos} (a {@link System#nanoTime()} value)
+     * until the matching {@link #popDeadline()}; used by {@link FlowDeadline}.
+     */
+    static void pushDeadline(long deadlineNanos) {
+        Deadlines deadlines = DEADLINES.get();
+        deadlines.push(Math.min(deadlineNanos, deadlines.current()));
+    }
+
+    static void popDeadline() {
+        DEADLINES.get().pop();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting", ie);
+        }
+    }
+
+    private void awaitChange(long seenVersion, long millis) {
+        try {
+            changes.awaitChange(seenVersion, millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting", ie);
+        }
+    }
+
+    /**
+     * Growable stack of absolute deadlines (nanoTime); reused for the life of the thread.
+     */
+    private static final class Deadlines {
+        private long[] stack = new long[8];
+        private int depth;
+
+        long current() {
+            return depth == 0 ? Long.MAX_VALUE : stack[depth - 1];
+        }
+
+        void push(long deadline) {
+            if (depth == stack.length) {
+                stack = Arrays.copyOf(stack, depth * 2);
+            }
+            stack[depth++] = deadline;
+        }
+
+        void pop() {
+            if (depth > 0) {
+                depth--;
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.waits;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.example.testdata.TestConfig;
+
+/**
+ * Event-driven waits of {@link WaitEngine} against a {@link SyntheticChangeSource}; no driver or
+ * device is involved. The engine's own poll is 20 ms, so a wait that is really driven by events
+ * evaluates its condition far fewer times than one that polls.
+ */
+public class WaitEngineChangeSourceTest {
+
+    private static final PollStrategy FAST_POLL = PollStrategy.fixed(Duration.ofMillis(20));
+
+    private SyntheticChangeSource changes;
+    private WaitEngine waits;
+
+    @BeforeMethod
+    public void setUp() {
+        changes = new SyntheticChangeSource();
+        waits = new WaitEngine(null, FAST_POLL, changes);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        changes.close();
+    }
+
+    @Test
+    public void wakesUpOnEmittedChange() {
+        AtomicBoolean ready = new AtomicBoolean();
+        AtomicInteger checks = new AtomicInteger();
+        long delay = TestConfig.WAIT_EVENTS_RECHECK_MS / 3;
+        new Thread(() -> {
+            sleep(delay);
+            ready.set(true);
+            changes.emit();
+        }).start();
+
+        long start = System.currentTimeMillis();
+        boolean held = waits.holds("unit.wakeUp", Duration.ofSeconds(5), d -> {
+            checks.incrementAndGet();
+            return ready.get();
+        });
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(held);
+        assertEquals(checks.get(), 2, "one check before the change, one after it");
+        assertTrue(elapsed < TestConfig.WAIT_EVENTS_RECHECK_MS, "woke after " + elapsed + " ms, not at the recheck");
+    }
+
+    @Test
+    public void rechecksWhenNoEventArrives() {
+        AtomicBoolean ready = new AtomicBoolean();
+        AtomicInteger checks = new AtomicInteger();
+        new Thread(() -> {
+            sleep(20);
+            ready.set(true);
+        }).start();
+
+        long start = System.currentTimeMillis();
+        boolean held = waits.holds("unit.recheck", Duration.ofSeconds(5), d -> {
+            checks.incrementAndGet();
+            return ready.get();
+        });
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(held);
+        assertEquals(checks.get(), 2, "the silent stream is re-checked once per recheck interval");
+        assertTrue(elapsed >= TestConfig.WAIT_EVENTS_RECHECK_MS - 20, "re-checked after " + elapsed + " ms");
+    }
+
+    @Test
+    public void fallsBackToPollingAfterTheStreamEnds() {
+        AtomicInteger checks = new AtomicInteger();
+        changes.endAfter(Duration.ofMillis(50));
+
+        Object result = waits.poll("unit.ended", Duration.ofMillis(600), d -> {
+            checks.incrementAndGet();
+            return null;
+        });
+
+        assertNull(result);
+        assertFalse(changes.isLive());
+        // Event-driven, 600 ms would allow a handful of checks at most; the 20 ms poll makes dozens
+        assertTrue(checks.get() >= 10, "only " + checks.get() + " checks after the stream ended");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.waits;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Run-wide record of how long each labelled {@link WaitEngine} wait took against the budget it was
+ * given. Written to {@code target/wait-timings.properties} so oversized or too-tight budgets show up
+ * after a run.
+ */
+public final class WaitLedger {
+
+    private static final Path TIMINGS_FILE = Paths.get("target", "wait-timings.properties");
+    private static final WaitLedger INSTANCE = new WaitLedger();
+
+    // Slots of each entry
+    private static final int COUNT = 0;
+    private static final int TIMEOUTS = 1;
+    private static final int ELAPSED_MS = 2;
+    private static final int MAX_MS = 3;
+    private static final int BUDGET_MS = 4;
+    private static final int CLAMPED = 5;
+
+    private final Map<String, long[]> entries = new TreeMap<>();
+
+    private WaitLedger() {
+    }
+
+    public static WaitLedger getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param budgetMillis the budget the caller asked for
+     * @param clamped      whether an enclosing wait cut the budget short
+     */
+    public synchronized void record(String label, long budgetMillis, long elapsedMillis, boolean timedOut, boolean clamped) {
+        long[] e = entries.computeIfAbsent(label, k -> new long[6]);
+        e[COUNT]++;
+        e[TIMEOUTS] += timedOut ? 1 : 0;
+        e[ELAPSED_MS] += elapsedMillis;
+        e[MAX_MS] = Math.max(e[MAX_MS], elapsedMillis);
+        e[BUDGET_MS] += budgetMillis;
+        e[CLAMPED] += clamped ? 1 : 0;
+    }
+
+    public synchronized long count(String label) {
+        long[] e = entries.get(label);
+        return e == null ? 0 : e[COUNT];
+    }
+
+    public synchronized long timeouts(String label) {
+        long[] e = entries.get(label);
+        return e == null ? 0 : e[TIMEOUTS];
+    }
+
+    /**
+     * Share of the budget used on average, 0..1; -1 when the label never waited.
+     */
+    public synchronized double budgetUsage(String label) {
+        long[] e = entries.get(label);
+        return e == null || e[BUDGET_MS] == 0 ? -1 : (double) e[ELAPSED_MS] / e[BUDGET_MS];
+    }
+
+    /**
+     * Writes the current totals; failures are logged and otherwise ignored.
+     */
+    public synchronized void save() {
+        Properties props = new Properties();
+        for (Map.Entry<String, long[]> entry : entries.entrySet()) {
+            long[] e = entry.getValue();
+            String key = entry.getKey();
+            props.setProperty(key + ".count", String.valueOf(e[COUNT]));
+            props.setProperty(key + ".timeouts", String.valueOf(e[TIMEOUTS]));
+            props.setProperty(key + ".avgMs", String.valueOf(e[ELAPSED_MS] / e[COUNT]));
+            props.setProperty(key + ".maxMs", String.valueOf(e[MAX_MS]));
+            props.setProperty(key + ".avgBudgetMs", String.valueOf(e[BUDGET_MS] / e[COUNT]));
+            props.setProperty(key + ".clamped", String.valueOf(e[CLAMPED]));
+        }
+        try {
+            Files.createDirectories(TIMINGS_FILE.getParent());
+            try (OutputStream out = Files.newOutputStream(TIMINGS_FILE)) {
+                props.store(out, "Wait timings (count, timeouts, avg/max elapsed and avg budget in ms per label)");
+            }
+        } catch (IOException e) {
+            System.err.println("[WaitLedger] Unable to save " + TIMINGS_FILE + ": " + e.getMessage());
+        }
+    }
+}